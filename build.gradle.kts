@@ -1,9 +1,12 @@
 plugins {
     id("java")
+    id("java-test-fixtures")
     id("org.springframework.boot") version "3.2.0"
     id("io.spring.dependency-management") version "1.1.3"
     id("jacoco")
     id("org.openapi.generator") version "7.2.0"
+    id("org.hibernate.orm") version "6.3.1.Final"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.sky.pedroboavida.test"
@@ -23,6 +26,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-aop")
     implementation("org.liquibase:liquibase-core")
 
     runtimeOnly("org.postgresql:postgresql")
@@ -31,6 +35,7 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok")
 
     implementation("io.micrometer:micrometer-registry-prometheus")
+    implementation("org.hibernate.orm:hibernate-micrometer")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.testcontainers:testcontainers")
@@ -38,6 +43,14 @@ dependencies {
     testImplementation("org.testcontainers:postgresql")
     testImplementation("org.mockito:mockito-core")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    // Synthetic datasets (src/testFixtures/java), shared by the tests and the load test
+    testFixturesImplementation("org.postgresql:postgresql")
+    testFixturesImplementation("org.springframework.security:spring-security-crypto")
+
+    // JMH benchmarks (src/jmh/java)
+    jmhImplementation("org.springframework.boot:spring-boot-starter-test")
+    jmhImplementation("org.testcontainers:postgresql")
     
     // OpenAPI Generator
     implementation("org.openapitools:jackson-databind-nullable:0.2.6")
@@ -79,6 +92,29 @@ openApiGenerate {
     ))
 }
 
+// Build-time bytecode enhancement of the JPA entities: Hibernate tracks modified attributes
+// as they are set instead of diffing snapshots at flush time. Association management stays off:
+// it would make ExternalProject.setUser initialize the user's whole project collection.
+hibernate {
+    enhancement {
+        enableLazyInitialization.set(true)
+        enableDirtyTracking.set(true)
+    }
+}
+
+// Microbenchmarks: ./gradlew jmh, or ./gradlew jmh -PjmhIncludes=<regex> for a subset.
+// Results, including allocation per operation from the gc profiler, are written as JSON.
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
+
 // Make generated code available to main source set
 sourceSets {
     main {
@@ -88,6 +124,72 @@ sourceSets {
     }
 }
 
+// End-to-end load test (src/loadtest/java) against the application on Testcontainers Postgres:
+// ./gradlew loadTest -Ploadtest.rate=200 -Ploadtest.duration=60s -Ploadtest.mix=getUser=80,addProject=20
+// HdrHistogram distributions and summary.json are written to build/reports/loadtest.
+val loadtest: SourceSet = sourceSets.create("loadtest") {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.1.12")
+    "loadtestImplementation"("org.testcontainers:postgresql")
+    "loadtestImplementation"(testFixtures(project))
+}
+
+// The perf gate's statistics (src/test/java/.../perf) are unit tested with the rest of the suite
+sourceSets {
+    test {
+        compileClasspath += loadtest.output
+        runtimeClasspath += loadtest.output
+    }
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the end-to-end load test against the application on Testcontainers Postgres"
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("com.sky.pedroboavida.test.loadtest.LoadTest")
+    systemProperty("loadtest.report-directory", layout.buildDirectory.dir("reports/loadtest").get().asFile.path)
+    listOf("rate", "warmup", "duration", "window", "users", "projects-per-user", "dataset-users", "dataset-skew", "mix").forEach { name ->
+        providers.gradleProperty("loadtest.$name").orNull?.let { systemProperty("loadtest.$name", it) }
+    }
+    mustRunAfter("jmh")
+}
+
+// Performance regression gate: ./gradlew perfCheck runs the JMH and load test suites and compares the
+// results with perf/baseline.json, failing on regressions beyond -Pperf.throughput-tolerance (default 0.05)
+// or -Pperf.latency-tolerance (p99, default 0.10). ./gradlew perfBaseline records the baseline instead.
+fun JavaExec.perfGate(command: String) {
+    group = "verification"
+    dependsOn("jmh", "loadTest")
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("com.sky.pedroboavida.test.perf.PerfGate")
+    args(
+        command,
+        file("perf/baseline.json").path,
+        layout.buildDirectory.file("results/jmh/results.json").get().asFile.path,
+        layout.buildDirectory.file("reports/loadtest/summary.json").get().asFile.path,
+        layout.buildDirectory.dir("reports/perf").get().asFile.path
+    )
+    listOf("throughput-tolerance", "latency-tolerance").forEach { name ->
+        providers.gradleProperty("perf.$name").orNull?.let { systemProperty("perf.$name", it) }
+    }
+}
+
+tasks.register<JavaExec>("perfCheck") {
+    description = "Runs the benchmarks and the load test and fails if they regressed against perf/baseline.json"
+    perfGate("check")
+}
+
+tasks.register<JavaExec>("perfBaseline") {
+    description = "Runs the benchmarks and the load test and records the results as perf/baseline.json"
+    perfGate("record")
+}
+
 // Ensure OpenAPI generation runs before compilation
 tasks.compileJava {
     dependsOn("openApiGenerate")
@@ -0,0 +1,80 @@
+package com.sky.pedroboavida.test.converter;
+
+import com.sky.pedroboavida.test.entity.ExternalProject;
+import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.model.UserDTO;
+import com.sky.pedroboavida.test.repository.UserSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion for a user with {@code projects} external projects, the work done for
+ * every user and project response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    @Param({"0", "10", "100", "1000"})
+    private int projects;
+
+    private final ExternalProjectToExternalProjectDTOConverter externalProjectConverter =
+            new ExternalProjectToExternalProjectDTOConverter();
+    private final UserToUserDTOConverter userConverter = new UserToUserDTOConverter(externalProjectConverter);
+
+    private User user;
+    private UserSummary summary;
+    private List<ExternalProject> projectList;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+        user.setPassword("$2a$10$hash");
+        user.setName("Benchmark User");
+        user.setProjectCount(projects);
+
+        projectList = new ArrayList<>(projects);
+        for (int i = 0; i < projects; i++) {
+            ExternalProject project = new ExternalProject();
+            project.setId("project-" + i);
+            project.setName("Project " + i);
+            project.setUser(user);
+            user.getExternalProjects().add(project);
+            projectList.add(project);
+        }
+        summary = new UserSummary(1L, "user@example.com", "Benchmark User", projects);
+    }
+
+    @Benchmark
+    public UserDTO convertUser() {
+        return userConverter.convert(user);
+    }
+
+    @Benchmark
+    public UserDTO convertSummary() {
+        return userConverter.convertSummary(summary);
+    }
+
+    @Benchmark
+    public List<ExternalProjectDTO> convertProjects() {
+        List<ExternalProjectDTO> dtos = new ArrayList<>(projectList.size());
+        for (ExternalProject project : projectList) {
+            dtos.add(externalProjectConverter.convert(project));
+        }
+        return dtos;
+    }
+}
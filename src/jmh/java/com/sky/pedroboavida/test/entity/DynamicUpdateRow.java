@@ -0,0 +1,11 @@
+package com.sky.pedroboavida.test.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.DynamicUpdate;
+
+@Entity
+@DynamicUpdate
+@Table(name = "flush_benchmark_dynamic")
+public class DynamicUpdateRow extends FlushBenchmarkRow {
+}
@@ -0,0 +1,218 @@
+package com.sky.pedroboavida.test.entity;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.BootstrapServiceRegistryBuilder;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.bytecode.enhance.spi.DefaultEnhancementContext;
+import org.hibernate.bytecode.enhance.spi.Enhancer;
+import org.hibernate.bytecode.enhance.spi.UnloadedField;
+import org.hibernate.bytecode.internal.BytecodeProviderInitiator;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of flushing a one-column change with build-time enhancement and {@code @DynamicUpdate}
+ * each switched on and off. A session keeps {@code managedEntities} rows loaded and every
+ * operation renames one of them and commits, so the time is the flush: without enhancement
+ * Hibernate diffs the snapshot of every managed row, with it only the rows whose setters ran.
+ * The {@code updateStatements} and {@code updateStatementChars} counters give the UPDATE size:
+ * without {@code @DynamicUpdate} every column is written back.
+ * <p>
+ * The application entities are always enhanced by the build, so the benchmark maps its own
+ * rows and enhances them at load time when {@code enhanced} is set, with the same options as
+ * the build. Runs against Postgres in a Testcontainers container, so Docker must be available.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EntityFlushBenchmark {
+
+    private static final Set<String> ENTITY_CLASSES = Set.of(
+            FlushBenchmarkRow.class.getName(), DynamicUpdateRow.class.getName(), FullUpdateRow.class.getName());
+
+    @Param({"true", "false"})
+    private boolean enhanced;
+
+    @Param({"true", "false"})
+    private boolean dynamicUpdate;
+
+    @Param({"100", "1000"})
+    private int managedEntities;
+
+    private PostgreSQLContainer<?> postgres;
+    private SessionFactory sessionFactory;
+    private Session session;
+    private List<?> rows;
+    private MethodHandle setName;
+    private long version;
+    private long pendingUpdates;
+    private long pendingUpdateChars;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        ClassLoader applicationLoader = EntityFlushBenchmark.class.getClassLoader();
+        ClassLoader entityLoader = enhanced ? new EnhancingClassLoader(applicationLoader) : applicationLoader;
+        Class<?> entityClass = entityLoader.loadClass(
+                (dynamicUpdate ? DynamicUpdateRow.class : FullUpdateRow.class).getName());
+        if (SelfDirtinessTracker.class.isAssignableFrom(entityClass) != enhanced) {
+            throw new IllegalStateException(entityClass + " enhanced: " + !enhanced + ", expected " + enhanced);
+        }
+
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder(
+                new BootstrapServiceRegistryBuilder().applyClassLoader(entityLoader).build())
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, postgres.getJdbcUrl())
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, postgres.getUsername())
+                .applySetting(AvailableSettings.JAKARTA_JDBC_PASSWORD, postgres.getPassword())
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) this::inspect)
+                .build();
+        sessionFactory = new MetadataSources(registry).addAnnotatedClass(entityClass).buildMetadata()
+                .buildSessionFactory();
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle fill = lookup.findVirtual(entityClass, "fill", MethodType.methodType(void.class, long.class));
+        setName = lookup.findVirtual(entityClass, "setName", MethodType.methodType(void.class, String.class));
+        sessionFactory.inTransaction(seeding -> {
+            for (long id = 0; id < managedEntities; id++) {
+                try {
+                    Object row = entityClass.getConstructor().newInstance();
+                    fill.invoke(row, id);
+                    seeding.persist(row);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        session = sessionFactory.openSession();
+        rows = session.createSelectionQuery("from " + entityClass.getName(), entityClass).getResultList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public void renameOneManagedEntity(UpdateStatements statements) throws Throwable {
+        pendingUpdates = 0;
+        pendingUpdateChars = 0;
+        Transaction transaction = session.beginTransaction();
+        setName.invoke(rows.get((int) (version % rows.size())), "Row v" + version++);
+        transaction.commit();
+        statements.updateStatements += pendingUpdates;
+        statements.updateStatementChars += pendingUpdateChars;
+    }
+
+    private String inspect(String sql) {
+        if (sql.regionMatches(true, 0, "update", 0, 6)) {
+            pendingUpdates++;
+            pendingUpdateChars += sql.length();
+        }
+        return sql;
+    }
+
+    /**
+     * UPDATE statements issued and their total length in characters over each iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class UpdateStatements {
+
+        public long updateStatements;
+        public long updateStatementChars;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            updateStatements = 0;
+            updateStatementChars = 0;
+        }
+    }
+
+    /**
+     * Loads the benchmark entities through Hibernate's enhancer, child first, and everything else
+     * from the application class loader.
+     */
+    private static final class EnhancingClassLoader extends ClassLoader {
+
+        private final Enhancer enhancer;
+
+        private EnhancingClassLoader(ClassLoader parent) {
+            super(parent);
+            this.enhancer = BytecodeProviderInitiator.buildDefaultBytecodeProvider().getEnhancer(
+                    new DefaultEnhancementContext() {
+                        @Override
+                        public ClassLoader getLoadingClassLoader() {
+                            return parent;
+                        }
+
+                        // Matches the build, which leaves association management off
+                        @Override
+                        public boolean doBiDirectionalAssociationManagement(UnloadedField field) {
+                            return false;
+                        }
+                    });
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!ENTITY_CLASSES.contains(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    byte[] original = readClass(name);
+                    byte[] enhancedBytes = enhancer.enhance(name, original);
+                    byte[] bytes = enhancedBytes != null ? enhancedBytes : original;
+                    loaded = defineClass(name, bytes, 0, bytes.length);
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+
+        private byte[] readClass(String name) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                if (in == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}
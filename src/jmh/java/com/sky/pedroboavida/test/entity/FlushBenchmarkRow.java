@@ -0,0 +1,68 @@
+package com.sky.pedroboavida.test.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+
+/**
+ * Columns shared by the {@link EntityFlushBenchmark} entities: wide enough that writing every
+ * column on update is visibly larger than writing the one that changed.
+ */
+@MappedSuperclass
+public abstract class FlushBenchmarkRow {
+
+    @Id
+    private Long id;
+
+    @Column(length = 120)
+    private String name;
+
+    @Column(length = 500)
+    private String description;
+
+    @Column(length = 200)
+    private String owner;
+
+    @Column(length = 40)
+    private String status;
+
+    @Column(length = 40)
+    private String region;
+
+    @Column(length = 80)
+    private String category;
+
+    @Column(length = 200)
+    private String tags;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Column(length = 200)
+    private String url;
+
+    public void fill(long id) {
+        this.id = id;
+        this.name = "Row " + id;
+        this.description = "Benchmark row " + id + " with a description of realistic length";
+        this.owner = "owner" + id + "@example.com";
+        this.status = "ACTIVE";
+        this.region = "eu-west-1";
+        this.category = "category-" + (id % 10);
+        this.tags = "alpha,beta,gamma";
+        this.notes = "Notes for row " + id;
+        this.url = "https://example.com/projects/" + id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,9 @@
+package com.sky.pedroboavida.test.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "flush_benchmark_full")
+public class FullUpdateRow extends FlushBenchmarkRow {
+}
@@ -0,0 +1,66 @@
+package com.sky.pedroboavida.test.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.model.CreateUserRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error rendering: building the {@code ErrorResponse} in {@link GlobalExceptionHandler} and
+ * writing it as JSON, as done for every rejected request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/42");
+
+    private UserNotFoundException notFound;
+    private MethodArgumentNotValidException validationFailure;
+    private RuntimeException unexpected;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        notFound = new UserNotFoundException(42L);
+        unexpected = new IllegalStateException("Unexpected failure");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new CreateUserRequest(), "createUserRequest");
+        bindingResult.rejectValue("email", "Email", "must be a well-formed email address");
+        bindingResult.rejectValue("password", "Size", "size must be between 6 and 100");
+        bindingResult.rejectValue("name", "Size", "size must be between 0 and 120");
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("validationFailure"), -1);
+        validationFailure = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public byte[] notFound() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleUserNotFoundException(notFound, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] validationFailure() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleValidationException(validationFailure, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] unexpectedFailure() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleGenericException(unexpected, request).getBody());
+    }
+}
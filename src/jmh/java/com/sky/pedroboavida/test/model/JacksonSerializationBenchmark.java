@@ -0,0 +1,71 @@
+package com.sky.pedroboavida.test.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the generated response models with the object mapper settings Spring
+ * Boot applies, for a user with {@code projects} expanded external projects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class JacksonSerializationBenchmark {
+
+    @Param({"0", "10", "100", "1000"})
+    private int projects;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private UserDTO user;
+    private List<ExternalProjectDTO> projectList;
+    private byte[] userJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        projectList = new ArrayList<>(projects);
+        for (int i = 0; i < projects; i++) {
+            ExternalProjectDTO project = new ExternalProjectDTO();
+            project.setId("project-" + i);
+            project.setName("Project " + i);
+            project.setUserId(1L);
+            projectList.add(project);
+        }
+
+        user = new UserDTO();
+        user.setId(1L);
+        user.setEmail("user@example.com");
+        user.setName("Benchmark User");
+        user.setProjectCount(projects);
+        user.setExternalProjects(projects == 0 ? null : projectList);
+        userJson = objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws IOException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializeProjects() throws IOException {
+        return objectMapper.writeValueAsBytes(projectList);
+    }
+
+    @Benchmark
+    public UserDTO deserializeUser() throws IOException {
+        return objectMapper.readValue(userJson, UserDTO.class);
+    }
+}
@@ -0,0 +1,160 @@
+package com.sky.pedroboavida.test.repository;
+
+import com.sky.pedroboavida.test.TestApplication;
+import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsRequest;
+import com.sky.pedroboavida.test.model.UpdateUserRequest;
+import com.sky.pedroboavida.test.model.UserDTO;
+import com.sky.pedroboavida.test.service.ExternalProjectService;
+import com.sky.pedroboavida.test.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service hot path on each persistence mode: reading a user with and without its projects,
+ * listing a user's projects, and updating one column, which measures the flush (dirty tracking
+ * and dynamic updates under JPA). The jpa and jdbc modes run against Postgres in a Testcontainers
+ * container, so Docker must be available. Run with the gc profiler to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PersistenceModeBenchmark {
+
+    private static final int USERS = 200;
+    private static final int PROJECTS_PER_USER = 20;
+
+    @Param({"jpa", "jdbc", "memory"})
+    private String mode;
+
+    private PostgreSQLContainer<?> postgres;
+    private Path memoryDirectory;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private ExternalProjectService externalProjectService;
+    private long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.sky.pedroboavida.test", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        if ("memory".equals(mode)) {
+            memoryDirectory = Files.createTempDirectory("memory-store");
+            properties.put("app.memory.directory", memoryDirectory.toString());
+        } else {
+            postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+            postgres.start();
+            properties.put("spring.datasource.url", postgres.getJdbcUrl());
+            properties.put("spring.datasource.username", postgres.getUsername());
+            properties.put("spring.datasource.password", postgres.getPassword());
+        }
+
+        SpringApplicationBuilder application = new SpringApplicationBuilder(TestApplication.class).properties(properties);
+        if (!"jpa".equals(mode)) {
+            application.profiles(mode);
+        }
+        context = application.run();
+        userService = context.getBean(UserService.class);
+        externalProjectService = context.getBean(ExternalProjectService.class);
+        seed(context.getBean(UserRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        if (postgres != null) {
+            postgres.stop();
+        }
+        if (memoryDirectory != null) {
+            FileSystemUtils.deleteRecursively(memoryDirectory);
+        }
+    }
+
+    @Benchmark
+    public UserDTO findUserSummary(Cursor cursor) {
+        return userService.getUserById(cursor.next(userIds), false);
+    }
+
+    @Benchmark
+    public UserDTO findUserWithProjects(Cursor cursor) {
+        return userService.getUserById(cursor.next(userIds), true);
+    }
+
+    @Benchmark
+    public List<ExternalProjectDTO> listProjects(Cursor cursor) {
+        return externalProjectService.getExternalProjectsByUserId(cursor.next(userIds));
+    }
+
+    @Benchmark
+    public UserDTO updateUserName(Cursor cursor) {
+        long id = cursor.next(userIds);
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setName("User " + id + " v" + cursor.position);
+        return userService.updateUser(id, request);
+    }
+
+    // Passwords are stored pre-hashed: seeding through UserService would spend minutes in BCrypt
+    private void seed(UserRepository userRepository) {
+        userIds = new long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7ZyEqGbl/2zGSBTWKEdUzCu");
+            user.setName("User " + i);
+            userIds[i] = userRepository.save(user).getId();
+
+            List<CreateExternalProjectRequest> projects = new ArrayList<>(PROJECTS_PER_USER);
+            for (int j = 0; j < PROJECTS_PER_USER; j++) {
+                CreateExternalProjectRequest project = new CreateExternalProjectRequest();
+                project.setId("user" + i + "-project-" + j);
+                project.setName("Project " + j);
+                projects.add(project);
+            }
+            SyncExternalProjectsRequest request = new SyncExternalProjectsRequest();
+            request.setProjects(projects);
+            externalProjectService.syncExternalProjects(userIds[i], request);
+        }
+    }
+
+    /**
+     * Walks the seeded users round-robin, separately for each benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private long position;
+
+        long next(long[] ids) {
+            return ids[(int) (position++ % ids.length)];
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.sky.pedroboavida.test.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of each operation in microseconds, recorded twice: the response time, measured from
+ * the moment the open-loop schedule intended to send the request, and the service time,
+ * measured from when it was actually sent. Because the schedule does not wait for responses,
+ * the response time includes any queueing a stalled server causes, which is what corrects for
+ * coordinated omission; a service time far below it means requests were waiting to be sent.
+ *
+ * <p>Response times and successful requests are also kept per window of the schedule, so a single
+ * run yields a series of p99 and throughput samples to compute confidence intervals from.
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final long startNanos;
+    private final long windowNanos;
+    private final int windows;
+
+    LatencyRecorder(Set<Operation> operations, long startNanos, Duration duration, Duration window) {
+        this.startNanos = startNanos;
+        this.windowNanos = window.toNanos();
+        this.windows = (int) Math.max(1, duration.toNanos() / windowNanos);
+        for (Operation operation : operations) {
+            stats.put(operation, new Stats(windows));
+        }
+    }
+
+    /**
+     * Records a completed request, and adds it to the window of the time it was scheduled for
+     * unless that falls in the partial window at the end of the run.
+     */
+    void record(Operation operation, long intendedStartNanos, int status, long responseTimeNanos,
+                long serviceTimeNanos) {
+        Stats operationStats = stats.get(operation);
+        long responseTimeMicros = toMicros(responseTimeNanos);
+        operationStats.responseTime.recordValue(responseTimeMicros);
+        operationStats.serviceTime.recordValue(toMicros(serviceTimeNanos));
+        operationStats.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+
+        long window = Math.max(0, (intendedStartNanos - startNanos) / windowNanos);
+        if (window < windows) {
+            operationStats.windowResponseTimes[(int) window].recordValue(responseTimeMicros);
+            if (status >= 200 && status < 300) {
+                operationStats.windowSuccesses[(int) window].increment();
+            }
+        }
+    }
+
+    void skipped(Operation operation) {
+        stats.get(operation).skipped.increment();
+    }
+
+    /**
+     * Prints a summary table, then writes the response time distribution of every operation as an
+     * {@code .hgrm} file, which HdrHistogram's plotter reads, and all figures to {@code summary.json}.
+     */
+    void report(LoadTestConfig config, long elapsedNanos, PrintStream out) throws IOException {
+        Files.createDirectories(config.reportDirectory());
+        double elapsedSeconds = elapsedNanos / 1e9;
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        Histogram[] allWindows = new Histogram[windows];
+        long[] allWindowSuccesses = new long[windows];
+        for (int i = 0; i < windows; i++) {
+            allWindows[i] = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        }
+        Map<String, Object> operations = new LinkedHashMap<>();
+
+        out.printf("%nTarget rate %.1f/s over %s, response time in ms (from intended start)%n",
+                config.ratePerSecond(), config.duration());
+        out.printf("%-22s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "rate/s", "p50", "p90", "p99", "p99.9", "max");
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            Histogram responseTime = operationStats.responseTime.copy();
+            all.add(responseTime);
+            for (int i = 0; i < windows; i++) {
+                allWindows[i].add(operationStats.windowResponseTimes[i]);
+                allWindowSuccesses[i] += operationStats.windowSuccesses[i].sum();
+            }
+            printRow(out, entry.getKey().key(), responseTime, operationStats.errors(), elapsedSeconds);
+            operations.put(entry.getKey().key(), operationStats.summary(responseTime, elapsedSeconds, window()));
+            writeDistribution(config.reportDirectory().resolve(entry.getKey().key() + ".hgrm"), responseTime);
+        }
+        long errors = stats.values().stream().mapToLong(Stats::errors).sum();
+        printRow(out, "all", all, errors, elapsedSeconds);
+        writeDistribution(config.reportDirectory().resolve("all.hgrm"), all);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("targetRatePerSecond", config.ratePerSecond());
+        summary.put("durationSeconds", config.duration().toSeconds());
+        summary.put("elapsedSeconds", elapsedSeconds);
+        summary.put("users", config.users());
+        summary.put("all", Map.of("count", all.getTotalCount(), "errors", errors,
+                "throughputPerSecond", all.getTotalCount() / elapsedSeconds, "responseTimeMs", percentiles(all),
+                "windows", windowSummary(allWindows, allWindowSuccesses, window())));
+        summary.put("operations", operations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.reportDirectory().resolve("summary.json").toFile(), summary);
+        out.printf("%nReports written to %s%n", config.reportDirectory().toAbsolutePath());
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double elapsedSeconds) {
+        out.printf("%-22s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / elapsedSeconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private Duration window() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    /**
+     * The p99 response time and successful requests per second of each window; windows without
+     * requests have no p99.
+     */
+    private static Map<String, Object> windowSummary(Histogram[] responseTimes, long[] successes, Duration window) {
+        double windowSeconds = window.toNanos() / 1e9;
+        List<Double> p99 = new ArrayList<>(responseTimes.length);
+        List<Double> throughput = new ArrayList<>(responseTimes.length);
+        for (int i = 0; i < responseTimes.length; i++) {
+            if (responseTimes[i].getTotalCount() > 0) {
+                p99.add(millis(responseTimes[i].getValueAtPercentile(99)));
+            }
+            throughput.add(successes[i] / windowSeconds);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("seconds", windowSeconds);
+        summary.put("p99Ms", p99);
+        summary.put("successesPerSecond", throughput);
+        return summary;
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", millis(histogram.getValueAtPercentile(50)));
+        percentiles.put("p90", millis(histogram.getValueAtPercentile(90)));
+        percentiles.put("p99", millis(histogram.getValueAtPercentile(99)));
+        percentiles.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        return percentiles;
+    }
+
+    private static double millis(long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private static final class Stats {
+
+        private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder skipped = new LongAdder();
+        private final Histogram[] windowResponseTimes;
+        private final LongAdder[] windowSuccesses;
+
+        Stats(int windows) {
+            windowResponseTimes = new Histogram[windows];
+            windowSuccesses = new LongAdder[windows];
+            for (int i = 0; i < windows; i++) {
+                windowResponseTimes[i] = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+                windowSuccesses[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Responses other than 2xx, including 429 and 503 from the limiters, and I/O failures,
+         * which are counted under status 0.
+         */
+        long errors() {
+            return statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                    .mapToLong(entry -> entry.getValue().sum())
+                    .sum();
+        }
+
+        Map<String, Object> summary(Histogram responseTime, double elapsedSeconds, Duration window) {
+            Map<String, Long> statusCounts = new TreeMap<>();
+            statuses.forEach((status, count) -> statusCounts.put(String.valueOf(status), count.sum()));
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", responseTime.getTotalCount());
+            summary.put("errors", errors());
+            summary.put("skipped", skipped.sum());
+            summary.put("throughputPerSecond", responseTime.getTotalCount() / elapsedSeconds);
+            summary.put("statuses", statusCounts);
+            summary.put("responseTimeMs", percentiles(responseTime));
+            summary.put("serviceTimeMs", percentiles(serviceTime.copy()));
+            summary.put("windows", windowSummary(copies(windowResponseTimes),
+                    Arrays.stream(windowSuccesses).mapToLong(LongAdder::sum).toArray(), window));
+            return summary;
+        }
+
+        private static Histogram[] copies(Histogram[] histograms) {
+            return Arrays.stream(histograms).map(Histogram::copy).toArray(Histogram[]::new);
+        }
+    }
+}
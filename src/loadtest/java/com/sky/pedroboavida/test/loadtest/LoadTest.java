@@ -0,0 +1,173 @@
+package com.sky.pedroboavida.test.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.TestApplication;
+import com.sky.pedroboavida.test.dataset.SyntheticDataset;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test: boots the application against Postgres in a Testcontainers container,
+ * seeds users through the API, or populates a {@link SyntheticDataset}, and drives the configured
+ * operation mix at a fixed arrival rate.
+ * Requests are sent on virtual threads at their scheduled time whether or not earlier ones have
+ * completed (an open-loop generator), so a slow server builds up a backlog instead of quietly
+ * slowing the test down. The warm-up runs the same schedule and is discarded.
+ *
+ * <p>Run with {@code ./gradlew loadTest}; Docker must be available. The generator shares the JVM
+ * with the application, so compare runs made on the same machine only.
+ */
+public final class LoadTest {
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final LoadTestConfig config;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private LoadTest(HttpClient client, Workload workload, LoadTestConfig config) {
+        this.client = client;
+        this.workload = workload;
+        this.config = config;
+        this.operations = config.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")) {
+            postgres.start();
+            try (ConfigurableApplicationContext context = start(postgres);
+                 ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient client = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .connectTimeout(Duration.ofSeconds(5))
+                         .executor(clientExecutor)
+                         .build()) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                URI baseUri = URI.create("http://localhost:" + port);
+                ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+                Workload workload = config.datasetUsers() > 0
+                        ? populate(postgres, objectMapper, baseUri, config)
+                        : Workload.seed(client, objectMapper, baseUri, config);
+                new LoadTest(client, workload, config).run();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(PostgreSQLContainer<?> postgres) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.sky.pedroboavida.test", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        // Every request comes from the same address; the per-user limit still applies as configured
+        properties.put("app.rate-limit.ip.capacity", Integer.MAX_VALUE);
+        properties.put("app.rate-limit.ip.refill-per-second", 1_000_000);
+        return new SpringApplicationBuilder(TestApplication.class).properties(properties).run();
+    }
+
+    private static Workload populate(PostgreSQLContainer<?> postgres, ObjectMapper objectMapper, URI baseUri,
+                                     LoadTestConfig config) throws SQLException {
+        SyntheticDataset dataset = SyntheticDataset.builder()
+                .users(config.datasetUsers())
+                .maxProjectsPerUser(config.projectsPerUser())
+                .skew(config.datasetSkew())
+                .build();
+        System.out.printf("Populating %d synthetic users%n", config.datasetUsers());
+        long start = System.nanoTime();
+        SyntheticDataset.Range range = dataset.populate(
+                new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        System.out.printf("Populated %d users and %d projects in %ds%n", range.users(), range.projects(),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        return Workload.fromDataset(objectMapper, baseUri, dataset, range, config.users());
+    }
+
+    private void run() throws IOException {
+        if (!config.warmup().isZero()) {
+            System.out.printf("Warming up for %s at %.1f requests/s%n", config.warmup(), config.ratePerSecond());
+            runPhase(config.warmup());
+        }
+        System.out.printf("Measuring for %s at %.1f requests/s%n", config.duration(), config.ratePerSecond());
+        long start = System.nanoTime();
+        LatencyRecorder recorder = runPhase(config.duration());
+        recorder.report(config, System.nanoTime() - start, System.out);
+    }
+
+    /**
+     * Sends requests on schedule for the given duration and waits for the last ones to complete.
+     */
+    private LatencyRecorder runPhase(Duration duration) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.ratePerSecond());
+        long requests = duration.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+        LatencyRecorder recorder = new LatencyRecorder(config.mix().keySet(), start, duration, config.window());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                parkUntil(intendedStart);
+                Operation operation = Operation.pick(operations, cumulativeWeights);
+                executor.execute(() -> execute(operation, intendedStart, recorder));
+            }
+        }
+        return recorder;
+    }
+
+    private void execute(Operation operation, long intendedStart, LatencyRecorder recorder) {
+        Operation.Call call = new Operation.Call(workload.randomUser());
+        HttpRequest request = operation.request(workload, call);
+        if (request == null) {
+            recorder.skipped(operation);
+            return;
+        }
+
+        long sent = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long completed = System.nanoTime();
+        recorder.record(operation, intendedStart, status, completed - intendedStart, completed - sent);
+        operation.completed(workload, call, status);
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sky.pedroboavida.test.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code loadtest.*} system properties. The mix is a
+ * comma-separated list of {@code operation=weight} pairs, e.g. {@code getUser=60,addProject=10}.
+ * With {@code datasetUsers} set, the database is populated with that many synthetic users, owning
+ * up to {@code projectsPerUser} projects each, and the load test acts as {@code users} of them.
+ */
+public record LoadTestConfig(double ratePerSecond, Duration warmup, Duration duration, Duration window, int users,
+                             int projectsPerUser, long datasetUsers, double datasetSkew,
+                             Map<Operation, Integer> mix, Path reportDirectory) {
+
+    static final String DEFAULT_MIX = "getUser=35,getUserWithProjects=10,getUsersByIds=5,updateUser=5,"
+            + "listProjects=20,getProject=10,addProject=6,updateProject=4,deleteProject=5";
+
+    public LoadTestConfig {
+        if (ratePerSecond <= 0 || users < 1 || projectsPerUser < 1) {
+            throw new IllegalArgumentException("rate, users and projects per user must be positive");
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("The window must be positive");
+        }
+        if (datasetUsers < 0 || datasetSkew < 0) {
+            throw new IllegalArgumentException("dataset users and skew must not be negative");
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.parse("PT" + System.getProperty("loadtest.warmup", "30s")),
+                Duration.parse("PT" + System.getProperty("loadtest.duration", "60s")),
+                Duration.parse("PT" + System.getProperty("loadtest.window", "5s")),
+                Integer.parseInt(System.getProperty("loadtest.users", "100")),
+                Integer.parseInt(System.getProperty("loadtest.projects-per-user", "10")),
+                Long.parseLong(System.getProperty("loadtest.dataset-users", "0")),
+                Double.parseDouble(System.getProperty("loadtest.dataset-skew", "1.0")),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadtest.report-directory", "build/reports/loadtest")));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            if (weight > 0) {
+                weights.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        return weights;
+    }
+}
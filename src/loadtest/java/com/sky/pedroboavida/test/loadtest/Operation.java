@@ -0,0 +1,174 @@
+package com.sky.pedroboavida.test.loadtest;
+
+import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
+import com.sky.pedroboavida.test.model.UpdateExternalProjectRequest;
+import com.sky.pedroboavida.test.model.UpdateUserRequest;
+
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * The UsersApi and ExternalProjectsApi calls a load test mixes, each made as the user that owns
+ * the resource, the way a real client would.
+ */
+public enum Operation {
+
+    GET_USER("getUser") {
+        @Override
+        HttpRequest request(Workload workload, Call call) {
+            return workload.get(call.user, "/api/users/" + call.user.id());
+        }
+    },
+    GET_USER_WITH_PROJECTS("getUserWithProjects") {
+        @Override
+        HttpRequest request(Workload workload, Call call) {
+            return workload.get(call.user, "/api/users/" + call.user.id() + "?expand=externalProjects");
+        }
+    },
+    GET_USERS_BY_IDS("getUsersByIds") {
+        @Override
+        HttpRequest request(Workload workload, Call call) {
+            String ids = LongStream.generate(() -> workload.randomUser().id())
+                    .limit(USERS_PER_LOOKUP)
+                    .mapToObj(Long::toString)
+                    .collect(Collectors.joining(","));
+            return workload.get(call.user, "/api/users?ids=" + ids);
+        }
+    },
+    UPDATE_USER("updateUser") {
+        @Override
+        HttpRequest request(Workload workload, Call call) {
+            UpdateUserRequest body = new UpdateUserRequest();
+            body.setName("Load Test User " + workload.nextSequence());
+            return workload.send(call.user, "PUT", "/api/users/" + call.user.id(), body);
+        }
+    },
+    LIST_PROJECTS("listProjects") {
+        @Override
+        HttpRequest request(Workload workload, Call call) {
+            return workload.get(call.user, projectsPath(call));
+        }
+    },
+    GET_PROJECT("getProject") {
+        @Override
+        HttpRequest request(Workload workload, Call call) {
+            if (!withProjects(workload, call)) {
+                return null;
+            }
+            return workload.get(call.user, projectsPath(call) + "/" + workload.randomProject(call.user));
+        }
+    },
+    ADD_PROJECT("addProject") {
+        @Override
+        HttpRequest request(Workload workload, Call call) {
+            call.projectId = "lt-new-" + workload.nextSequence();
+            CreateExternalProjectRequest body = new CreateExternalProjectRequest();
+            body.setId(call.projectId);
+            body.setName("Project " + call.projectId);
+            return workload.send(call.user, "POST", projectsPath(call), body);
+        }
+
+        @Override
+        void completed(Workload workload, Call call, int status) {
+            if (status == 201) {
+                workload.created(call.user, call.projectId);
+            }
+        }
+    },
+    UPDATE_PROJECT("updateProject") {
+        @Override
+        HttpRequest request(Workload workload, Call call) {
+            if (!withProjects(workload, call)) {
+                return null;
+            }
+            UpdateExternalProjectRequest body = new UpdateExternalProjectRequest();
+            body.setName("Project v" + workload.nextSequence());
+            return workload.send(call.user, "PUT",
+                    projectsPath(call) + "/" + workload.randomProject(call.user), body);
+        }
+    },
+    /**
+     * Deletes a project created earlier by {@link #ADD_PROJECT}, so the seeded data stays intact;
+     * skipped while there is none to delete.
+     */
+    DELETE_PROJECT("deleteProject") {
+        @Override
+        HttpRequest request(Workload workload, Call call) {
+            Workload.CreatedProject project = workload.takeCreated();
+            if (project == null) {
+                return null;
+            }
+            call.user = project.owner();
+            return workload.delete(call.user, projectsPath(call) + "/" + project.projectId());
+        }
+    };
+
+    private static final int USERS_PER_LOOKUP = 20;
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Builds the request for a call, or returns {@code null} when the operation cannot run now.
+     */
+    abstract HttpRequest request(Workload workload, Call call);
+
+    void completed(Workload workload, Call call, int status) {
+    }
+
+    static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation " + key + ", expected one of "
+                        + Arrays.stream(values()).map(Operation::key).collect(Collectors.joining(", "))));
+    }
+
+    /**
+     * Draws an operation with probability proportional to its weight; {@code cumulativeWeights}
+     * holds the running totals of the weights of {@code operations}.
+     */
+    static Operation pick(Operation[] operations, int[] cumulativeWeights) {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, value + 1);
+        return operations[index >= 0 ? index : -index - 1];
+    }
+
+    /**
+     * Switches the call to a user owning projects, since dataset users may have none; false if no
+     * user has any.
+     */
+    private static boolean withProjects(Workload workload, Call call) {
+        if (call.user.projectCount() == 0) {
+            call.user = workload.randomUserWithProjects();
+        }
+        return call.user != null;
+    }
+
+    private static String projectsPath(Call call) {
+        return "/api/users/" + call.user.id() + "/external-projects";
+    }
+
+    /**
+     * State of one call, shared between building the request and handling its response.
+     */
+    static final class Call {
+
+        Workload.VirtualUser user;
+        String projectId;
+
+        Call(Workload.VirtualUser user) {
+            this.user = user;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.sky.pedroboavida.test.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.dataset.SyntheticDataset;
+import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
+import com.sky.pedroboavida.test.model.CreateUserRequest;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The users the load test acts as and the requests it sends on their behalf. Users either are
+ * created through the API or come from a {@link SyntheticDataset}; either way they have their own
+ * password, so every request pays for real Basic authentication.
+ */
+final class Workload {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEED_CONCURRENCY = 8;
+
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final List<VirtualUser> users;
+    private final List<VirtualUser> usersWithProjects;
+    private final ProjectIds projectIds;
+    private final Queue<CreatedProject> createdProjects = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Workload(URI baseUri, ObjectMapper objectMapper, List<VirtualUser> users, ProjectIds projectIds) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.users = users;
+        this.usersWithProjects = users.stream().filter(user -> user.projectCount() > 0).toList();
+        this.projectIds = projectIds;
+    }
+
+    /**
+     * Creates the users, each with {@code projectsPerUser} projects, through the API.
+     */
+    static Workload seed(HttpClient client, ObjectMapper objectMapper, URI baseUri, LoadTestConfig config)
+            throws InterruptedException {
+        Seeder seeder = new Seeder(client, objectMapper, baseUri, config.projectsPerUser());
+        List<Future<VirtualUser>> futures = new ArrayList<>(config.users());
+        try (ExecutorService executor = Executors.newFixedThreadPool(SEED_CONCURRENCY, Thread.ofVirtual().factory())) {
+            for (int i = 0; i < config.users(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> seeder.createUser(index)));
+            }
+        }
+        List<VirtualUser> users = new ArrayList<>(config.users());
+        for (Future<VirtualUser> future : futures) {
+            try {
+                users.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Seeding the load test users failed", e.getCause());
+            }
+        }
+        return new Workload(baseUri, objectMapper, users, Workload::seededProjectId);
+    }
+
+    /**
+     * Acts as {@code users} users drawn at random from a populated dataset.
+     */
+    static Workload fromDataset(ObjectMapper objectMapper, URI baseUri, SyntheticDataset dataset,
+                                SyntheticDataset.Range range, int users) {
+        List<VirtualUser> virtualUsers = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            long id = ThreadLocalRandom.current().nextLong(range.firstUserId(), range.lastUserId() + 1);
+            virtualUsers.add(new VirtualUser(id, dataset.basicAuthorization(id), dataset.projectCount(id)));
+        }
+        return new Workload(baseUri, objectMapper, virtualUsers, dataset::projectId);
+    }
+
+    VirtualUser randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    /**
+     * A random user owning at least one project, or {@code null} if there is none.
+     */
+    VirtualUser randomUserWithProjects() {
+        if (usersWithProjects.isEmpty()) {
+            return null;
+        }
+        return usersWithProjects.get(ThreadLocalRandom.current().nextInt(usersWithProjects.size()));
+    }
+
+    String randomProject(VirtualUser user) {
+        return projectIds.projectId(user.id(), ThreadLocalRandom.current().nextInt(user.projectCount()));
+    }
+
+    long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    void created(VirtualUser owner, String projectId) {
+        createdProjects.add(new CreatedProject(owner, projectId));
+    }
+
+    CreatedProject takeCreated() {
+        return createdProjects.poll();
+    }
+
+    HttpRequest get(VirtualUser user, String path) {
+        return builder(baseUri, user, path).GET().build();
+    }
+
+    HttpRequest delete(VirtualUser user, String path) {
+        return builder(baseUri, user, path).DELETE().build();
+    }
+
+    HttpRequest send(VirtualUser user, String method, String path, Object body) {
+        return send(objectMapper, baseUri, user, method, path, body);
+    }
+
+    private static HttpRequest send(ObjectMapper objectMapper, URI baseUri, VirtualUser user, String method,
+                                    String path, Object body) {
+        try {
+            return builder(baseUri, user, path)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static HttpRequest.Builder builder(URI baseUri, VirtualUser user, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (user != null) {
+            builder.header("Authorization", user.authorization());
+        }
+        return builder;
+    }
+
+    private static String seededProjectId(long userId, int index) {
+        return "lt-" + userId + "-" + index;
+    }
+
+    private static void expect(HttpResponse<String> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+                    + " returned " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    /**
+     * Creates load test users, and their projects, through the API.
+     */
+    private record Seeder(HttpClient client, ObjectMapper objectMapper, URI baseUri, int projectsPerUser) {
+
+        VirtualUser createUser(int index) throws IOException, InterruptedException {
+            String email = "loadtest-user-" + index + "@example.com";
+            String password = "loadtest-password-" + index;
+            CreateUserRequest user = new CreateUserRequest();
+            user.setEmail(email);
+            user.setPassword(password);
+            user.setName("Load Test User " + index);
+            HttpResponse<String> created = client.send(send(objectMapper, baseUri, null, "POST", "/api/users", user),
+                    HttpResponse.BodyHandlers.ofString());
+            expect(created, 201);
+
+            long id = objectMapper.readTree(created.body()).get("id").asLong();
+            VirtualUser virtualUser = new VirtualUser(id, "Basic " + Base64.getEncoder()
+                    .encodeToString((email + ":" + password).getBytes(StandardCharsets.UTF_8)), projectsPerUser);
+
+            List<CreateExternalProjectRequest> projects = new ArrayList<>(projectsPerUser);
+            for (int j = 0; j < projectsPerUser; j++) {
+                CreateExternalProjectRequest project = new CreateExternalProjectRequest();
+                project.setId(seededProjectId(id, j));
+                project.setName("Project " + j);
+                projects.add(project);
+            }
+            SyncExternalProjectsRequest sync = new SyncExternalProjectsRequest();
+            sync.setProjects(projects);
+            expect(client.send(send(objectMapper, baseUri, virtualUser, "PUT", "/api/users/" + id + "/external-projects",
+                    sync), HttpResponse.BodyHandlers.ofString()), 200);
+            return virtualUser;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ProjectIds {
+
+        String projectId(long userId, int index);
+    }
+
+    record VirtualUser(long id, String authorization, int projectCount) {
+    }
+
+    record CreatedProject(VirtualUser owner, String projectId) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.sky.pedroboavida.test.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+/**
+ * A measured quantity and its repeated samples: the iteration scores of a JMH benchmark, or the
+ * per-window p99 and throughput of a load test operation. {@code latency} selects the latency
+ * tolerance rather than the throughput one.
+ */
+public record Metric(String name, String unit, boolean higherIsBetter, boolean latency, double[] samples) {
+
+    private static final String PACKAGE_PREFIX = "com.sky.pedroboavida.test.";
+
+    public double mean() {
+        double sum = 0;
+        for (double sample : samples) {
+            sum += sample;
+        }
+        return sum / samples.length;
+    }
+
+    public double variance() {
+        double mean = mean();
+        double sum = 0;
+        for (double sample : samples) {
+            sum += (sample - mean) * (sample - mean);
+        }
+        return sum / (samples.length - 1);
+    }
+
+    /**
+     * One metric per benchmark and parameter combination in a JMH JSON result file.
+     */
+    static List<Metric> fromJmh(JsonNode results) {
+        List<Metric> metrics = new ArrayList<>();
+        for (JsonNode result : results) {
+            StringBuilder name = new StringBuilder("jmh ")
+                    .append(result.get("benchmark").asText().replace(PACKAGE_PREFIX, ""));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param ->
+                        name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            JsonNode primaryMetric = result.get("primaryMetric");
+            double[] samples = StreamSupport.stream(primaryMetric.get("rawData").spliterator(), false)
+                    .flatMap(fork -> StreamSupport.stream(fork.spliterator(), false))
+                    .mapToDouble(JsonNode::asDouble)
+                    .toArray();
+            metrics.add(new Metric(name.toString(), primaryMetric.get("scoreUnit").asText(),
+                    "thrpt".equals(result.get("mode").asText()), false, samples));
+        }
+        return metrics;
+    }
+
+    /**
+     * The p99 latency and successful throughput of every operation, and of all of them together,
+     * in a load test {@code summary.json}.
+     */
+    static List<Metric> fromLoadTest(JsonNode summary) {
+        List<Metric> metrics = new ArrayList<>();
+        addLoadTestMetrics(metrics, "all", summary.get("all"));
+        summary.get("operations").fields().forEachRemaining(operation ->
+                addLoadTestMetrics(metrics, operation.getKey(), operation.getValue()));
+        return metrics;
+    }
+
+    private static void addLoadTestMetrics(List<Metric> metrics, String operation, JsonNode stats) {
+        JsonNode windows = stats.get("windows");
+        metrics.add(new Metric("loadtest " + operation + " p99", "ms", false, true, values(windows.get("p99Ms"))));
+        metrics.add(new Metric("loadtest " + operation + " throughput", "ok/s", true, false,
+                values(windows.get("successesPerSecond"))));
+    }
+
+    private static double[] values(JsonNode array) {
+        return StreamSupport.stream(array.spliterator(), false).mapToDouble(JsonNode::asDouble).toArray();
+    }
+}
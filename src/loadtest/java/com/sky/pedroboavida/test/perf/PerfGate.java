@@ -0,0 +1,257 @@
+package com.sky.pedroboavida.test.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares JMH and load test results with a committed baseline and fails on regressions.
+ *
+ * <p>Every metric is a set of samples, so the comparison is a Welch confidence interval for the
+ * difference of the means, expressed relative to the baseline: a metric has regressed only when
+ * the whole interval lies beyond the tolerance, which keeps one noisy run from failing the build
+ * while still catching shifts the samples agree on. {@code record} replaces the baseline with the
+ * current results instead; record it on the machine the check runs on, since results from
+ * different hardware are not comparable.
+ *
+ * <p>Usage: {@code PerfGate check|record <baseline.json> <jmh results.json> <load test summary.json> <report dir>}
+ */
+public final class PerfGate {
+
+    private static final double CONFIDENCE = 0.95;
+    private static final double Z_975 = 1.959964;
+    // Two-sided 95% quantiles of Student's t distribution for 1 to 30 degrees of freedom
+    private static final double[] T_975 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final double throughputTolerance;
+    private final double latencyTolerance;
+
+    PerfGate(double throughputTolerance, double latencyTolerance) {
+        this.throughputTolerance = throughputTolerance;
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5 || !(args[0].equals("check") || args[0].equals("record"))) {
+            System.err.println("Usage: PerfGate check|record <baseline.json> <jmh results.json> "
+                    + "<load test summary.json> <report dir>");
+            System.exit(2);
+        }
+        PerfGate gate = new PerfGate(
+                Double.parseDouble(System.getProperty("perf.throughput-tolerance", "0.05")),
+                Double.parseDouble(System.getProperty("perf.latency-tolerance", "0.10")));
+        Path baseline = Path.of(args[1]);
+        List<Metric> current = gate.readResults(Path.of(args[2]), Path.of(args[3]));
+
+        if (args[0].equals("record")) {
+            gate.writeBaseline(baseline, current);
+            System.out.printf("Recorded %d metrics to %s%n", current.size(), baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.err.printf("No baseline at %s. Record one on this machine with ./gradlew perfBaseline "
+                    + "and commit it.%n", baseline);
+            System.exit(1);
+        }
+
+        Baseline recorded = gate.readBaseline(baseline);
+        List<Comparison> comparisons = gate.compare(recorded, current);
+        String report = gate.report(baseline, recorded, comparisons);
+        Path reportDirectory = Files.createDirectories(Path.of(args[4]));
+        Files.writeString(reportDirectory.resolve("comparison.txt"), report);
+        System.out.print(report);
+        if (comparisons.stream().anyMatch(comparison -> comparison.verdict() == Verdict.REGRESSION)) {
+            System.exit(1);
+        }
+    }
+
+    List<Metric> readResults(Path jmhResults, Path loadTestSummary) throws IOException {
+        List<Metric> metrics = new ArrayList<>(Metric.fromJmh(objectMapper.readTree(jmhResults.toFile())));
+        metrics.addAll(Metric.fromLoadTest(objectMapper.readTree(loadTestSummary.toFile())));
+        return metrics;
+    }
+
+    void writeBaseline(Path baseline, List<Metric> metrics) throws IOException {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("recordedAt", Instant.now().toString());
+        content.put("environment", environment());
+        content.put("metrics", metrics);
+        if (baseline.getParent() != null) {
+            Files.createDirectories(baseline.getParent());
+        }
+        objectMapper.writeValue(baseline.toFile(), content);
+    }
+
+    Baseline readBaseline(Path baseline) throws IOException {
+        JsonNode content = objectMapper.readTree(baseline.toFile());
+        List<Metric> metrics = new ArrayList<>();
+        for (JsonNode metric : content.get("metrics")) {
+            metrics.add(objectMapper.treeToValue(metric, Metric.class));
+        }
+        return new Baseline(objectMapper.convertValue(content.get("environment"), Map.class), metrics);
+    }
+
+    List<Comparison> compare(Baseline baseline, List<Metric> current) {
+        Map<String, Metric> baselineByName = baseline.metrics().stream()
+                .collect(Collectors.toMap(Metric::name, Function.identity(), (first, second) -> second, LinkedHashMap::new));
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Metric metric : current) {
+            Metric before = baselineByName.remove(metric.name());
+            comparisons.add(before == null
+                    ? new Comparison(metric.name(), null, metric, Double.NaN, Double.NaN, Double.NaN, Verdict.NEW)
+                    : compare(before, metric));
+        }
+        for (Metric missing : baselineByName.values()) {
+            comparisons.add(new Comparison(missing.name(), missing, null, Double.NaN, Double.NaN, Double.NaN,
+                    Verdict.MISSING));
+        }
+        comparisons.sort(Comparator.comparing(Comparison::verdict));
+        return comparisons;
+    }
+
+    /**
+     * The relative change of the mean and its confidence interval, with the verdict for the
+     * metric's direction and tolerance.
+     */
+    Comparison compare(Metric baseline, Metric current) {
+        int n1 = baseline.samples().length;
+        int n2 = current.samples().length;
+        if (n1 < 2 || n2 < 2) {
+            return new Comparison(current.name(), baseline, current, Double.NaN, Double.NaN, Double.NaN,
+                    Verdict.INSUFFICIENT);
+        }
+
+        double mean1 = baseline.mean();
+        double difference = current.mean() - mean1;
+        double a = baseline.variance() / n1;
+        double b = current.variance() / n2;
+        double standardError = Math.sqrt(a + b);
+        double margin = 0;
+        if (standardError > 0) {
+            double degreesOfFreedom = (a + b) * (a + b) / (a * a / (n1 - 1) + b * b / (n2 - 1));
+            margin = tQuantile(degreesOfFreedom) * standardError;
+        }
+        double change = difference / mean1;
+        double low = (difference - margin) / mean1;
+        double high = (difference + margin) / mean1;
+
+        double tolerance = current.latency() ? latencyTolerance : throughputTolerance;
+        // Express the interval so that positive means worse whichever direction the metric has
+        double worseLow = current.higherIsBetter() ? -high : low;
+        double worseHigh = current.higherIsBetter() ? -low : high;
+        Verdict verdict;
+        if (worseLow > tolerance) {
+            verdict = Verdict.REGRESSION;
+        } else if (worseHigh < -tolerance) {
+            verdict = Verdict.IMPROVED;
+        } else {
+            verdict = Verdict.OK;
+        }
+        return new Comparison(current.name(), baseline, current, change, low, high, verdict);
+    }
+
+    String report(Path baselineFile, Baseline baseline, List<Comparison> comparisons) {
+        StringWriter buffer = new StringWriter();
+        PrintWriter out = new PrintWriter(buffer);
+        long regressions = comparisons.stream().filter(comparison -> comparison.verdict() == Verdict.REGRESSION).count();
+        out.printf("Performance comparison with %s: %d of %d metrics regressed%n", baselineFile, regressions,
+                comparisons.size());
+        out.printf("Change of the mean with its %.0f%% confidence interval; tolerance %.0f%% for throughput and "
+                + "time per operation, %.0f%% for p99 latency%n%n", CONFIDENCE * 100, throughputTolerance * 100,
+                latencyTolerance * 100);
+        if (!environment().equals(baseline.environment())) {
+            out.printf("Warning: the baseline was recorded on %s, this run is on %s%n%n", baseline.environment(),
+                    environment());
+        }
+        out.printf("%-12s %-55s %-24s %-24s %s%n", "verdict", "metric", "baseline", "current", "change");
+        for (Comparison comparison : comparisons) {
+            out.printf("%-12s %-55s %-24s %-24s %s%n", comparison.verdict().label, comparison.name(),
+                    describe(comparison.baseline()), describe(comparison.current()), describeChange(comparison));
+        }
+        out.flush();
+        return buffer.toString();
+    }
+
+    private static String describe(Metric metric) {
+        if (metric == null) {
+            return "-";
+        }
+        if (metric.samples().length < 2) {
+            return String.format("%.3g %s (n=%d)", metric.mean(), metric.unit(), metric.samples().length);
+        }
+        return String.format("%.3g ± %.2g %s", metric.mean(), Math.sqrt(metric.variance()), metric.unit());
+    }
+
+    private static String describeChange(Comparison comparison) {
+        if (Double.isNaN(comparison.change())) {
+            return "-";
+        }
+        return String.format("%+.1f%% [%+.1f%%, %+.1f%%]", comparison.change() * 100, comparison.low() * 100,
+                comparison.high() * 100);
+    }
+
+    /**
+     * The 97.5th percentile of Student's t distribution, rounding the degrees of freedom down so
+     * the interval errs on the wide side; beyond the table, the Cornish-Fisher expansion.
+     */
+    static double tQuantile(double degreesOfFreedom) {
+        int df = (int) Math.max(1, Math.floor(degreesOfFreedom));
+        if (df <= T_975.length) {
+            return T_975[df - 1];
+        }
+        double z = Z_975;
+        return z + (z * z * z + z) / (4 * df)
+                + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96.0 * df * df);
+    }
+
+    private static Map<String, Object> environment() {
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("java", System.getProperty("java.version"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        environment.put("processors", Runtime.getRuntime().availableProcessors());
+        return environment;
+    }
+
+    record Baseline(Map<?, ?> environment, List<Metric> metrics) {
+    }
+
+    record Comparison(String name, Metric baseline, Metric current, double change, double low, double high,
+                      Verdict verdict) {
+    }
+
+    /**
+     * Declared in the order the report lists them.
+     */
+    enum Verdict {
+        REGRESSION("REGRESSION"),
+        MISSING("missing"),
+        NEW("new"),
+        INSUFFICIENT("few samples"),
+        IMPROVED("improved"),
+        OK("ok");
+
+        private final String label;
+
+        Verdict(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.sky.pedroboavida.test;
 
+import com.sky.pedroboavida.test.config.ProjectQuotaProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties(ProjectQuotaProperties.class)
 public class TestApplication {
 
 	public static void main(String[] args) {
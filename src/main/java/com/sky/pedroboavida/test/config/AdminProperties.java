@@ -0,0 +1,13 @@
+package com.sky.pedroboavida.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+/**
+ * Accounts granted the ADMIN role, which the actuator endpoints other than health and prometheus require.
+ */
+@ConfigurationProperties(prefix = "app.admin")
+public record AdminProperties(@DefaultValue Set<String> emails) {
+}
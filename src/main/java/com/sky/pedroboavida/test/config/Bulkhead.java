@@ -0,0 +1,40 @@
+package com.sky.pedroboavida.test.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Connection pool a unit of work draws from. Authentication lookups are scoped explicitly with
+ * {@link #call(Supplier)}; everything else is routed by its transaction, read-only transactions
+ * to {@link #READ} and the rest to {@link #WRITE}.
+ */
+public enum Bulkhead {
+    AUTH,
+    READ,
+    WRITE;
+
+    private static final ThreadLocal<Bulkhead> SCOPE = new ThreadLocal<>();
+
+    public <T> T call(Supplier<T> work) {
+        Bulkhead previous = SCOPE.get();
+        SCOPE.set(this);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                SCOPE.remove();
+            } else {
+                SCOPE.set(previous);
+            }
+        }
+    }
+
+    public static Bulkhead current() {
+        Bulkhead scoped = SCOPE.get();
+        if (scoped != null) {
+            return scoped;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ : WRITE;
+    }
+}
@@ -0,0 +1,139 @@
+package com.sky.pedroboavida.test.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the connection pool into bulkheads so that slow writes or large reads cannot starve
+ * authentication. Each pool is named after its bulkhead, which is the {@code pool} tag on the
+ * {@code hikaricp.connections.*} metrics ({@code pending} and {@code usage} show saturation).
+ * Read-only transactions go to the replicas in {@code app.datasource.replicas} when there are any.
+ * Every pool starts from the {@code spring.datasource.hikari} settings; the bulkhead properties
+ * only override the pool name, size and connection timeout.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.bulkheads.enabled", havingValue = "true")
+@EnableConfigurationProperties({BulkheadProperties.class, ReplicaProperties.class})
+public class BulkheadDataSourceConfig {
+
+    private static final int MAX_TRACKED_WRITERS = 100_000;
+
+    private final DataSourceProperties properties;
+    private final BulkheadProperties bulkheadProperties;
+    private final MeterRegistry meterRegistry;
+    // Shared settings for every pool, bound the same way Boot binds its single auto-configured pool.
+    // Kept out of the context: a HikariConfig bean would be ambiguous with the pools, which extend it.
+    private final HikariConfig hikariTemplate;
+
+    public BulkheadDataSourceConfig(DataSourceProperties properties, BulkheadProperties bulkheadProperties,
+                                    MeterRegistry meterRegistry, Environment environment) {
+        this.properties = properties;
+        this.bulkheadProperties = bulkheadProperties;
+        this.meterRegistry = meterRegistry;
+        this.hikariTemplate = Binder.get(environment)
+                .bind("spring.datasource.hikari", Bindable.ofInstance(new HikariConfig()))
+                .orElseGet(HikariConfig::new);
+    }
+
+    @Bean
+    public HikariDataSource authDataSource() {
+        return pool(Bulkhead.AUTH);
+    }
+
+    @Bean
+    public HikariDataSource readDataSource() {
+        return pool(Bulkhead.READ);
+    }
+
+    @Bean
+    public HikariDataSource writeDataSource() {
+        return pool(Bulkhead.WRITE);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties replicaProperties) {
+        return new ReadYourWritesTracker(replicaProperties.stickinessWindow(), MAX_TRACKED_WRITERS);
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(@Qualifier("readDataSource") DataSource readDataSource,
+                                               ReadYourWritesTracker readYourWritesTracker,
+                                               ReplicaProperties replicaProperties) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaProperties.urls()) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            hikariTemplate.copyStateTo(replica);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(url);
+            replica.setUsername(replicaProperties.username() != null ? replicaProperties.username() : properties.determineUsername());
+            replica.setPassword(replicaProperties.password() != null ? replicaProperties.password() : properties.determinePassword());
+            configure(replica, "read-replica-" + replicas.size(), bulkheadProperties.read());
+            replicas.add(replica);
+        }
+        return new ReplicaDataSource(readDataSource, replicas, replicaProperties.failoverCooldown(), readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("authDataSource") DataSource authDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 @Qualifier("writeDataSource") DataSource writeDataSource,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        BulkheadRoutingDataSource routingDataSource = new BulkheadRoutingDataSource(readYourWritesTracker);
+        routingDataSource.setTargetDataSources(Map.of(
+                Bulkhead.AUTH, authDataSource,
+                Bulkhead.READ, replicaDataSource,
+                Bulkhead.WRITE, writeDataSource));
+        routingDataSource.setDefaultTargetDataSource(writeDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private HikariDataSource pool(Bulkhead bulkhead) {
+        HikariDataSource dataSource = new HikariDataSource();
+        hikariTemplate.copyStateTo(dataSource);
+        // As with Boot's own pool, spring.datasource.hikari.* takes precedence over spring.datasource.*.
+        if (dataSource.getJdbcUrl() == null) {
+            dataSource.setJdbcUrl(properties.determineUrl());
+        }
+        if (dataSource.getUsername() == null) {
+            dataSource.setUsername(properties.determineUsername());
+        }
+        if (dataSource.getPassword() == null) {
+            dataSource.setPassword(properties.determinePassword());
+        }
+        if (dataSource.getDriverClassName() == null) {
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+        }
+        configure(dataSource, bulkhead.name().toLowerCase(), bulkheadProperties.pool(bulkhead));
+        return dataSource;
+    }
+
+    private void configure(HikariDataSource dataSource, String poolName, BulkheadProperties.Pool pool) {
+        dataSource.setPoolName(poolName);
+        dataSource.setMaximumPoolSize(pool.maximumPoolSize());
+        dataSource.setConnectionTimeout(pool.connectionTimeout().toMillis());
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+}
@@ -0,0 +1,38 @@
+package com.sky.pedroboavida.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Size and connection timeout of each bulkhead's pool. A setting left out keeps its bulkhead's
+ * default: authentication gets a small pool that fails fast, reads the largest one.
+ */
+@ConfigurationProperties(prefix = "app.datasource.bulkheads")
+public record BulkheadProperties(Pool auth, Pool read, Pool write) {
+
+    public BulkheadProperties {
+        auth = Pool.orDefaults(auth, 4, Duration.ofSeconds(2));
+        read = Pool.orDefaults(read, 10, Duration.ofSeconds(5));
+        write = Pool.orDefaults(write, 6, Duration.ofSeconds(5));
+    }
+
+    public Pool pool(Bulkhead bulkhead) {
+        return switch (bulkhead) {
+            case AUTH -> auth;
+            case READ -> read;
+            case WRITE -> write;
+        };
+    }
+
+    public record Pool(Integer maximumPoolSize, Duration connectionTimeout) {
+
+        private static Pool orDefaults(Pool pool, int maximumPoolSize, Duration connectionTimeout) {
+            if (pool == null) {
+                return new Pool(maximumPoolSize, connectionTimeout);
+            }
+            return new Pool(pool.maximumPoolSize != null ? pool.maximumPoolSize : maximumPoolSize,
+                    pool.connectionTimeout != null ? pool.connectionTimeout : connectionTimeout);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.sky.pedroboavida.test.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes each connection request to the pool of the current {@link Bulkhead}. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager asks for a connection before the read-only flag of the transaction is exposed, so the
+ * target has to be chosen when the first statement runs. Write transactions are reported to the
+ * {@link ReadYourWritesTracker} so the writer's next reads skip the replicas.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadYourWritesTracker readYourWrites;
+
+    public BulkheadRoutingDataSource(ReadYourWritesTracker readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Bulkhead bulkhead = Bulkhead.current();
+        if (bulkhead == Bulkhead.WRITE && TransactionSynchronizationManager.isActualTransactionActive()) {
+            readYourWrites.recordWrite(ReadYourWritesTracker.currentClient());
+        }
+        return bulkhead;
+    }
+}
@@ -0,0 +1,36 @@
+package com.sky.pedroboavida.test.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.filter.AdaptiveConcurrencyLimiter;
+import com.sky.pedroboavida.test.filter.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${app.concurrency-limit.read.initial-limit:50}") int readInitialLimit,
+            @Value("${app.concurrency-limit.read.max-limit:400}") int readMaxLimit,
+            @Value("${app.concurrency-limit.write.initial-limit:20}") int writeInitialLimit,
+            @Value("${app.concurrency-limit.write.max-limit:200}") int writeMaxLimit,
+            @Value("${app.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${app.concurrency-limit.tolerance:2.0}") double tolerance,
+            MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimiter(readInitialLimit, minLimit, readMaxLimit, tolerance),
+                new AdaptiveConcurrencyLimiter(writeInitialLimit, minLimit, writeMaxLimit, tolerance),
+                meterRegistry, objectMapper);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // Right after security, so only authenticated work is admitted and measured.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
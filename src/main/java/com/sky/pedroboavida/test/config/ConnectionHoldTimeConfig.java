@@ -0,0 +1,27 @@
+package com.sky.pedroboavida.test.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConnectionHoldTimeConfig {
+
+    // Wraps every connection pool, whether the auto-configured one or the bulkhead pools.
+    @Bean
+    public static BeanPostProcessor connectionHoldTimeBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    String poolName = dataSource.getPoolName() != null ? dataSource.getPoolName() : beanName;
+                    return new ConnectionHoldTimeDataSource(dataSource, poolName, meterRegistry::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
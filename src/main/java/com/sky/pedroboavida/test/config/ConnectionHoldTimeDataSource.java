@@ -0,0 +1,87 @@
+package com.sky.pedroboavida.test.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records how long each physical connection is checked out, from {@code getConnection()} to
+ * {@code close()}, as the {@code db.connection.hold} timer tagged with the pool and the URI
+ * pattern of the request that held it ({@code none} outside requests).
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+    private static final String NO_REQUEST = "none";
+    private static final String UNMATCHED = "UNKNOWN";
+
+    private final String poolName;
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    public ConnectionHoldTimeDataSource(DataSource target, String poolName, Supplier<MeterRegistry> meterRegistry) {
+        super(target);
+        this.poolName = poolName;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        String uri = currentUri();
+        long start = System.nanoTime();
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (method.getName().equals("close") && !closed[0]) {
+                        closed[0] = true;
+                        Timer.builder("db.connection.hold")
+                                .description("Time a JDBC connection is held, by request URI")
+                                .tag("pool", poolName)
+                                .tag("uri", uri)
+                                .register(meterRegistry.get())
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private static String currentUri() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return NO_REQUEST;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED;
+    }
+}
@@ -8,21 +8,40 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final AdminProperties adminProperties;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        // Emitted here rather than by FlightRecorderAspect, as only this knows the id the email belongs to
+        FlightRecorderEvents.UserLookup event = new FlightRecorderEvents.UserLookup();
+        event.begin();
+        Optional<User> found = Optional.empty();
+        try {
+            found = Bulkhead.AUTH.call(() -> userRepository.findByEmail(email));
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.describeRequest();
+                event.found = found.isPresent();
+                event.userId = found.map(User::getId).orElse(0L);
+                event.commit();
+            }
+        }
+        User user = found
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getEmail())
                 .password(user.getPassword())
-                .roles("USER")
+                .roles(adminProperties.emails().contains(user.getEmail())
+                        ? new String[] {"USER", "ADMIN"} : new String[] {"USER"})
                 .build();
     }
 }
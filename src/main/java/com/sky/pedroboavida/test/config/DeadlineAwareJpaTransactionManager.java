@@ -0,0 +1,37 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.filter.RequestDeadline;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JpaTransactionManager} that bounds each transaction by the time left before the current
+ * request's deadline. Hibernate and {@code JdbcTemplate} apply the transaction timeout to every
+ * statement they execute, so a slow database cancels the query instead of holding the connection
+ * for a response nobody will read; once the deadline has passed no transaction is started at all.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline.check();
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        OptionalLong remaining = RequestDeadline.remainingNanos();
+        if (remaining.isEmpty()) {
+            return timeout;
+        }
+
+        long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+        int remainingSeconds = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(1, (remaining.getAsLong() + nanosPerSecond - 1) / nanosPerSecond));
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(timeout, remainingSeconds);
+    }
+}
@@ -0,0 +1,139 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.repository.UserRepository;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Emits the {@link FlightRecorderEvents} for password hashing, repository calls, DTO conversion
+ * and exception handling. Each advice only fills in and commits its event when a recording has
+ * it enabled and the call passed the event's threshold.
+ */
+@Aspect
+@Component
+public class FlightRecorderAspect {
+
+    @Around("execution(* org.springframework.security.crypto.password.PasswordEncoder+.encode(..))"
+            + " || execution(* org.springframework.security.crypto.password.PasswordEncoder+.matches(..))")
+    public Object passwordHash(ProceedingJoinPoint joinPoint) throws Throwable {
+        FlightRecorderEvents.PasswordHash event = new FlightRecorderEvents.PasswordHash();
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.describeRequest();
+                event.operation = joinPoint.getSignature().getName();
+                event.matched = Boolean.TRUE.equals(result);
+                event.commit();
+            }
+        }
+    }
+
+    @Around("execution(public * *(..)) && !execution(* java.lang.Object.*(..))"
+            + " && (target(com.sky.pedroboavida.test.repository.UserRepository)"
+            + " || target(com.sky.pedroboavida.test.repository.ExternalProjectRepository))")
+    public Object repositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        FlightRecorderEvents.RepositoryCall event = new FlightRecorderEvents.RepositoryCall();
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.describeRequest();
+                // The interface rather than the class, which is a proxy or depends on the persistence mode
+                event.repository = joinPoint.getTarget() instanceof UserRepository
+                        ? "UserRepository" : "ExternalProjectRepository";
+                event.method = joinPoint.getSignature().getName();
+                event.rows = failed ? -1 : rows(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    @Around("execution(public * com.sky.pedroboavida.test.converter.*.convert*(..))")
+    public Object conversion(ProceedingJoinPoint joinPoint) throws Throwable {
+        FlightRecorderEvents.Conversion event = new FlightRecorderEvents.Conversion();
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.describeRequest();
+                event.converter = joinPoint.getSignature().getDeclaringType().getSimpleName();
+                event.method = joinPoint.getSignature().getName();
+                Object source = joinPoint.getArgs().length > 0 ? joinPoint.getArgs()[0] : null;
+                event.sourceType = source != null ? source.getClass() : null;
+                event.commit();
+            }
+        }
+    }
+
+    @Around("@annotation(org.springframework.web.bind.annotation.ExceptionHandler)")
+    public Object exceptionHandled(ProceedingJoinPoint joinPoint) throws Throwable {
+        FlightRecorderEvents.ExceptionHandled event = new FlightRecorderEvents.ExceptionHandled();
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.describeRequest();
+                for (Object arg : joinPoint.getArgs()) {
+                    if (arg instanceof Throwable ex) {
+                        event.exceptionType = ex.getClass();
+                        event.message = ex.getMessage();
+                        break;
+                    }
+                }
+                if (result instanceof ResponseEntity<?> response) {
+                    event.status = response.getStatusCode().value();
+                }
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Rows a repository call returned or affected: the size of a collection, whether an optional
+     * was present, the count a modifying query returns, or one for a saved entity. -1 for calls
+     * that return nothing or a flag.
+     */
+    static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        if (result == null || result instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+}
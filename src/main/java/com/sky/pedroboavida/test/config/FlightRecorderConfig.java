@@ -0,0 +1,47 @@
+package com.sky.pedroboavida.test.config;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * The {@code flightrecorder} endpoint and, with {@code app.flight-recorder.continuous.enabled},
+ * a recording started with the application that keeps the last {@code max-age} of events, up to
+ * {@code max-size}, with the low overhead {@code default} settings, so the minutes before an
+ * incident can be downloaded after the fact.
+ */
+@org.springframework.context.annotation.Configuration
+@ConditionalOnProperty(prefix = "app.flight-recorder", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecorderConfig {
+
+    static final String CONTINUOUS_RECORDING_NAME = "continuous";
+
+    @Bean
+    public FlightRecorderEndpoint flightRecorderEndpoint(
+            @Value("${app.flight-recorder.max-size:250MB}") DataSize maxSize,
+            @Value("${app.flight-recorder.max-recordings:3}") int maxRecordings) {
+        return new FlightRecorderEndpoint(maxSize, maxRecordings);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.flight-recorder.continuous", name = "enabled", havingValue = "true")
+    public Recording continuousRecording(@Value("${app.flight-recorder.continuous.max-age:30m}") Duration maxAge,
+                                         @Value("${app.flight-recorder.continuous.max-size:100MB}") DataSize maxSize)
+            throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName(CONTINUOUS_RECORDING_NAME);
+        FlightRecorderEvents.configure(recording);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.start();
+        return recording;
+    }
+}
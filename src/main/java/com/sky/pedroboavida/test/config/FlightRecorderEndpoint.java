@@ -0,0 +1,174 @@
+package com.sky.pedroboavida.test.config;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Flight recordings on demand. {@code GET /actuator/flightrecorder} lists the recordings in the
+ * JVM, the continuous one included; {@code POST} starts one, optionally with a JFR settings name
+ * ({@code default} or {@code profile}) and a duration after which it stops by itself;
+ * {@code POST /actuator/flightrecorder/{id}} stops it, {@code GET .../{id}} downloads what it
+ * has recorded so far as a {@code .jfr} file for JDK Mission Control or {@code jfr print}, and
+ * {@code DELETE .../{id}} discards it. Starting one is refused with 429 while {@code maxRecordings}
+ * recordings, the continuous one included, are already running.
+ */
+@WebEndpoint(id = "flightrecorder")
+@RequiredArgsConstructor
+public class FlightRecorderEndpoint {
+
+    private static final String DEFAULT_SETTINGS = "default";
+
+    private final DataSize maxSize;
+    private final int maxRecordings;
+
+    @ReadOperation
+    public List<RecordingDescriptor> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .map(RecordingDescriptor::of)
+                .toList();
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingDescriptor> start(@Nullable String name, @Nullable String settings,
+                                                          @Nullable Duration duration) {
+        long running = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getState() == RecordingState.RUNNING
+                        || recording.getState() == RecordingState.DELAYED)
+                .count();
+        if (running >= maxRecordings) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : DEFAULT_SETTINGS);
+        } catch (IOException | ParseException ex) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Recording recording = new Recording(configuration);
+        if (name != null) {
+            recording.setName(name);
+        }
+        FlightRecorderEvents.configure(recording);
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setDuration(duration);
+        recording.start();
+        return new WebEndpointResponse<>(RecordingDescriptor.of(recording));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<RecordingDescriptor> stop(@Selector long id) {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.get().getState() == RecordingState.RUNNING) {
+            recording.get().stop();
+        }
+        return new WebEndpointResponse<>(RecordingDescriptor.of(recording.get()));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty() || recording.get().getState() == RecordingState.NEW
+                || recording.get().getState() == RecordingState.CLOSED) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+        try {
+            recording.get().dump(file);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> close(@Selector long id) {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        recording.get().close();
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    private static Optional<Recording> find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst();
+    }
+
+    public record RecordingDescriptor(long id, String name, RecordingState state, Instant startTime,
+                                      Instant stopTime, Duration duration, Duration maxAge, long maxSize, long size) {
+
+        static RecordingDescriptor of(Recording recording) {
+            return new RecordingDescriptor(recording.getId(), recording.getName(), recording.getState(),
+                    recording.getStartTime(), recording.getStopTime(), recording.getDuration(),
+                    recording.getMaxAge(), recording.getMaxSize(), recording.getSize());
+        }
+    }
+
+    /**
+     * A dump that is deleted once it has been sent. It is streamed rather than handed over as a
+     * file, so the response cannot bypass the stream and leave the file behind.
+     */
+    static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            return Channels.newChannel(getInputStream());
+        }
+
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.sky.pedroboavida.test.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+/**
+ * JDK Flight Recorder events for the application's own operations, so a recording lines up
+ * authentication, persistence, conversion and error handling with the JVM's GC, lock and I/O
+ * events. Emitting one costs a check of whether it is enabled unless a recording is running; the
+ * fields are only filled in for events that will be committed. Stack traces are left out, as the
+ * events are frequent and their source is obvious.
+ */
+public final class FlightRecorderEvents {
+
+    private static final String CATEGORY = "Application";
+
+    /**
+     * Every event type, for enabling them on a recording.
+     */
+    public static final List<Class<? extends Event>> TYPES = List.of(UserLookup.class, PasswordHash.class,
+            RepositoryCall.class, Conversion.class, ExceptionHandled.class);
+
+    /**
+     * JDK events left out of every recording: they copy the environment and the system properties,
+     * database credentials included, into the recording.
+     */
+    static final List<String> EXCLUDED_JDK_EVENTS = List.of("jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty");
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * Enables the application's events on a recording and disables the excluded JDK ones.
+     */
+    static void configure(Recording recording) {
+        TYPES.forEach(recording::enable);
+        EXCLUDED_JDK_EVENTS.forEach(recording::disable);
+    }
+
+    /**
+     * Events that happen while handling a request and carry its route and authenticated user.
+     */
+    @StackTrace(false)
+    abstract static class RequestEvent extends Event {
+
+        @Label("Route")
+        @Description("HTTP method and route pattern of the request, or its path when no handler matched")
+        String route;
+
+        @Label("User")
+        @Description("Name of the authenticated user, absent until authentication has completed")
+        String user;
+
+        void describeRequest() {
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                HttpServletRequest request = attributes.getRequest();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                route = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+            }
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                user = authentication.getName();
+            }
+        }
+    }
+
+    @Name("com.sky.pedroboavida.test.UserLookup")
+    @Label("User Lookup")
+    @Category({CATEGORY, "Authentication"})
+    @Description("Loading the user being authenticated")
+    public static class UserLookup extends RequestEvent {
+
+        @Label("User Id")
+        long userId;
+
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("com.sky.pedroboavida.test.PasswordHash")
+    @Label("Password Hash")
+    @Category({CATEGORY, "Authentication"})
+    @Description("BCrypt hashing of a new password or verification of a presented one")
+    public static class PasswordHash extends RequestEvent {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Matched")
+        @Description("Whether a verified password matched; false for hashing")
+        boolean matched;
+    }
+
+    @Name("com.sky.pedroboavida.test.RepositoryCall")
+    @Label("Repository Call")
+    @Category({CATEGORY, "Persistence"})
+    public static class RepositoryCall extends RequestEvent {
+
+        @Label("Repository")
+        String repository;
+
+        @Label("Method")
+        String method;
+
+        @Label("Rows")
+        @Description("Rows returned or affected, or -1 when the result does not tell")
+        long rows;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("com.sky.pedroboavida.test.Conversion")
+    @Label("DTO Conversion")
+    @Category({CATEGORY, "Serialization"})
+    public static class Conversion extends RequestEvent {
+
+        @Label("Converter")
+        String converter;
+
+        @Label("Method")
+        String method;
+
+        @Label("Source Type")
+        Class<?> sourceType;
+    }
+
+    @Name("com.sky.pedroboavida.test.ExceptionHandled")
+    @Label("Exception Handled")
+    @Category({CATEGORY, "Errors"})
+    public static class ExceptionHandled extends RequestEvent {
+
+        @Label("Exception Type")
+        Class<?> exceptionType;
+
+        @Label("Message")
+        String message;
+
+        @Label("Status")
+        int status;
+    }
+}
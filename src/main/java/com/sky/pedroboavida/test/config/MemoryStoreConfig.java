@@ -0,0 +1,46 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.repository.memory.MemoryJournal;
+import com.sky.pedroboavida.test.repository.memory.MemoryStore;
+import com.sky.pedroboavida.test.repository.memory.MemoryTransactionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Runs the application without a database: with {@code app.persistence.mode=memory} users and
+ * external projects are kept in the embedded {@link MemoryStore}, persisted under
+ * {@code app.memory.directory}, and transactions are units of work of that store.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.persistence.mode", havingValue = "memory")
+public class MemoryStoreConfig {
+
+    @Bean
+    public MemoryStore memoryStore(@Value("${app.memory.directory:data}") Path directory,
+                                   @Value("${app.memory.journal-size:64MB}") DataSize journalSize,
+                                   @Value("${app.memory.sync-on-commit:false}") boolean syncOnCommit,
+                                   @Value("${app.memory.compaction-interval:5m}") Duration compactionInterval)
+            throws IOException {
+        MemoryJournal journal = new MemoryJournal(directory, Math.toIntExact(journalSize.toBytes()), syncOnCommit);
+        return new MemoryStore(journal, compactionInterval);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            MemoryStore memoryStore, ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        MemoryTransactionManager transactionManager = new MemoryTransactionManager(memoryStore);
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+}
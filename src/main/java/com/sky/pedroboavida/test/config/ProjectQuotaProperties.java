@@ -0,0 +1,11 @@
+package com.sky.pedroboavida.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits on the external projects a single user can own.
+ */
+@ConfigurationProperties(prefix = "app.projects")
+public record ProjectQuotaProperties(@DefaultValue("1000") int maxPerUser) {
+}
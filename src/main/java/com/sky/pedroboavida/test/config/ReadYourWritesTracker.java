@@ -0,0 +1,57 @@
+package com.sky.pedroboavida.test.config;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote within the stickiness window, so their reads can be served by the
+ * primary until the replicas have caught up. Expired entries are swept once the map grows past
+ * {@code maxEntries}, so only users who wrote recently take up memory.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window, int maxEntries) {
+        this.windowNanos = window.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public void recordWrite(String client) {
+        if (client == null || windowNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (lastWrites.size() >= maxEntries) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+        lastWrites.put(client, now);
+    }
+
+    public boolean wroteRecently(String client) {
+        if (client == null) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(client);
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+
+    /**
+     * Name of the authenticated user of the current request, or {@code null} for anonymous and
+     * background work.
+     */
+    public static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
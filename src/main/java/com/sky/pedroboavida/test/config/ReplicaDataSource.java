@@ -0,0 +1,79 @@
+package com.sky.pedroboavida.test.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Spreads connections round-robin over the read replicas. A replica that fails to hand out a
+ * connection is marked down for the cooldown and the next one is tried; with no replica available,
+ * or right after the current user wrote something, connections come from the primary instead.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long cooldownNanos;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicLongArray downUntil;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<? extends DataSource> replicas,
+                             Duration cooldown, ReadYourWritesTracker readYourWrites) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.cooldownNanos = cooldown.toNanos();
+        this.readYourWrites = readYourWrites;
+        this.downUntil = new AtomicLongArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicas.isEmpty() || readYourWrites.wroteRecently(ReadYourWritesTracker.currentClient())) {
+            return primary.getConnection();
+        }
+
+        long now = System.nanoTime();
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            int index = Math.floorMod(next.getAndIncrement(), replicas.size());
+            long until = downUntil.get(index);
+            if (until != 0 && until - now > 0) {
+                continue;
+            }
+            try {
+                Connection connection = replicas.get(index).getConnection();
+                downUntil.compareAndSet(index, until, 0);
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Read replica {} unavailable, skipping it for {} ms: {}",
+                        index, Duration.ofNanos(cooldownNanos).toMillis(), e.getMessage());
+                downUntil.set(index, now + cooldownNanos);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Read replicas only use the configured credentials");
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
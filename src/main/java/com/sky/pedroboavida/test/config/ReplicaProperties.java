@@ -0,0 +1,21 @@
+package com.sky.pedroboavida.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas for the read bulkhead. Credentials default to those of the primary. A replica
+ * that refuses connections is skipped for {@code failoverCooldown}; after a write, the same user's
+ * reads stay on the primary for {@code stickinessWindow} so replication lag is not visible to them.
+ */
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public record ReplicaProperties(
+        @DefaultValue List<String> urls,
+        String username,
+        String password,
+        @DefaultValue("30s") Duration failoverCooldown,
+        @DefaultValue("5s") Duration stickinessWindow) {
+}
@@ -0,0 +1,41 @@
+package com.sky.pedroboavida.test.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.filter.RequestDeadlineFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(RequestDeadlineProperties.class)
+public class RequestDeadlineConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(RequestDeadlineProperties properties,
+                                                                              ObjectMapper objectMapper) {
+        FilterRegistrationBean<RequestDeadlineFilter> registration =
+                new FilterRegistrationBean<>(new RequestDeadlineFilter(properties, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        // Ahead of security, so authentication and load shedding count against the deadline too.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    // Replaces the auto-configured JpaTransactionManager; the entity manager factory is picked up from the context.
+    // The embedded store brings its own transaction manager, see MemoryStoreConfig.
+    @Bean
+    @ConditionalOnExpression("'${app.persistence.mode:jpa}' != 'memory'")
+    public PlatformTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        DeadlineAwareJpaTransactionManager transactionManager = new DeadlineAwareJpaTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+}
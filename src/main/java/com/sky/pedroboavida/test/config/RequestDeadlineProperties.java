@@ -0,0 +1,21 @@
+package com.sky.pedroboavida.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Request deadlines: the default for API requests, per-endpoint overrides (first match wins,
+ * a missing method matches any) and the cap applied to client supplied {@code Request-Timeout}s.
+ */
+@ConfigurationProperties(prefix = "app.deadline")
+public record RequestDeadlineProperties(
+        @DefaultValue("10s") Duration defaultTimeout,
+        @DefaultValue("60s") Duration maxTimeout,
+        @DefaultValue List<Endpoint> endpoints) {
+
+    public record Endpoint(String method, String pattern, Duration timeout) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.sky.pedroboavida.test.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.sky.pedroboavida.test.filter.RequestLogSampling;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides the debug output of the configured loggers, and their descendants, per request instead
+ * of by level, following {@link RequestLogSampling}: written for sampled requests whatever the
+ * logger's level and discarded for the others. When the request buffers, the messages of the
+ * tail loggers are held back instead, as their bare format string: that suits
+ * {@code org.hibernate.SQL}, whose format is the whole statement. Outside requests the level
+ * applies. Trace output is never let through, so bind parameters stay out of the logs. Declared
+ * in {@code logback-spring.xml}:
+ *
+ * <pre>{@code
+ * <turboFilter class="com.sky.pedroboavida.test.config.RequestLogSamplingTurboFilter">
+ *     <logger>org.hibernate.SQL</logger>
+ *     <tailLogger>org.hibernate.SQL</tailLogger>
+ * </turboFilter>
+ * }</pre>
+ */
+public class RequestLogSamplingTurboFilter extends TurboFilter {
+
+    private final List<String> loggers = new ArrayList<>();
+    private final List<String> tailLoggers = new ArrayList<>();
+
+    public void addLogger(String name) {
+        loggers.add(name);
+    }
+
+    /**
+     * A logger, among the sampled ones, whose messages are held back for requests that buffer.
+     */
+    public void addTailLogger(String name) {
+        tailLoggers.add(name);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (level.levelInt != Level.DEBUG_INT || !matches(loggers, logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        RequestLogSampling sampling = RequestLogSampling.current();
+        if (sampling == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (sampling.sampled()) {
+            return FilterReply.ACCEPT;
+        }
+        if (!sampling.buffering() || !matches(tailLoggers, logger.getName())) {
+            return FilterReply.DENY;
+        }
+        if (format == null) {
+            // An isDebugEnabled() check: let the caller build its message only while it can be held back
+            if (sampling.hasRoom()) {
+                return FilterReply.ACCEPT;
+            }
+            sampling.drop();
+            return FilterReply.DENY;
+        }
+        sampling.hold(format);
+        return FilterReply.DENY;
+    }
+
+    private static boolean matches(List<String> loggers, String name) {
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)
+                    && (name.length() == prefix.length() || name.charAt(prefix.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
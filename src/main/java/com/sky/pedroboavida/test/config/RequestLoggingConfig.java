@@ -0,0 +1,31 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.filter.RequestLoggingFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Request ids and per request sampling of verbose logging ({@code app.request-logging}). The
+ * sampling only takes effect where {@code logback-spring.xml} declares the
+ * {@link RequestLogSamplingTurboFilter}, which it does for the {@code prod} profile.
+ */
+@Configuration
+public class RequestLoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestLoggingFilter> requestLoggingFilter(
+            @Value("${app.request-logging.sample-rate:1.0}") double sampleRate,
+            @Value("${app.request-logging.slow-threshold:0ms}") Duration slowThreshold,
+            @Value("${app.request-logging.buffer-capacity:0}") int bufferCapacity) {
+        FilterRegistrationBean<RequestLoggingFilter> registration = new FilterRegistrationBean<>(
+                new RequestLoggingFilter(sampleRate, slowThreshold.toNanos(), bufferCapacity));
+        // Outermost of the application's filters, so everything they log carries the request id.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 3);
+        return registration;
+    }
+}
@@ -1,9 +1,18 @@
 package com.sky.pedroboavida.test.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.filter.RateLimitFilter;
+import com.sky.pedroboavida.test.filter.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -13,9 +22,12 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(AdminProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -27,11 +39,11 @@ public class SecurityConfig {
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(MeterRegistry meterRegistry) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(customUserDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
-        return authProvider;
+        return new TimedAuthenticationProvider(authProvider, meterRegistry);
     }
 
     @Bean
@@ -40,15 +52,41 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public RateLimitFilter rateLimitFilter(@Value("${app.rate-limit.ip.capacity:100}") int ipCapacity,
+                                           @Value("${app.rate-limit.ip.refill-per-second:50}") double ipRefillPerSecond,
+                                           @Value("${app.rate-limit.user.capacity:20}") int userCapacity,
+                                           @Value("${app.rate-limit.user.refill-per-second:10}") double userRefillPerSecond,
+                                           @Value("${app.rate-limit.max-keys:1000000}") int maxKeys,
+                                           MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        return new RateLimitFilter(
+                new RateLimiter(ipCapacity, ipRefillPerSecond, maxKeys),
+                new RateLimiter(userCapacity, userRefillPerSecond, maxKeys),
+                meterRegistry, objectMapper);
+    }
+
+    // The rate limit filters run inside the security chain only, not as standalone servlet filters.
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, RateLimitFilter rateLimitFilter,
+                                           AuthenticationProvider authenticationProvider) throws Exception {
         http
+          .addFilterBefore(rateLimitFilter, DisableEncodeUrlFilter.class)
+          .addFilterAfter(rateLimitFilter.authenticatedUserFilter(), BasicAuthenticationFilter.class)
           .csrf(AbstractHttpConfigurer::disable)
           .authorizeHttpRequests(auth -> auth
-              .requestMatchers("/api/users", "/actuator/health", "/actuator/prometheus").permitAll()
+              .requestMatchers(HttpMethod.POST, "/api/users").permitAll()
+              .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll()
+              .requestMatchers("/actuator/**").hasRole("ADMIN")
               .anyRequest().authenticated()
           )
           .httpBasic(httpBasic -> {})
-          .authenticationProvider(authenticationProvider());
+          .authenticationProvider(authenticationProvider);
         return http.build();
     }
 }
@@ -0,0 +1,65 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.filter.ServerTimingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Request timing, enabled by either of its consumers: the sampled {@code Server-Timing} header
+ * ({@code app.server-timing}) and the slow request recorder ({@code app.slow-requests}).
+ */
+@Configuration
+@ConditionalOnExpression("${app.server-timing.enabled:false} or ${app.slow-requests.enabled:false}")
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${app.server-timing.enabled:false}") boolean headerEnabled,
+            @Value("${app.server-timing.sample-rate:1.0}") double sampleRate,
+            ObjectProvider<SlowRequestRecorder> slowRequestRecorder) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(headerEnabled ? sampleRate : 0, slowRequestRecorder.getIfAvailable()));
+        registration.addUrlPatterns("/api/*");
+        // Outside the deadline filter and security, so the total covers everything the request went through.
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.slow-requests", name = "enabled", havingValue = "true")
+    public SlowRequestRecorder slowRequestRecorder(@Value("${app.slow-requests.capacity:20}") int capacity,
+                                                   @Value("${app.slow-requests.threshold:500ms}") Duration threshold,
+                                                   @Value("${app.slow-requests.retention:15m}") Duration retention) {
+        return new SlowRequestRecorder(capacity, threshold, retention);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.slow-requests", name = "enabled", havingValue = "true")
+    public SlowRequestsEndpoint slowRequestsEndpoint(SlowRequestRecorder slowRequestRecorder) {
+        return new SlowRequestsEndpoint(slowRequestRecorder);
+    }
+
+    // Wraps the data source JPA and JdbcTemplate use, so statements on every pool, replicas included, are timed.
+    @Bean
+    public static BeanPostProcessor statementTimingBeanPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new StatementTimingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.exception.ExternalProjectAlreadyExistsException;
+import com.sky.pedroboavida.test.exception.ExternalProjectNotFoundException;
+import com.sky.pedroboavida.test.exception.ExternalProjectQuotaExceededException;
+import com.sky.pedroboavida.test.exception.InvalidRequestException;
+import com.sky.pedroboavida.test.exception.RequestDeadlineExceededException;
+import com.sky.pedroboavida.test.exception.UserAlreadyExistsException;
+import com.sky.pedroboavida.test.exception.UserNotFoundException;
+import com.sky.pedroboavida.test.filter.ServerTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of {@code UserService} and {@code ExternalProjectService}, tagged
+ * with the service, the method and the outcome, so latency can be watched per operation and
+ * failures told apart from successes. It runs outside the transaction, so commit time is
+ * included. Histogram buckets and SLO boundaries come from {@code management.metrics.distribution}.
+ * The calls also make up the {@code service} phase of the request's {@link ServerTiming}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "service.method.duration";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.sky.pedroboavida.test.service.UserService.*(..))"
+            + " || execution(public * com.sky.pedroboavida.test.service.ExternalProjectService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ServerTiming serverTiming = ServerTiming.current();
+        if (serverTiming != null) {
+            serverTiming.enterService();
+        }
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.SUCCESS;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = Outcome.of(ex);
+            throw ex;
+        } finally {
+            timer(method, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (serverTiming != null) {
+                serverTiming.exitService();
+            }
+        }
+    }
+
+    // Timers are looked up once per method and outcome rather than through the registry on every call
+    private Timer timer(Method method, Outcome outcome) {
+        Timer[] methodTimers = timers.computeIfAbsent(method, m -> new Timer[Outcome.values().length]);
+        Timer timer = methodTimers[outcome.ordinal()];
+        if (timer == null) {
+            timer = Timer.builder(METRIC_NAME)
+                    .description("Duration of service method calls")
+                    .tag("service", method.getDeclaringClass().getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("outcome", outcome.tag())
+                    .register(meterRegistry);
+            methodTimers[outcome.ordinal()] = timer;
+        }
+        return timer;
+    }
+
+    public enum Outcome {
+        SUCCESS, NOT_FOUND, CONFLICT, VALIDATION_ERROR, TIMEOUT, ERROR;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        static Outcome of(Throwable ex) {
+            if (ex instanceof UserNotFoundException || ex instanceof ExternalProjectNotFoundException) {
+                return NOT_FOUND;
+            }
+            if (ex instanceof UserAlreadyExistsException || ex instanceof ExternalProjectAlreadyExistsException
+                    || ex instanceof ExternalProjectQuotaExceededException) {
+                return CONFLICT;
+            }
+            if (ex instanceof InvalidRequestException || ex instanceof ConstraintViolationException) {
+                return VALIDATION_ERROR;
+            }
+            if (ex instanceof RequestDeadlineExceededException || ex instanceof QueryTimeoutException
+                    || ex instanceof TransactionTimedOutException) {
+                return TIMEOUT;
+            }
+            return ERROR;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.sky.pedroboavida.test.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the slowest recent requests in a fixed number of slots, for the {@code slowrequests}
+ * actuator endpoint. A request slower than the threshold replaces the fastest entry, or one older
+ * than the retention period, with a compare-and-set, so recording never blocks request threads: a
+ * request that loses a race rescans, until it is kept or no longer among the slowest. Requests
+ * under the threshold only cost a comparison.
+ */
+public class SlowRequestRecorder {
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final long thresholdNanos;
+    private final long retentionNanos;
+    private final LongSupplier nanoClock;
+
+    public SlowRequestRecorder(int capacity, Duration threshold, Duration retention) {
+        this(capacity, threshold, retention, System::nanoTime);
+    }
+
+    SlowRequestRecorder(int capacity, Duration threshold, Duration retention, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.thresholdNanos = threshold.toNanos();
+        this.retentionNanos = retention.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    /**
+     * Keeps the request if it is slower than the fastest one kept, or if there is room.
+     */
+    public void record(long durationNanos, SlowRequest request) {
+        if (!isSlow(durationNanos)) {
+            return;
+        }
+        Entry entry = new Entry(nanoClock.getAsLong(), durationNanos, request);
+        while (true) {
+            int victim = -1;
+            Entry victimEntry = null;
+            long victimNanos = Long.MAX_VALUE;
+            for (int i = 0; i < slots.length(); i++) {
+                Entry current = slots.get(i);
+                long rank = current == null || expired(current, entry.recordedNanos()) ? -1 : current.durationNanos();
+                if (rank < victimNanos) {
+                    victim = i;
+                    victimEntry = current;
+                    victimNanos = rank;
+                }
+            }
+            if (durationNanos <= victimNanos) {
+                return;
+            }
+            if (slots.compareAndSet(victim, victimEntry, entry)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The requests kept and not yet expired, slowest first.
+     */
+    public List<SlowRequest> slowest() {
+        long now = nanoClock.getAsLong();
+        List<Entry> entries = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            Entry entry = slots.get(i);
+            if (entry != null && !expired(entry, now)) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::durationNanos).reversed());
+        return entries.stream().map(Entry::request).toList();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return now - entry.recordedNanos() > retentionNanos;
+    }
+
+    private record Entry(long recordedNanos, long durationNanos, SlowRequest request) {
+    }
+
+    /**
+     * A recorded request: its route pattern (the path when no handler matched), the authenticated
+     * user, the response status, and where the time went. Statements carry their SQL text without
+     * bound values; only the first ones are listed, {@code statementCount} counts them all.
+     */
+    public record SlowRequest(Instant timestamp, String method, String route, String user, int status,
+                              double durationMs, Map<String, Double> phasesMs, int statementCount,
+                              List<Statement> statements) {
+    }
+
+    public record Statement(String sql, double durationMs) {
+    }
+}
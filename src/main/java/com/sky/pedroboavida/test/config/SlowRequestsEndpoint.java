@@ -0,0 +1,31 @@
+package com.sky.pedroboavida.test.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/slowrequests} lists the slowest recent requests with their phase timings
+ * and SQL; {@code DELETE} forgets them, for instance to watch the effect of a fix. The entries
+ * name users and routes, so the endpoint is web only, behind the ADMIN role like the rest of the
+ * actuator, and never exported over JMX.
+ */
+@WebEndpoint(id = "slowrequests")
+@RequiredArgsConstructor
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestRecorder recorder;
+
+    @ReadOperation
+    public List<SlowRequestRecorder.SlowRequest> slowRequests() {
+        return recorder.slowest();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+}
@@ -0,0 +1,97 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.filter.ServerTiming;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds every statement, its SQL and execution time, to the {@link ServerTiming} of the current
+ * request. The SQL is the statement text with placeholders, never the bound values. Connections
+ * handed out while no request is being timed are returned unwrapped, so untimed requests pay
+ * nothing beyond the thread-local lookup.
+ */
+public class StatementTimingDataSource extends DelegatingDataSource {
+
+    public StatementTimingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private static Connection track(Connection connection) {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            boolean prepared = method.getName().startsWith("prepare");
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement, timed(statement, timing, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement statement && prepared) {
+                return proxy(PreparedStatement.class, statement, timed(statement, timing, (String) args[0]));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, timed(statement, timing, null));
+            }
+            return result;
+        });
+    }
+
+    // A prepared statement runs its own SQL, a plain one the SQL passed to execute.
+    private static Invocation timed(Statement statement, ServerTiming timing, String preparedSql) {
+        return (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text : "batch";
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                timing.addStatement(sql, System.nanoTime() - start);
+            }
+        };
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> invocation.invoke(proxy, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+}
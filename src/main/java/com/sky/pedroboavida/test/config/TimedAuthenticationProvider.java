@@ -0,0 +1,82 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.filter.ServerTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the authentication step, user lookup and BCrypt check included, tagged with its outcome:
+ * {@code success}, {@code bad_credentials} (which covers unknown users), {@code error} when the
+ * lookup itself failed, or {@code rejected} for any other refusal. The time also goes to the
+ * {@code auth} phase of the request's {@link ServerTiming}, which also keeps the user's name.
+ */
+public class TimedAuthenticationProvider implements AuthenticationProvider {
+
+    public static final String METRIC_NAME = "authentication.duration";
+
+    private final AuthenticationProvider delegate;
+    private final Timer success;
+    private final Timer badCredentials;
+    private final Timer error;
+    private final Timer rejected;
+
+    public TimedAuthenticationProvider(AuthenticationProvider delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.success = timer(meterRegistry, "success");
+        this.badCredentials = timer(meterRegistry, "bad_credentials");
+        this.error = timer(meterRegistry, "error");
+        this.rejected = timer(meterRegistry, "rejected");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        long start = System.nanoTime();
+        Timer timer = success;
+        try {
+            Authentication result = delegate.authenticate(authentication);
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null && result != null) {
+                timing.authenticated(result.getName());
+            }
+            return result;
+        } catch (BadCredentialsException ex) {
+            timer = badCredentials;
+            throw ex;
+        } catch (AuthenticationServiceException ex) {
+            timer = error;
+            throw ex;
+        } catch (AuthenticationException ex) {
+            timer = rejected;
+            throw ex;
+        } catch (RuntimeException ex) {
+            timer = error;
+            throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null) {
+                timing.addAuthentication(elapsed);
+            }
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Duration of authentication attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.sky.pedroboavida.test.controller;
+
+import com.sky.pedroboavida.test.api.BatchApi;
+import com.sky.pedroboavida.test.model.BatchRequest;
+import com.sky.pedroboavida.test.model.BatchResponse;
+import com.sky.pedroboavida.test.service.BatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class BatchController implements BatchApi {
+
+    private final BatchService batchService;
+
+    @Override
+    public ResponseEntity<BatchResponse> executeBatch(BatchRequest batchRequest) {
+        BatchResponse response = batchService.executeBatch(batchRequest);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -3,8 +3,12 @@ package com.sky.pedroboavida.test.controller;
 import com.sky.pedroboavida.test.api.ExternalProjectsApi;
 import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
 import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.model.ExternalProjectMultiGetResponse;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsRequest;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsResponse;
 import com.sky.pedroboavida.test.model.UpdateExternalProjectRequest;
 import com.sky.pedroboavida.test.service.ExternalProjectService;
+import com.sky.pedroboavida.test.service.MultiGetResult;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,13 +29,29 @@ public class ExternalProjectController implements ExternalProjectsApi {
     }
 
     @Override
-    public ResponseEntity<List<ExternalProjectDTO>> getExternalProjects(Long userId) {
+    public ResponseEntity<List<ExternalProjectDTO>> getExternalProjects(Long userId, List<String> fields) {
         List<ExternalProjectDTO> projects = externalProjectService.getExternalProjectsByUserId(userId);
         return ResponseEntity.ok(projects);
     }
 
     @Override
-    public ResponseEntity<ExternalProjectDTO> getExternalProject(Long userId, String projectId) {
+    public ResponseEntity<ExternalProjectMultiGetResponse> getExternalProjectsByIds(Long userId, List<String> ids,
+                                                                                    List<String> fields) {
+        MultiGetResult<ExternalProjectDTO, String> result = externalProjectService.getExternalProjectsByIds(userId, ids);
+        ExternalProjectMultiGetResponse response = new ExternalProjectMultiGetResponse();
+        response.setExternalProjects(result.items());
+        response.setMissingIds(result.missingIds());
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<SyncExternalProjectsResponse> syncExternalProjects(Long userId, SyncExternalProjectsRequest syncExternalProjectsRequest) {
+        SyncExternalProjectsResponse response = externalProjectService.syncExternalProjects(userId, syncExternalProjectsRequest);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<ExternalProjectDTO> getExternalProject(Long userId, String projectId, List<String> fields) {
         ExternalProjectDTO project = externalProjectService.getExternalProject(projectId, userId);
         return ResponseEntity.ok(project);
     }
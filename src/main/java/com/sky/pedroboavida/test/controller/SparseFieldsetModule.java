@@ -0,0 +1,66 @@
+package com.sky.pedroboavida.test.controller;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.model.UserDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Puts the generated {@link UserDTO} and {@link ExternalProjectDTO} behind Jackson property
+ * filters, so {@link SparseFieldsetResponseAdvice} can have the serializer skip the properties
+ * that were not asked for. Unless a response supplies its own filters, every property is written.
+ */
+@Component
+public class SparseFieldsetModule extends SimpleModule {
+
+    static final String USER_FILTER = "userFields";
+    static final String EXTERNAL_PROJECT_FILTER = "externalProjectFields";
+
+    private static final FilterProvider ALL_FIELDS = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    public SparseFieldsetModule() {
+        super(SparseFieldsetModule.class.getSimpleName());
+        setMixInAnnotation(UserDTO.class, UserFields.class);
+        setMixInAnnotation(ExternalProjectDTO.class, ExternalProjectFields.class);
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        if (context.getOwner() instanceof ObjectMapper objectMapper) {
+            objectMapper.setFilterProvider(ALL_FIELDS);
+        }
+    }
+
+    /**
+     * Filters writing only {@code fields} of the top-level users or projects of a response; the
+     * projects nested in a user keep all their properties.
+     */
+    static FilterProvider filters(boolean users, boolean externalProjects, Set<String> fields) {
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+        if (users) {
+            filters.addFilter(USER_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+        }
+        if (externalProjects) {
+            filters.addFilter(EXTERNAL_PROJECT_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+        }
+        return filters;
+    }
+
+    @JsonFilter(USER_FILTER)
+    private interface UserFields {
+    }
+
+    @JsonFilter(EXTERNAL_PROJECT_FILTER)
+    private interface ExternalProjectFields {
+    }
+}
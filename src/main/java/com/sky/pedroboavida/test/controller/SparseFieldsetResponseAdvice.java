@@ -0,0 +1,88 @@
+package com.sky.pedroboavida.test.controller;
+
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.model.ExternalProjectMultiGetResponse;
+import com.sky.pedroboavida.test.model.UserDTO;
+import com.sky.pedroboavida.test.model.UserMultiGetResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Applies the {@code fields} query parameter to user and external project responses, multi-get
+ * ones included, emitting only the requested properties through the filters of
+ * {@link SparseFieldsetModule}. Error responses and requests without the parameter are
+ * serialized unchanged.
+ */
+@RestControllerAdvice
+public class SparseFieldsetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String FIELDS_PARAMETER = "fields";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!isFilterable(body) || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+
+        Set<String> fields = requestedFields(servletRequest.getServletRequest().getParameterValues(FIELDS_PARAMETER));
+        if (fields.isEmpty()) {
+            return body;
+        }
+
+        // The serializer skips the other properties rather than writing them to a tree to prune
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(SparseFieldsetModule.filters(
+                body instanceof UserMultiGetResponse || contains(body, UserDTO.class),
+                body instanceof ExternalProjectMultiGetResponse || contains(body, ExternalProjectDTO.class), fields));
+        return value;
+    }
+
+    private static boolean isFilterable(Object body) {
+        if (body instanceof Collection<?> collection) {
+            return !collection.isEmpty() && collection.stream().allMatch(SparseFieldsetResponseAdvice::isFilterable);
+        }
+        return body instanceof UserDTO || body instanceof ExternalProjectDTO
+                || body instanceof UserMultiGetResponse || body instanceof ExternalProjectMultiGetResponse;
+    }
+
+    private static Set<String> requestedFields(String[] values) {
+        Set<String> fields = new LinkedHashSet<>();
+        if (values != null) {
+            for (String value : values) {
+                for (String field : StringUtils.commaDelimitedListToStringArray(value)) {
+                    if (StringUtils.hasText(field)) {
+                        fields.add(field.trim());
+                    }
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static boolean contains(Object body, Class<?> type) {
+        if (body instanceof Collection<?> collection) {
+            return collection.stream().anyMatch(type::isInstance);
+        }
+        return type.isInstance(body);
+    }
+}
@@ -1,19 +1,26 @@
 package com.sky.pedroboavida.test.controller;
 
 import com.sky.pedroboavida.test.api.UsersApi;
+import com.sky.pedroboavida.test.exception.InvalidRequestException;
 import com.sky.pedroboavida.test.model.CreateUserRequest;
 import com.sky.pedroboavida.test.model.UpdateUserRequest;
 import com.sky.pedroboavida.test.model.UserDTO;
+import com.sky.pedroboavida.test.model.UserMultiGetResponse;
+import com.sky.pedroboavida.test.service.MultiGetResult;
 import com.sky.pedroboavida.test.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 public class UserController implements UsersApi {
 
+    private static final String EXTERNAL_PROJECTS = "externalProjects";
+
     private final UserService userService;
 
     @Override
@@ -23,11 +30,26 @@ public class UserController implements UsersApi {
     }
 
     @Override
-    public ResponseEntity<UserDTO> getUserById(Long id) {
-        UserDTO user = userService.getUserById(id);
+    public ResponseEntity<UserDTO> getUserById(Long id, List<String> fields, List<String> expand) {
+        if (expand != null && expand.stream().anyMatch(value -> !EXTERNAL_PROJECTS.equals(value))) {
+            throw new InvalidRequestException("Unsupported expand value, supported values are: " + EXTERNAL_PROJECTS);
+        }
+        boolean expandExternalProjects = (expand != null && expand.contains(EXTERNAL_PROJECTS))
+                || (fields != null && fields.contains(EXTERNAL_PROJECTS));
+
+        UserDTO user = userService.getUserById(id, expandExternalProjects);
         return ResponseEntity.ok(user);
     }
 
+    @Override
+    public ResponseEntity<UserMultiGetResponse> getUsersByIds(List<Long> ids, List<String> fields) {
+        MultiGetResult<UserDTO, Long> result = userService.getUsersByIds(ids);
+        UserMultiGetResponse response = new UserMultiGetResponse();
+        response.setUsers(result.items());
+        response.setMissingIds(result.missingIds());
+        return ResponseEntity.ok(response);
+    }
+
     @Override
     public ResponseEntity<UserDTO> updateUser(Long id, UpdateUserRequest updateUserRequest) {
         UserDTO user = userService.updateUser(id, updateUserRequest);
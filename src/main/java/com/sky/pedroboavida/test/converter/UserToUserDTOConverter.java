@@ -3,7 +3,9 @@ package com.sky.pedroboavida.test.converter;
 import com.sky.pedroboavida.test.model.ExternalProjectDTO;
 import com.sky.pedroboavida.test.model.UserDTO;
 import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.repository.UserSummary;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
@@ -26,8 +28,11 @@ public class UserToUserDTOConverter implements Converter<User, UserDTO> {
         dto.setId(source.getId());
         dto.setEmail(source.getEmail());
         dto.setName(source.getName());
+        dto.setProjectCount(source.getProjectCount());
 
-        if (source.getExternalProjects() != null && !source.getExternalProjects().isEmpty()) {
+        // Only an already fetched collection is converted; walking a lazy one would load it as a side effect.
+        if (Hibernate.isInitialized(source.getExternalProjects())
+                && source.getExternalProjects() != null && !source.getExternalProjects().isEmpty()) {
             List<ExternalProjectDTO> projectDTOs = source.getExternalProjects().stream()
                     .map(externalProjectConverter::convert)
                     .collect(Collectors.toList());
@@ -36,5 +41,17 @@ public class UserToUserDTOConverter implements Converter<User, UserDTO> {
 
         return dto;
     }
-}
 
+    public UserDTO convertSummary(UserSummary source) {
+        if (source == null) {
+            return null;
+        }
+
+        UserDTO dto = new UserDTO();
+        dto.setId(source.id());
+        dto.setEmail(source.email());
+        dto.setName(source.name());
+        dto.setProjectCount(source.projectCount());
+        return dto;
+    }
+}
@@ -12,11 +12,14 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@DynamicUpdate
 @Table(name = "tb_user")
 @Getter
 @Setter
@@ -35,6 +38,11 @@ public class User {
     @Column(length=120)
     private String name;
 
+    // Maintained by the conditional updates in UserRepository; dynamic updates never write it back
+    @ColumnDefault("0")
+    @Column(nullable=false)
+    private int projectCount;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<ExternalProject> externalProjects = new HashSet<>();
 }
@@ -0,0 +1,7 @@
+package com.sky.pedroboavida.test.exception;
+
+public class ExternalProjectQuotaExceededException extends RuntimeException {
+    public ExternalProjectQuotaExceededException(Long userId, int maxPerUser) {
+        super("User with id: " + userId + " cannot have more than " + maxPerUser + " external projects");
+    }
+}
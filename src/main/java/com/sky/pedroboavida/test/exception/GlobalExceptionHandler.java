@@ -2,8 +2,10 @@ package com.sky.pedroboavida.test.exception;
 
 import com.sky.pedroboavida.test.model.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -52,9 +54,9 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
-    @ExceptionHandler(ExternalProjectAlreadyExistsException.class)
+    @ExceptionHandler({ExternalProjectAlreadyExistsException.class, ExternalProjectQuotaExceededException.class})
     public ResponseEntity<ErrorResponse> handleExternalProjectAlreadyExistsException(
-            ExternalProjectAlreadyExistsException ex, HttpServletRequest request) {
+            RuntimeException ex, HttpServletRequest request) {
         ErrorResponse error = new ErrorResponse();
         error.setTimestamp(LocalDateTime.now());
         error.setStatus(HttpStatus.CONFLICT.value());
@@ -64,6 +66,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(
+            InvalidRequestException ex, HttpServletRequest request) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.BAD_REQUEST.value());
+        error.setError("Bad Request");
+        error.setMessage(ex.getMessage());
+        error.setPath(request.getRequestURI());
+        error.setDetails(ex.getDetails());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler({RequestDeadlineExceededException.class, QueryTimeoutException.class,
+            TransactionTimedOutException.class})
+    public ResponseEntity<ErrorResponse> handleDeadlineExceededException(
+            RuntimeException ex, HttpServletRequest request) {
+        ErrorResponse error = new ErrorResponse();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+        error.setError("Gateway Timeout");
+        error.setMessage("Request did not complete before its deadline");
+        error.setPath(request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -0,0 +1,7 @@
+package com.sky.pedroboavida.test.exception;
+
+public class RequestDeadlineExceededException extends RuntimeException {
+    public RequestDeadlineExceededException() {
+        super("Request did not complete before its deadline");
+    }
+}
@@ -0,0 +1,116 @@
+package com.sky.pedroboavida.test.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to measured latency, following the gradient approach: the
+ * limit is scaled by the ratio between the long-term average latency and the average over a
+ * short window of recent samples, so it shrinks as soon as requests start queueing (latency
+ * rising above the tolerated multiple of the baseline) and grows by roughly {@code sqrt(limit)}
+ * while latency stays flat. Requests over the limit are meant to be rejected immediately rather
+ * than queued.
+ * <p>
+ * Samples are accumulated without locking; whichever request completes a short window folds
+ * it into the limit under a try-lock, and concurrent completions skip the update instead of
+ * waiting for it.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 60;
+    private static final double LONG_DECAY = 0.95;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final AtomicInteger windowSamples = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile int limit;
+
+    // Guarded by updateLock
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit || tolerance < 1) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= initialLimit <= maxLimit and tolerance >= 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire()} and feeds the request latency into the limit.
+     */
+    public void release(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (inFlightAtCompletion > windowMaxInFlight.get()) {
+            windowMaxInFlight.accumulateAndGet(inFlightAtCompletion, Math::max);
+        }
+        windowRttNanos.add(Math.max(1, rttNanos));
+        if (windowSamples.incrementAndGet() >= SHORT_WINDOW && updateLock.tryLock()) {
+            try {
+                int samples = windowSamples.getAndSet(0);
+                if (samples >= SHORT_WINDOW) {
+                    onWindow((double) windowRttNanos.sumThenReset() / samples, windowMaxInFlight.getAndSet(0));
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onWindow(double shortRttNanos, int maxInFlight) {
+        if (longRttNanos == 0) {
+            longRttNanos = shortRttNanos;
+        } else if (shortRttNanos > tolerance * longRttNanos && estimatedLimit > minLimit) {
+            // While requests are queueing, decay the baseline instead of letting it follow the
+            // inflated latency up, so sustained overload keeps the limit under pressure. Once the
+            // limit bottoms out the baseline is allowed to adopt the new latency.
+            longRttNanos *= LONG_DECAY;
+        } else {
+            longRttNanos += (shortRttNanos - longRttNanos) / LONG_WINDOW;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        // Only grow when the limit is actually being used; an idle service says nothing about capacity.
+        if (newLimit > estimatedLimit && maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        estimatedLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+}
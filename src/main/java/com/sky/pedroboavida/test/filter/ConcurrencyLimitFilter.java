@@ -0,0 +1,92 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load on the users and external projects API once the adaptive concurrency limit is
+ * reached, answering {@code 503} straight away instead of letting requests queue for threads
+ * and connections. Reads and writes are limited separately, so slow writes cannot shrink the
+ * limit for reads and vice versa.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+    private final ErrorResponseWriter errorResponseWriter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter,
+                                  MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.readRejections = rejections(meterRegistry, "read");
+        this.writeRejections = rejections(meterRegistry, "write");
+        this.errorResponseWriter = new ErrorResponseWriter(objectMapper);
+        registerGauges(meterRegistry, readLimiter, "read");
+        registerGauges(meterRegistry, writeLimiter, "write");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.equals("/api/users") && !path.startsWith("/api/users/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+
+        if (!limiter.tryAcquire()) {
+            (read ? readRejections : writeRejections).increment();
+            log.debug("Concurrency limit {} reached, rejecting {} {}",
+                    limiter.getLimit(), request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            errorResponseWriter.write(request, response, HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable",
+                    "Server is at capacity, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("concurrency.limiter.rejections")
+                .description("Requests rejected because the concurrency limit was reached")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static void registerGauges(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter, String type) {
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.model.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Renders {@link ErrorResponse} bodies from servlet filters, which run outside the reach of
+ * {@link com.sky.pedroboavida.test.exception.GlobalExceptionHandler}.
+ */
+@RequiredArgsConstructor
+public class ErrorResponseWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public void write(HttpServletRequest request, HttpServletResponse response,
+                      HttpStatus status, String error, String message) throws IOException {
+        ErrorResponse body = new ErrorResponse();
+        body.setTimestamp(LocalDateTime.now());
+        body.setStatus(status.value());
+        body.setError(error);
+        body.setMessage(message);
+        body.setPath(request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
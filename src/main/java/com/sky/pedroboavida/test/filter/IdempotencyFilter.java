@@ -0,0 +1,227 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes the create endpoints safe to retry: a POST carrying an {@code Idempotency-Key} header
+ * is executed once per (caller, path, key) and later or concurrent retries get the stored
+ * response replayed instead of running the service method again.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final List<String> IDEMPOTENT_PATHS = List.of(
+            "/api/users",
+            "/api/users/*/external-projects",
+            "/api/batch"
+    );
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final IdempotencyStore store;
+    private final Duration waitTimeout;
+    private final ErrorResponseWriter errorResponseWriter;
+
+    public IdempotencyFilter(@Value("${app.idempotency.ttl:24h}") Duration ttl,
+                             @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                             @Value("${app.idempotency.wait-timeout:30s}") Duration waitTimeout,
+                             ObjectMapper objectMapper) {
+        this.store = new IdempotencyStore(ttl, maxEntries, Clock.systemUTC());
+        this.waitTimeout = waitTimeout;
+        this.errorResponseWriter = new ErrorResponseWriter(objectMapper);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return IDEMPOTENT_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            errorResponseWriter.write(request, response, HttpStatus.BAD_REQUEST, "Bad Request",
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String fingerprint = fingerprint(body);
+        String storeKey = principalName() + ' ' + request.getRequestURI() + ' ' + idempotencyKey;
+
+        while (true) {
+            IdempotencyStore.Entry existing = store.claim(storeKey, fingerprint);
+            if (existing == null) {
+                execute(storeKey, new CachedBodyRequest(request, body), response, chain);
+                return;
+            }
+
+            if (!existing.getFingerprint().equals(fingerprint)) {
+                errorResponseWriter.write(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity",
+                        IDEMPOTENCY_KEY_HEADER + " was already used with a different request body");
+                return;
+            }
+
+            IdempotencyStore.StoredResponse stored;
+            try {
+                stored = existing.await(waitTimeout);
+            } catch (TimeoutException e) {
+                errorResponseWriter.write(request, response, HttpStatus.CONFLICT, "Conflict",
+                        "A request with the same " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for idempotent request", e);
+            }
+
+            if (stored != null) {
+                replay(stored, response);
+                return;
+            }
+            // The first execution failed without a storable response; race for ownership again.
+        }
+    }
+
+    private void execute(String storeKey, HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            if (status < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                store.complete(storeKey, new IdempotencyStore.StoredResponse(
+                        status, responseWrapper.getContentType(), responseWrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(storeKey);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        log.debug("Replaying stored response with status {} for idempotent request", stored.status());
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static String principalName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Serves the already consumed request body to the rest of the chain.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.sky.pedroboavida.test.filter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounded, TTL-based store of responses produced for an Idempotency-Key.
+ *
+ * The first request for a key becomes its owner and executes normally; any concurrent
+ * request with the same key blocks on the owner's future and replays its response.
+ *
+ * Every entry lives for the same TTL, so insertion order is also expiry order: expired entries
+ * are always at the head of the map and are dropped from there, and when the store is full the
+ * oldest completed entries go first. All operations are constant time apart from skipping
+ * entries still in flight, under a lock held only for map updates.
+ */
+public class IdempotencyStore {
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Clock clock;
+
+    public IdempotencyStore(Duration ttl, int maxEntries, Clock clock) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Claims a key. Returns {@code null} when the caller is the owner and must execute the
+     * request, otherwise the entry of the request that got there first.
+     */
+    public Entry claim(String key, String fingerprint) {
+        long now = clock.millis();
+        synchronized (lock) {
+            evictExpired(now);
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                if (!existing.isExpired(now)) {
+                    return existing;
+                }
+                // Only reachable if the clock went back; removing first re-inserts the key at the tail
+                entries.remove(key);
+            }
+            entries.put(key, new Entry(fingerprint, now + ttl.toMillis()));
+            evictIfFull();
+            return null;
+        }
+    }
+
+    public void complete(String key, StoredResponse response) {
+        Entry entry;
+        synchronized (lock) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            entry.response.complete(response);
+        }
+    }
+
+    /**
+     * Releases a key whose execution must not be replayed (server error or exception), so that
+     * waiting and future requests execute it again.
+     */
+    public void release(String key) {
+        Entry entry;
+        synchronized (lock) {
+            entry = entries.remove(key);
+        }
+        if (entry != null) {
+            entry.response.cancel(false);
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext() && oldest.next().isExpired(now)) {
+            oldest.remove();
+        }
+    }
+
+    // Entries still in flight are skipped: their owner and waiters need them until they complete
+    private void evictIfFull() {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (entries.size() > maxEntries && oldest.hasNext()) {
+            if (oldest.next().response.isDone()) {
+                oldest.remove();
+            }
+        }
+    }
+
+    public static final class Entry {
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Waits for the owning request to finish. Returns {@code null} if the owner released
+         * the key without a storable response.
+         */
+        public StoredResponse await(Duration timeout) throws TimeoutException, InterruptedException {
+            try {
+                return response.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | CancellationException e) {
+                return null;
+            }
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces token-bucket limits per client IP and per user on the API. The IP limit runs ahead of
+ * authentication, so a client flooding the API is rejected before any BCrypt check or database
+ * lookup is spent on it. The user limit runs in {@link #authenticatedUserFilter()} once the
+ * credentials have been verified, so only the authenticated principal is charged: a failed login
+ * costs the caller's IP bucket and never the bucket of the user it claimed to be.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private final RateLimiter ipLimiter;
+    private final RateLimiter userLimiter;
+    private final Counter ipRejections;
+    private final Counter userRejections;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final AuthenticatedUserFilter authenticatedUserFilter = new AuthenticatedUserFilter();
+
+    public RateLimitFilter(RateLimiter ipLimiter, RateLimiter userLimiter,
+                           MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.ipLimiter = ipLimiter;
+        this.userLimiter = userLimiter;
+        this.ipRejections = rejections(meterRegistry, "ip");
+        this.userRejections = rejections(meterRegistry, "user");
+        this.errorResponseWriter = new ErrorResponseWriter(objectMapper);
+        Gauge.builder("rate.limiter.keys", ipLimiter, RateLimiter::size).tag("limit", "ip").register(meterRegistry);
+        Gauge.builder("rate.limiter.keys", userLimiter, RateLimiter::size).tag("limit", "user").register(meterRegistry);
+    }
+
+    /**
+     * The per-user stage, to be placed after the authentication filters. Requests without an
+     * authenticated principal pass through untouched.
+     */
+    public OncePerRequestFilter authenticatedUserFilter() {
+        return authenticatedUserFilter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !isApiRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Decision decision = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (!decision.allowed()) {
+            ipRejections.increment();
+            reject(request, response, decision);
+            return;
+        }
+
+        setRateLimitHeaders(response, decision);
+        chain.doFilter(request, response);
+    }
+
+    private class AuthenticatedUserFilter extends OncePerRequestFilter {
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return !isApiRequest(request);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()
+                    || authentication instanceof AnonymousAuthenticationToken) {
+                chain.doFilter(request, response);
+                return;
+            }
+
+            RateLimiter.Decision decision = userLimiter.tryAcquire(authentication.getName());
+            if (!decision.allowed()) {
+                userRejections.increment();
+                reject(request, response, decision);
+                return;
+            }
+
+            String ipRemaining = response.getHeader(REMAINING_HEADER);
+            if (ipRemaining == null || decision.remaining() < Long.parseLong(ipRemaining)) {
+                setRateLimitHeaders(response, decision);
+            }
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static boolean isApiRequest(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/api/");
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RateLimiter.Decision decision)
+            throws IOException {
+        log.debug("Rate limit exceeded for {} {}", request.getMethod(), request.getRequestURI());
+        setRateLimitHeaders(response, decision);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, toSeconds(decision.retryAfterNanos()))));
+        errorResponseWriter.write(request, response, HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+                "Rate limit exceeded, retry later");
+    }
+
+    private static void setRateLimitHeaders(HttpServletResponse response, RateLimiter.Decision decision) {
+        response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(toSeconds(decision.resetNanos())));
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String limit) {
+        return Counter.builder("rate.limiter.rejections")
+                .description("Requests rejected by the rate limiter")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,100 @@
+package com.sky.pedroboavida.test.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter keyed by an arbitrary client key.
+ *
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (the GCRA
+ * formulation of a token bucket), so acquiring a token is one CAS and needs no lock. Buckets
+ * live in a fixed number of independent stripes. A bucket whose arrival time has passed is
+ * full and therefore indistinguishable from a new one; such idle buckets are evicted whenever
+ * a stripe reaches its share of {@code maxKeys}, which bounds memory whatever the number of
+ * clients. If a stripe is still full after eviction, new keys share the stripe's overflow bucket.
+ */
+public class RateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final int capacity;
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final int maxKeysPerStripe;
+    private final LongSupplier nanoClock;
+    private final long origin;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public RateLimiter(int capacity, double refillPerSecond, int maxKeys) {
+        this(capacity, refillPerSecond, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int capacity, double refillPerSecond, int maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.burstWindowNanos = emissionIntervalNanos * capacity;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public Decision tryAcquire(String key) {
+        long now = nanoClock.getAsLong() - origin;
+        AtomicLong bucket = bucket(key, now);
+        while (true) {
+            long arrivalTime = bucket.get();
+            long nextArrivalTime = Math.max(arrivalTime, now) + emissionIntervalNanos;
+            long allowedAt = nextArrivalTime - burstWindowNanos;
+            if (allowedAt > now) {
+                return new Decision(false, capacity, 0, arrivalTime - now, allowedAt - now);
+            }
+            if (bucket.compareAndSet(arrivalTime, nextArrivalTime)) {
+                long remaining = (burstWindowNanos - (nextArrivalTime - now)) / emissionIntervalNanos;
+                return new Decision(true, capacity, remaining, nextArrivalTime - now, 0);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        Stripe stripe = stripes[(key.hashCode() * 0x9E3779B9) >>> 26];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.buckets.size() >= maxKeysPerStripe) {
+            stripe.buckets.values().removeIf(idle -> idle.get() <= now);
+            if (stripe.buckets.size() >= maxKeysPerStripe) {
+                return stripe.overflow;
+            }
+        }
+        return stripe.buckets.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private static final class Stripe {
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong();
+    }
+
+    /**
+     * Outcome of an acquisition. {@code resetNanos} is the time until the bucket is full again
+     * and {@code retryAfterNanos} the time until the next token for a rejected request.
+     */
+    public record Decision(boolean allowed, int limit, long remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.sky.pedroboavida.test.exception.RequestDeadlineExceededException;
+
+import java.util.OptionalLong;
+
+/**
+ * Deadline of the request being processed by the current thread, as a {@link System#nanoTime()}
+ * instant. Set by {@link RequestDeadlineFilter} and read wherever work can be bounded or skipped.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void set(long deadlineNanos) {
+        DEADLINE.set(deadlineNanos);
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Time left until the deadline, negative once it has passed, or empty when the current
+     * thread has no deadline.
+     */
+    public static OptionalLong remainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? OptionalLong.empty() : OptionalLong.of(deadline - System.nanoTime());
+    }
+
+    public static void check() {
+        OptionalLong remaining = remainingNanos();
+        if (remaining.isPresent() && remaining.getAsLong() <= 0) {
+            throw new RequestDeadlineExceededException();
+        }
+    }
+}
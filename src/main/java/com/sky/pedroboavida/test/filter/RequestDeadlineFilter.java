@@ -0,0 +1,86 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.config.RequestDeadlineProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Gives every API request a deadline, taken from the {@code Request-Timeout} header (capped at
+ * {@code app.deadline.max-timeout}) or from the configured per-endpoint default. Transactions
+ * started while handling the request are bounded by the time left, see
+ * {@link com.sky.pedroboavida.test.config.DeadlineAwareJpaTransactionManager}.
+ */
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_TIMEOUT_HEADER = "Request-Timeout";
+
+    private final RequestDeadlineProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ErrorResponseWriter errorResponseWriter;
+
+    public RequestDeadlineFilter(RequestDeadlineProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.errorResponseWriter = new ErrorResponseWriter(objectMapper);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Duration timeout;
+        String header = request.getHeader(REQUEST_TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                timeout = DurationStyle.detectAndParse(header.trim(), ChronoUnit.SECONDS);
+            } catch (IllegalArgumentException e) {
+                timeout = null;
+            }
+            if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+                errorResponseWriter.write(request, response, HttpStatus.BAD_REQUEST, "Bad Request",
+                        REQUEST_TIMEOUT_HEADER + " must be a positive duration such as 5s or 500ms");
+                return;
+            }
+            if (timeout.compareTo(properties.maxTimeout()) > 0) {
+                timeout = properties.maxTimeout();
+            }
+        } else {
+            timeout = defaultTimeout(request);
+        }
+
+        RequestDeadline.set(System.nanoTime() + timeout.toNanos());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    private Duration defaultTimeout(HttpServletRequest request) {
+        String path = path(request);
+        return properties.endpoints().stream()
+                .filter(endpoint -> endpoint.method() == null || endpoint.method().equalsIgnoreCase(request.getMethod()))
+                .filter(endpoint -> pathMatcher.match(endpoint.pattern(), path))
+                .map(RequestDeadlineProperties.Endpoint::timeout)
+                .findFirst()
+                .orElse(properties.defaultTimeout());
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,94 @@
+package com.sky.pedroboavida.test.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Whether the request being processed by the current thread has its verbose logging (SQL and
+ * security debug output) written, set by {@link RequestLoggingFilter}. A sampled request logs
+ * as it goes. Any other request can hold its SQL statements back, up to a bounded number, so they
+ * are written only if the request turns out to be slow or to fail. Only the statement text is
+ * kept, not a logging event. Without a current instance, outside requests, the configured log
+ * levels apply as usual.
+ */
+public final class RequestLogSampling {
+
+    private static final ThreadLocal<RequestLogSampling> CURRENT = new ThreadLocal<>();
+
+    private final boolean sampled;
+    private final int bufferCapacity;
+    private List<String> held;
+    private int dropped;
+
+    private RequestLogSampling(boolean sampled, int bufferCapacity) {
+        this.sampled = sampled;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Starts the current request's sampling decision; {@code bufferCapacity} 0 discards the
+     * verbose output of requests that are not sampled instead of holding their statements back.
+     */
+    public static RequestLogSampling start(boolean sampled, int bufferCapacity) {
+        RequestLogSampling sampling = new RequestLogSampling(sampled, bufferCapacity);
+        CURRENT.set(sampling);
+        return sampling;
+    }
+
+    public static RequestLogSampling current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public boolean sampled() {
+        return sampled;
+    }
+
+    public boolean buffering() {
+        return !sampled && bufferCapacity > 0;
+    }
+
+    public boolean hasRoom() {
+        return held == null || held.size() < bufferCapacity;
+    }
+
+    /**
+     * Holds back a statement, dropping it once the buffer is full.
+     */
+    public void hold(String statement) {
+        if (!hasRoom()) {
+            dropped++;
+            return;
+        }
+        if (held == null) {
+            held = new ArrayList<>(Math.min(bufferCapacity, 16));
+        }
+        held.add(statement);
+    }
+
+    /**
+     * Counts a statement that was never offered because the buffer was already full.
+     */
+    public void drop() {
+        dropped++;
+    }
+
+    int heldCount() {
+        return held == null ? 0 : held.size();
+    }
+
+    /**
+     * Writes the held back statements, oldest first, and returns how many were dropped.
+     */
+    public int flush(Consumer<String> write) {
+        if (held != null) {
+            held.forEach(write);
+            held = null;
+        }
+        return dropped;
+    }
+}
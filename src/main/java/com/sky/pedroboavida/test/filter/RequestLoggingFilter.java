@@ -0,0 +1,71 @@
+package com.sky.pedroboavida.test.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every log line of a request with its id, in the {@code requestId} MDC entry and the
+ * {@code X-Request-Id} response header, reusing the caller's id when it sends a well-formed one.
+ * Also decides which requests get verbose logging, see {@link RequestLogSampling}: a
+ * {@code sampleRate} fraction of them, and, when {@code slowThresholdNanos} is positive, those
+ * that take at least that long or end in a server error, whose held back statements are written
+ * at the end, at INFO.
+ */
+@Slf4j
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int bufferCapacity;
+
+    public RequestLoggingFilter(double sampleRate, long slowThresholdNanos, int bufferCapacity) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdNanos;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = HEX.toHexDigits(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(MDC_KEY, requestId);
+        response.setHeader(HEADER, requestId);
+
+        boolean sampled = sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        RequestLogSampling sampling = RequestLogSampling.start(sampled, slowThresholdNanos > 0 ? bufferCapacity : 0);
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestLogSampling.clear();
+            if (sampling.buffering()
+                    && (System.nanoTime() - start >= slowThresholdNanos || response.getStatus() >= 500)) {
+                int dropped = sampling.flush(statement -> log.info("Held back SQL: {}", statement));
+                if (dropped > 0) {
+                    log.warn("{} SQL statements of {} {} were dropped", dropped, request.getMethod(),
+                            request.getRequestURI());
+                }
+            }
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
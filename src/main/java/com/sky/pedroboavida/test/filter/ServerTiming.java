@@ -0,0 +1,166 @@
+package com.sky.pedroboavida.test.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Phase durations of the request being processed by the current thread, collected for the
+ * {@code Server-Timing} header and the slow request recorder, see {@link ServerTimingFilter}.
+ * Authentication, SQL statements, service calls and serialization add to it where they happen;
+ * when the request is not timed there is no current instance and the calls cost a thread-local
+ * lookup.
+ *
+ * <p>Phases do not overlap: service time excludes the statements run inside service calls, which
+ * are reported under {@code db}.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    // Statements beyond this are counted and timed but their SQL is not kept
+    static final int MAX_STATEMENTS = 50;
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final long startNanos;
+    private String user;
+    private long authenticationNanos;
+    private long dbNanos;
+    private int statementCount;
+    private final List<Statement> statements = new ArrayList<>();
+    private long serviceNanos;
+    private int serviceDepth;
+    private long serviceStartNanos;
+    private long serviceStartDbNanos;
+    private long serializationStartNanos = -1;
+
+    ServerTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    public static ServerTiming start() {
+        ServerTiming timing = new ServerTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The timing of the current request, or {@code null} when it is not timed.
+     */
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    public void addAuthentication(long nanos) {
+        authenticationNanos += nanos;
+    }
+
+    public void authenticated(String user) {
+        this.user = user;
+    }
+
+    public void addStatement(String sql, long nanos) {
+        dbNanos += nanos;
+        if (statementCount++ < MAX_STATEMENTS) {
+            statements.add(new Statement(sql, nanos));
+        }
+    }
+
+    /**
+     * Marks entry into a service method; calls nested in one already being timed are part of it.
+     */
+    public void enterService() {
+        if (serviceDepth++ == 0) {
+            serviceStartNanos = System.nanoTime();
+            serviceStartDbNanos = dbNanos;
+        }
+    }
+
+    public void exitService() {
+        if (--serviceDepth == 0) {
+            serviceNanos += System.nanoTime() - serviceStartNanos - (dbNanos - serviceStartDbNanos);
+        }
+    }
+
+    /**
+     * Marks the start of response serialization; a later mark, such as an error response written
+     * after a failed one, replaces it.
+     */
+    public void startSerialization() {
+        serializationStartNanos = System.nanoTime();
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    /**
+     * The authenticated user's name, or {@code null} when the request did not authenticate.
+     */
+    public String user() {
+        return user;
+    }
+
+    public int statementCount() {
+        return statementCount;
+    }
+
+    /**
+     * The first {@value #MAX_STATEMENTS} statements executed, in order.
+     */
+    public List<Statement> statements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * Milliseconds spent in {@code auth}, {@code db}, {@code service} and, when a body was
+     * serialized, {@code serialization}, up to {@code endNanos}.
+     */
+    public Map<String, Double> phases(long endNanos) {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        phases.put("auth", millis(authenticationNanos));
+        phases.put("db", millis(dbNanos));
+        phases.put("service", millis(serviceNanos));
+        if (serializationStartNanos >= 0) {
+            phases.put("serialization", millis(endNanos - serializationStartNanos));
+        }
+        return phases;
+    }
+
+    /**
+     * The header value at {@code endNanos}: the {@link #phases(long) phases}, with the statement
+     * count as the description of {@code db}, followed by {@code total}.
+     */
+    public String header(long endNanos) {
+        StringBuilder header = new StringBuilder();
+        phases(endNanos).forEach((name, millis) -> {
+            header.append(name);
+            if (name.equals("db")) {
+                header.append(";desc=\"").append(statementCount)
+                        .append(statementCount == 1 ? " statement" : " statements").append('"');
+            }
+            header.append(";dur=").append(format(millis)).append(", ");
+        });
+        return header.append("total;dur=").append(format(millis(endNanos - startNanos))).toString();
+    }
+
+    public static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.3f", millis);
+    }
+
+    public record Statement(String sql, long nanos) {
+    }
+}
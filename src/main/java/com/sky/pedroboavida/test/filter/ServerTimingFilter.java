@@ -0,0 +1,126 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.sky.pedroboavida.test.config.SlowRequestRecorder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times API requests with {@link ServerTiming}. A sample of responses gets a {@code Server-Timing}
+ * header breaking the request down into phases; its body is buffered so the header can still be
+ * set once serialization has finished. When a {@link SlowRequestRecorder} is given, every request
+ * is timed and the slow ones are handed to it, unbuffered unless also sampled.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final double sampleRate;
+    private final SlowRequestRecorder slowRequests;
+
+    public ServerTimingFilter(double sampleRate, SlowRequestRecorder slowRequests) {
+        this.sampleRate = sampleRate;
+        this.slowRequests = slowRequests;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().substring(request.getContextPath().length()).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean sampled = sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        if (!sampled && slowRequests == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = ServerTiming.start();
+        if (!sampled) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ServerTiming.clear();
+                recordIfSlow(request, response, timing);
+            }
+            return;
+        }
+
+        TimedResponse timedResponse = new TimedResponse(response, timing);
+        try {
+            chain.doFilter(request, timedResponse);
+        } finally {
+            ServerTiming.clear();
+            timedResponse.setTimingHeader();
+            recordIfSlow(request, timedResponse, timing);
+            timedResponse.copyBodyToResponse();
+        }
+    }
+
+    private void recordIfSlow(HttpServletRequest request, HttpServletResponse response, ServerTiming timing) {
+        if (slowRequests == null) {
+            return;
+        }
+        long endNanos = System.nanoTime();
+        long durationNanos = endNanos - timing.startNanos();
+        if (!slowRequests.isSlow(durationNanos)) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        slowRequests.record(durationNanos, new SlowRequestRecorder.SlowRequest(
+                Instant.now(), request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI(),
+                timing.user(), response.getStatus(), ServerTiming.millis(durationNanos), timing.phases(endNanos),
+                timing.statementCount(), timing.statements().stream()
+                        .map(statement -> new SlowRequestRecorder.Statement(statement.sql(),
+                                ServerTiming.millis(statement.nanos())))
+                        .toList()));
+    }
+
+    /**
+     * Sets the header before the response is committed, whether by the end of the filter or by an
+     * error sent further down the chain, such as the 401 from failed Basic authentication.
+     */
+    private static final class TimedResponse extends ContentCachingResponseWrapper {
+
+        private final ServerTiming timing;
+        private boolean headerSet;
+
+        TimedResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            setTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            setTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            setTimingHeader();
+            super.sendRedirect(location);
+        }
+
+        void setTimingHeader() {
+            if (!headerSet && !isCommitted()) {
+                setHeader(ServerTiming.HEADER, timing.header(System.nanoTime()));
+                headerSet = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sky.pedroboavida.test.repository;
+
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+
+import java.util.List;
+
+/**
+ * Set-based statements over a user's external projects: lookups by id list and the statements
+ * used to synchronize the projects with a desired state. Each method is a single SQL statement
+ * regardless of the number of projects involved.
+ */
+public interface ExternalProjectRepositoryCustom {
+
+    List<ExternalProjectDTO> findByUserIdAndIds(Long userId, List<String> projectIds);
+
+    List<String> findIdsOwnedByOtherUsers(Long userId, List<String> projectIds);
+
+    int deleteByUserIdAndIdNotIn(Long userId, List<String> projectIds);
+
+    int updateChangedNames(Long userId, List<String> projectIds, List<String> names);
+
+    /**
+     * Inserts the projects the user does not own yet. An id owned by another user is not skipped:
+     * it fails the statement with a {@link org.springframework.dao.DataIntegrityViolationException},
+     * so the returned count is always the number of projects the user was missing.
+     */
+    int insertMissing(Long userId, List<String> projectIds, List<String> names);
+}
@@ -0,0 +1,115 @@
+package com.sky.pedroboavida.test.repository;
+
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Plain JDBC implementation of {@link ExternalProjectRepositoryCustom} that binds the project
+ * lists as Postgres arrays, so each statement is parsed and planned once whatever its size.
+ * Lookups map rows straight to {@link ExternalProjectDTO} without creating entities.
+ */
+@RequiredArgsConstructor
+public class ExternalProjectRepositoryCustomImpl implements ExternalProjectRepositoryCustom {
+
+    private static final String FIND_BY_USER_AND_IDS_SQL =
+            "SELECT id, name, user_id FROM tb_user_external_project WHERE user_id = ? AND id = ANY (?)";
+
+    private static final String FIND_OWNED_BY_OTHERS_SQL =
+            "SELECT id FROM tb_user_external_project WHERE id = ANY (?) AND user_id <> ?";
+
+    private static final String DELETE_NOT_IN_SQL =
+            "DELETE FROM tb_user_external_project WHERE user_id = ? AND NOT (id = ANY (?))";
+
+    private static final String UPDATE_CHANGED_SQL =
+            "UPDATE tb_user_external_project p SET name = d.name "
+            + "FROM unnest(?::varchar[], ?::varchar[]) AS d(id, name) "
+            + "WHERE p.user_id = ? AND p.id = d.id AND p.name IS DISTINCT FROM d.name";
+
+    private static final String INSERT_MISSING_SQL =
+            "INSERT INTO tb_user_external_project (id, user_id, name) "
+            + "SELECT d.id, ?, d.name FROM unnest(?::varchar[], ?::varchar[]) AS d(id, name) "
+            + "WHERE NOT EXISTS (SELECT 1 FROM tb_user_external_project p WHERE p.id = d.id AND p.user_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ExternalProjectDTO> findByUserIdAndIds(Long userId, List<String> projectIds) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(FIND_BY_USER_AND_IDS_SQL);
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("varchar", projectIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> {
+            ExternalProjectDTO dto = new ExternalProjectDTO();
+            dto.setId(rs.getString("id"));
+            dto.setName(rs.getString("name"));
+            dto.setUserId(rs.getLong("user_id"));
+            return dto;
+        });
+    }
+
+    @Override
+    public List<String> findIdsOwnedByOtherUsers(Long userId, List<String> projectIds) {
+        entityManager.flush();
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(FIND_OWNED_BY_OTHERS_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", projectIds.toArray()));
+            ps.setLong(2, userId);
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+    }
+
+    @Override
+    public int deleteByUserIdAndIdNotIn(Long userId, List<String> projectIds) {
+        return executeBulk(() -> jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_NOT_IN_SQL);
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("varchar", projectIds.toArray()));
+            return ps;
+        }));
+    }
+
+    @Override
+    public int updateChangedNames(Long userId, List<String> projectIds, List<String> names) {
+        return executeBulk(() -> jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPDATE_CHANGED_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", projectIds.toArray()));
+            ps.setArray(2, con.createArrayOf("varchar", names.toArray()));
+            ps.setLong(3, userId);
+            return ps;
+        }));
+    }
+
+    @Override
+    public int insertMissing(Long userId, List<String> projectIds, List<String> names) {
+        return executeBulk(() -> jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_MISSING_SQL);
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("varchar", projectIds.toArray()));
+            ps.setArray(3, con.createArrayOf("varchar", names.toArray()));
+            ps.setLong(4, userId);
+            return ps;
+        }));
+    }
+
+    /**
+     * Flushes pending entity changes before, and detaches the now stale entities after, a statement
+     * that bypasses the persistence context - the same contract as a clearing {@code @Modifying} query.
+     */
+    private int executeBulk(IntSupplier statement) {
+        entityManager.flush();
+        int rows = statement.getAsInt();
+        entityManager.clear();
+        return rows;
+    }
+}
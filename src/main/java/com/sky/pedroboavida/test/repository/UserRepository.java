@@ -1,14 +1,62 @@
 package com.sky.pedroboavida.test.repository;
 
 import com.sky.pedroboavida.test.entity.User;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
-@Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+/**
+ * Only the operations the application uses are declared, so the interface can also be implemented
+ * without Spring Data, see {@link com.sky.pedroboavida.test.repository.jdbc.JdbcUserRepository}.
+ * Spring Data only makes the methods backed by {@code SimpleJpaRepository} transactional, so the
+ * declared reads are marked read-only here: that routes them to the read bulkhead and gives them
+ * the request's statement timeout when they run outside a service transaction.
+ */
+@org.springframework.stereotype.Repository
+public interface UserRepository extends Repository<User, Long>, UserRepositoryCustom {
+    Optional<User> findById(Long id);
+
+    boolean existsById(Long id);
+
+    User save(User user);
+
+    void delete(User user);
+
+    void deleteById(Long id);
+
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
+
+    @Transactional(readOnly = true)
+    Optional<UserSummary> findSummaryById(Long id);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.externalProjects WHERE u.id = :id")
+    Optional<User> findWithExternalProjectsById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
     boolean existsByEmail(String email);
-}
 
+    @Query(value = "SELECT id FROM tb_user WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    /**
+     * Counts one more project for the user unless it already has {@code max}, as a single
+     * conditional update. Returns the number of rows updated, 0 when the quota is used up.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.projectCount = u.projectCount + 1 WHERE u.id = :id AND u.projectCount < :max")
+    int reserveProjectSlot(@Param("id") Long id, @Param("max") int max);
+
+    @Modifying
+    @Query("UPDATE User u SET u.projectCount = u.projectCount - 1 WHERE u.id = :id AND u.projectCount > 0")
+    int releaseProjectSlot(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.projectCount = :count WHERE u.id = :id")
+    int updateProjectCount(@Param("id") Long id, @Param("count") int count);
+}
@@ -0,0 +1,15 @@
+package com.sky.pedroboavida.test.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Loads the summaries of the given users with one statement; the id list is bound as a
+     * single array parameter. Rows come back in no particular order.
+     */
+    @Transactional(readOnly = true)
+    List<UserSummary> findSummariesByIds(List<Long> ids);
+}
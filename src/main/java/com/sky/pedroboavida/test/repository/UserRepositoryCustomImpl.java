@@ -0,0 +1,28 @@
+package com.sky.pedroboavida.test.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String FIND_SUMMARIES_SQL =
+            "SELECT id, email, name, project_count FROM tb_user WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummary> findSummariesByIds(List<Long> ids) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(FIND_SUMMARIES_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new UserSummary(rs.getLong("id"), rs.getString("email"), rs.getString("name"),
+                rs.getInt("project_count")));
+    }
+}
@@ -0,0 +1,8 @@
+package com.sky.pedroboavida.test.repository;
+
+/**
+ * Scalar projection of {@link com.sky.pedroboavida.test.entity.User} for reads that do not
+ * need the external projects or the password hash.
+ */
+public record UserSummary(Long id, String email, String name, int projectCount) {
+}
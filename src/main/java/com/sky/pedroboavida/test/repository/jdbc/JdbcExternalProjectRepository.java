@@ -0,0 +1,105 @@
+package com.sky.pedroboavida.test.repository.jdbc;
+
+import com.sky.pedroboavida.test.entity.ExternalProject;
+import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.repository.ExternalProjectRepository;
+import com.sky.pedroboavida.test.repository.ExternalProjectRepositoryCustomImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link ExternalProjectRepository} on plain JDBC, active with {@code app.persistence.mode=jdbc}.
+ * Projects reference their user by id only, like an uninitialized JPA proxy would.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.persistence.mode", havingValue = "jdbc")
+@Transactional(readOnly = true)
+public class JdbcExternalProjectRepository extends ExternalProjectRepositoryCustomImpl
+        implements ExternalProjectRepository {
+
+    private static final String SELECT_PROJECT = "SELECT id, name, user_id FROM tb_user_external_project ";
+
+    private final JdbcClient jdbcClient;
+
+    public JdbcExternalProjectRepository(JdbcTemplate jdbcTemplate, JdbcClient jdbcClient) {
+        super(jdbcTemplate);
+        this.jdbcClient = jdbcClient;
+    }
+
+    /**
+     * Inserts or overwrites the project by id, matching the merge semantics of the JPA
+     * repository for entities with assigned ids.
+     */
+    @Override
+    @Transactional
+    public ExternalProject save(ExternalProject project) {
+        jdbcClient.sql("INSERT INTO tb_user_external_project (id, user_id, name) VALUES (:id, :userId, :name) "
+                        + "ON CONFLICT (id) DO UPDATE SET user_id = EXCLUDED.user_id, name = EXCLUDED.name")
+                .param("id", project.getId())
+                .param("userId", project.getUser().getId())
+                .param("name", project.getName())
+                .update();
+        return project;
+    }
+
+    @Override
+    @Transactional
+    public void delete(ExternalProject project) {
+        jdbcClient.sql("DELETE FROM tb_user_external_project WHERE id = :id")
+                .param("id", project.getId())
+                .update();
+    }
+
+    @Override
+    public List<ExternalProject> findByUserId(Long userId) {
+        return jdbcClient.sql(SELECT_PROJECT + "WHERE user_id = :userId")
+                .param("userId", userId)
+                .query(JdbcExternalProjectRepository::mapProject)
+                .list();
+    }
+
+    @Override
+    public Optional<ExternalProject> findByIdAndUserId(String projectId, Long userId) {
+        return jdbcClient.sql(SELECT_PROJECT + "WHERE id = :id AND user_id = :userId")
+                .param("id", projectId)
+                .param("userId", userId)
+                .query(JdbcExternalProjectRepository::mapProject)
+                .optional();
+    }
+
+    @Override
+    public boolean existsById(String projectId) {
+        return jdbcClient.sql("SELECT EXISTS (SELECT 1 FROM tb_user_external_project WHERE id = :id)")
+                .param("id", projectId)
+                .query(Boolean.class)
+                .single();
+    }
+
+    @Override
+    public boolean existsByIdAndUserId(String projectId, Long userId) {
+        return jdbcClient.sql("SELECT EXISTS (SELECT 1 FROM tb_user_external_project WHERE id = :id AND user_id = :userId)")
+                .param("id", projectId)
+                .param("userId", userId)
+                .query(Boolean.class)
+                .single();
+    }
+
+    private static ExternalProject mapProject(ResultSet rs, int rowNum) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong("user_id"));
+
+        ExternalProject project = new ExternalProject();
+        project.setId(rs.getString("id"));
+        project.setName(rs.getString("name"));
+        project.setUser(user);
+        return project;
+    }
+}
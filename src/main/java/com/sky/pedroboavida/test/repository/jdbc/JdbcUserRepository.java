@@ -0,0 +1,184 @@
+package com.sky.pedroboavida.test.repository.jdbc;
+
+import com.sky.pedroboavida.test.entity.ExternalProject;
+import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.repository.UserRepository;
+import com.sky.pedroboavida.test.repository.UserRepositoryCustomImpl;
+import com.sky.pedroboavida.test.repository.UserSummary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * {@link UserRepository} on plain JDBC, active with {@code app.persistence.mode=jdbc}. Rows are
+ * mapped straight to detached entities: no persistence context, proxies or snapshots. Transaction
+ * defaults mirror Spring Data's, read-only unless the method writes.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.persistence.mode", havingValue = "jdbc")
+@Transactional(readOnly = true)
+public class JdbcUserRepository extends UserRepositoryCustomImpl implements UserRepository {
+
+    private static final String SELECT_USER = "SELECT id, email, password, name, project_count FROM tb_user ";
+
+    private final JdbcClient jdbcClient;
+
+    public JdbcUserRepository(JdbcTemplate jdbcTemplate, JdbcClient jdbcClient) {
+        super(jdbcTemplate);
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return jdbcClient.sql(SELECT_USER + "WHERE id = :id")
+                .param("id", id)
+                .query(JdbcUserRepository::mapUser)
+                .optional();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return jdbcClient.sql("SELECT EXISTS (SELECT 1 FROM tb_user WHERE id = :id)")
+                .param("id", id)
+                .query(Boolean.class)
+                .single();
+    }
+
+    @Override
+    @Transactional
+    public User save(User user) {
+        if (user.getId() == null) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcClient.sql("INSERT INTO tb_user (email, password, name) VALUES (:email, :password, :name)")
+                    .param("email", user.getEmail())
+                    .param("password", user.getPassword())
+                    .param("name", user.getName())
+                    .update(keyHolder, "id");
+            user.setId(keyHolder.getKeyAs(Long.class));
+        } else {
+            jdbcClient.sql("UPDATE tb_user SET email = :email, password = :password, name = :name WHERE id = :id")
+                    .param("email", user.getEmail())
+                    .param("password", user.getPassword())
+                    .param("name", user.getName())
+                    .param("id", user.getId())
+                    .update();
+        }
+        return user;
+    }
+
+    @Override
+    @Transactional
+    public void delete(User user) {
+        deleteById(user.getId());
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        // The JPA mapping cascades the delete to the user's projects; do the same explicitly.
+        jdbcClient.sql("DELETE FROM tb_user_external_project WHERE user_id = :id").param("id", id).update();
+        jdbcClient.sql("DELETE FROM tb_user WHERE id = :id").param("id", id).update();
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return jdbcClient.sql(SELECT_USER + "WHERE email = :email")
+                .param("email", email)
+                .query(JdbcUserRepository::mapUser)
+                .optional();
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryById(Long id) {
+        return jdbcClient.sql("SELECT id, email, name, project_count FROM tb_user WHERE id = :id")
+                .param("id", id)
+                .query((rs, rowNum) -> new UserSummary(rs.getLong("id"), rs.getString("email"), rs.getString("name"),
+                        rs.getInt("project_count")))
+                .optional();
+    }
+
+    @Override
+    public Optional<User> findWithExternalProjectsById(Long id) {
+        return jdbcClient.sql("SELECT u.id, u.email, u.password, u.name, u.project_count, p.id AS project_id, p.name AS project_name "
+                        + "FROM tb_user u LEFT JOIN tb_user_external_project p ON p.user_id = u.id WHERE u.id = :id")
+                .param("id", id)
+                .query(rs -> {
+                    User user = null;
+                    while (rs.next()) {
+                        if (user == null) {
+                            user = mapUser(rs, 0);
+                        }
+                        String projectId = rs.getString("project_id");
+                        if (projectId != null) {
+                            ExternalProject project = new ExternalProject();
+                            project.setId(projectId);
+                            project.setName(rs.getString("project_name"));
+                            project.setUser(user);
+                            user.getExternalProjects().add(project);
+                        }
+                    }
+                    return Optional.ofNullable(user);
+                });
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return jdbcClient.sql("SELECT EXISTS (SELECT 1 FROM tb_user WHERE email = :email)")
+                .param("email", email)
+                .query(Boolean.class)
+                .single();
+    }
+
+    @Override
+    @Transactional
+    public Optional<Long> lockById(Long id) {
+        return jdbcClient.sql("SELECT id FROM tb_user WHERE id = :id FOR UPDATE")
+                .param("id", id)
+                .query(Long.class)
+                .optional();
+    }
+
+    @Override
+    @Transactional
+    public int reserveProjectSlot(Long id, int max) {
+        return jdbcClient.sql("UPDATE tb_user SET project_count = project_count + 1 WHERE id = :id AND project_count < :max")
+                .param("id", id)
+                .param("max", max)
+                .update();
+    }
+
+    @Override
+    @Transactional
+    public int releaseProjectSlot(Long id) {
+        return jdbcClient.sql("UPDATE tb_user SET project_count = project_count - 1 WHERE id = :id AND project_count > 0")
+                .param("id", id)
+                .update();
+    }
+
+    @Override
+    @Transactional
+    public int updateProjectCount(Long id, int count) {
+        return jdbcClient.sql("UPDATE tb_user SET project_count = :count WHERE id = :id")
+                .param("id", id)
+                .param("count", count)
+                .update();
+    }
+
+    static User mapUser(ResultSet rs, int rowNum) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setEmail(rs.getString("email"));
+        user.setPassword(rs.getString("password"));
+        user.setName(rs.getString("name"));
+        user.setProjectCount(rs.getInt("project_count"));
+        return user;
+    }
+}
@@ -0,0 +1,152 @@
+package com.sky.pedroboavida.test.repository.memory;
+
+import com.sky.pedroboavida.test.entity.ExternalProject;
+import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.repository.ExternalProjectRepository;
+import com.sky.pedroboavida.test.repository.memory.MemoryStore.ProjectRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link ExternalProjectRepository} backed by the embedded {@link MemoryStore}, active with
+ * {@code app.persistence.mode=memory}. The synchronization statements each run as one change to
+ * the store, with the same results as their SQL counterparts.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.persistence.mode", havingValue = "memory")
+@RequiredArgsConstructor
+public class MemoryExternalProjectRepository implements ExternalProjectRepository {
+
+    private final MemoryStore store;
+
+    @Override
+    public ExternalProject save(ExternalProject project) {
+        store.putProject(new ProjectRow(project.getId(), project.getUser().getId(), project.getName()));
+        return project;
+    }
+
+    @Override
+    public void delete(ExternalProject project) {
+        store.deleteProject(project.getId());
+    }
+
+    @Override
+    public List<ExternalProject> findByUserId(Long userId) {
+        return store.findProjectsByUser(userId).stream()
+                .map(row -> toEntity(row, userReference(row.userId())))
+                .toList();
+    }
+
+    @Override
+    public Optional<ExternalProject> findByIdAndUserId(String projectId, Long userId) {
+        return store.findProject(projectId)
+                .filter(row -> row.userId() == userId)
+                .map(row -> toEntity(row, userReference(row.userId())));
+    }
+
+    @Override
+    public boolean existsById(String projectId) {
+        return store.findProject(projectId).isPresent();
+    }
+
+    @Override
+    public boolean existsByIdAndUserId(String projectId, Long userId) {
+        return store.findProject(projectId).filter(row -> row.userId() == userId).isPresent();
+    }
+
+    @Override
+    public List<ExternalProjectDTO> findByUserIdAndIds(Long userId, List<String> projectIds) {
+        return projectIds.stream()
+                .map(store::findProject)
+                .flatMap(Optional::stream)
+                .filter(row -> row.userId() == userId)
+                .map(row -> {
+                    ExternalProjectDTO dto = new ExternalProjectDTO();
+                    dto.setId(row.id());
+                    dto.setName(row.name());
+                    dto.setUserId(row.userId());
+                    return dto;
+                })
+                .toList();
+    }
+
+    @Override
+    public List<String> findIdsOwnedByOtherUsers(Long userId, List<String> projectIds) {
+        return projectIds.stream()
+                .map(store::findProject)
+                .flatMap(Optional::stream)
+                .filter(row -> row.userId() != userId)
+                .map(ProjectRow::id)
+                .toList();
+    }
+
+    @Override
+    public int deleteByUserIdAndIdNotIn(Long userId, List<String> projectIds) {
+        Set<String> kept = new HashSet<>(projectIds);
+        return store.write(() -> {
+            int deleted = 0;
+            for (ProjectRow row : store.findProjectsByUser(userId)) {
+                if (!kept.contains(row.id())) {
+                    store.deleteProject(row.id());
+                    deleted++;
+                }
+            }
+            return deleted;
+        });
+    }
+
+    @Override
+    public int updateChangedNames(Long userId, List<String> projectIds, List<String> names) {
+        return store.write(() -> {
+            int updated = 0;
+            for (int i = 0; i < projectIds.size(); i++) {
+                ProjectRow row = store.findProject(projectIds.get(i)).orElse(null);
+                if (row != null && row.userId() == userId && !Objects.equals(row.name(), names.get(i))) {
+                    store.putProject(new ProjectRow(row.id(), userId, names.get(i)));
+                    updated++;
+                }
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public int insertMissing(Long userId, List<String> projectIds, List<String> names) {
+        return store.write(() -> {
+            int inserted = 0;
+            for (int i = 0; i < projectIds.size(); i++) {
+                Optional<ProjectRow> existing = store.findProject(projectIds.get(i));
+                if (existing.isEmpty()) {
+                    store.putProject(new ProjectRow(projectIds.get(i), userId, names.get(i)));
+                    inserted++;
+                } else if (existing.get().userId() != userId) {
+                    throw new DuplicateKeyException("External project " + projectIds.get(i) + " already exists");
+                }
+            }
+            return inserted;
+        });
+    }
+
+    static ExternalProject toEntity(ProjectRow row, User user) {
+        ExternalProject project = new ExternalProject();
+        project.setId(row.id());
+        project.setName(row.name());
+        project.setUser(user);
+        return project;
+    }
+
+    private static User userReference(long userId) {
+        User user = new User();
+        user.setId(userId);
+        return user;
+    }
+}
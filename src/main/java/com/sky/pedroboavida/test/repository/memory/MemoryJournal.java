@@ -0,0 +1,228 @@
+package com.sky.pedroboavida.test.repository.memory;
+
+import com.sky.pedroboavida.test.repository.memory.MemoryStore.Mutation;
+import com.sky.pedroboavida.test.repository.memory.MemoryStore.ProjectRow;
+import com.sky.pedroboavida.test.repository.memory.MemoryStore.UserRow;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Persistence of the {@link MemoryStore}: committed changes are appended to a memory-mapped
+ * journal file and replayed on top of the latest snapshot at startup.
+ *
+ * Each commit is one frame, its payload length and CRC32 followed by the encoded changes. The
+ * slot after a frame is zeroed before the frame's length is written, so replay stops at the end
+ * of the committed frames and drops a torn frame at the tail. Compaction writes every row to a
+ * new snapshot, moves it over the old one atomically and only then starts the journal over.
+ * Frames reach the file when the OS flushes the mapping, or on every commit with
+ * {@code syncOnCommit}.
+ */
+@Slf4j
+public class MemoryJournal implements Closeable {
+
+    private static final int SNAPSHOT_MAGIC = 0x4D454D53;
+    private static final int FRAME_HEADER = 2 * Integer.BYTES;
+
+    private static final byte PUT_USER = 1;
+    private static final byte DELETE_USER = 2;
+    private static final byte PUT_PROJECT = 3;
+    private static final byte DELETE_PROJECT = 4;
+
+    private final Path snapshotFile;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean syncOnCommit;
+
+    public MemoryJournal(Path directory, int capacity, boolean syncOnCommit) throws IOException {
+        Files.createDirectories(directory);
+        this.snapshotFile = directory.resolve("snapshot.bin");
+        this.channel = FileChannel.open(directory.resolve("journal.bin"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.min(Integer.MAX_VALUE, Math.max(capacity, channel.size()));
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.syncOnCommit = syncOnCommit;
+    }
+
+    /**
+     * Feeds the snapshot and then every intact journal frame to {@code target}, leaving the
+     * journal positioned after the last intact frame.
+     */
+    void replay(Consumer<Mutation> target) throws IOException {
+        if (Files.exists(snapshotFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a snapshot file: " + snapshotFile);
+                }
+                long rows = in.readLong();
+                for (long i = 0; i < rows; i++) {
+                    target.accept(read(in));
+                }
+            }
+        }
+
+        int frames = 0;
+        buffer.position(0);
+        while (buffer.remaining() >= FRAME_HEADER) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (checksum != checksum(payload)) {
+                log.warn("Ignoring a torn journal frame at offset {}", start);
+                buffer.position(start);
+                break;
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            int changes = in.readInt();
+            for (int i = 0; i < changes; i++) {
+                target.accept(read(in));
+            }
+            frames++;
+        }
+        log.debug("Replayed {} journal frames", frames);
+    }
+
+    /**
+     * Appends the changes of one commit as a single frame. Returns {@code false}, writing
+     * nothing, when the journal has no room left for it.
+     */
+    boolean append(List<Mutation> changes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(changes.size());
+        for (Mutation change : changes) {
+            write(out, change);
+        }
+        byte[] payload = bytes.toByteArray();
+
+        int start = buffer.position();
+        int frameSize = FRAME_HEADER + payload.length;
+        if (buffer.remaining() < frameSize + Integer.BYTES) {
+            return false;
+        }
+
+        buffer.putInt(start + frameSize, 0);
+        buffer.putInt(start + Integer.BYTES, checksum(payload));
+        buffer.put(start + FRAME_HEADER, payload);
+        buffer.putInt(start, payload.length);
+        buffer.position(start + frameSize);
+        if (syncOnCommit) {
+            buffer.force(start, frameSize + Integer.BYTES);
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        return buffer.position() == 0;
+    }
+
+    /**
+     * Replaces the snapshot with {@code rows} and empties the journal.
+     */
+    void compact(List<Mutation> rows) throws IOException {
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(out)));
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeLong(rows.size());
+            for (Mutation row : rows) {
+                write(data, row);
+            }
+            data.flush();
+            out.force(true);
+        }
+        Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        buffer.putInt(0, 0);
+        buffer.force(0, Integer.BYTES);
+        buffer.position(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void write(DataOutput out, Mutation mutation) throws IOException {
+        switch (mutation) {
+            case Mutation.PutUser(UserRow row) -> {
+                out.writeByte(PUT_USER);
+                out.writeLong(row.id());
+                out.writeUTF(row.email());
+                out.writeUTF(row.password());
+                writeNullable(out, row.name());
+            }
+            case Mutation.DeleteUser(long id) -> {
+                out.writeByte(DELETE_USER);
+                out.writeLong(id);
+            }
+            case Mutation.PutProject(ProjectRow row) -> {
+                out.writeByte(PUT_PROJECT);
+                out.writeUTF(row.id());
+                out.writeLong(row.userId());
+                out.writeUTF(row.name());
+            }
+            case Mutation.DeleteProject(String id) -> {
+                out.writeByte(DELETE_PROJECT);
+                out.writeUTF(id);
+            }
+        }
+    }
+
+    private static Mutation read(DataInput in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case PUT_USER -> new Mutation.PutUser(
+                    new UserRow(in.readLong(), in.readUTF(), in.readUTF(), readNullable(in)));
+            case DELETE_USER -> new Mutation.DeleteUser(in.readLong());
+            case PUT_PROJECT -> new Mutation.PutProject(new ProjectRow(in.readUTF(), in.readLong(), in.readUTF()));
+            case DELETE_PROJECT -> new Mutation.DeleteProject(in.readUTF());
+            default -> throw new IOException("Unknown journal entry type " + type);
+        };
+    }
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
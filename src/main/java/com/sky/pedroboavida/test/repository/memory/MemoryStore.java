@@ -0,0 +1,436 @@
+package com.sky.pedroboavida.test.repository.memory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Embedded storage for users and external projects, used with {@code app.persistence.mode=memory}.
+ *
+ * Rows live in concurrent maps keyed by id, with an email index for users and an index of each
+ * user's projects, so lookups are plain map reads that never block. Writers are serialized: a
+ * unit of work takes the store's write lock at its first change and keeps it until it completes.
+ * Its changes are kept in a change set of its own, which its thread reads through, and are only
+ * published to the shared maps once they have been appended to the {@link MemoryJournal}; a
+ * rollback just drops the change set. Other readers therefore never see uncommitted rows, although
+ * they may see a commit that is halfway through being published. The journal is compacted into a
+ * snapshot periodically and on shutdown.
+ */
+@Slf4j
+public class MemoryStore implements Closeable {
+
+    private final ConcurrentHashMap<Long, UserRow> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ProjectRow> projects = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Map<String, ProjectRow>> projectsByUser = new ConcurrentHashMap<>();
+    private final AtomicLong lastUserId = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ThreadLocal<UnitOfWork> currentUnitOfWork = new ThreadLocal<>();
+    private final MemoryJournal journal;
+    private final ScheduledExecutorService compactor;
+
+    /**
+     * Restores the store from the journal and, with a positive interval, compacts the journal in
+     * the background at that interval.
+     */
+    public MemoryStore(MemoryJournal journal, Duration compactionInterval) throws IOException {
+        this.journal = journal;
+        journal.replay(this::apply);
+        log.info("Loaded {} users and {} external projects", users.size(), projects.size());
+
+        if (compactionInterval.isPositive()) {
+            compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "memory-store-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = compactionInterval.toMillis();
+            compactor.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            compactor = null;
+        }
+    }
+
+    public Optional<UserRow> findUser(long id) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork != null && unitOfWork.users.containsKey(id)) {
+            return Optional.ofNullable(unitOfWork.users.get(id));
+        }
+        return Optional.ofNullable(users.get(id));
+    }
+
+    public Optional<UserRow> findUserByEmail(String email) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork != null) {
+            for (UserRow user : unitOfWork.users.values()) {
+                if (user != null && user.email().equals(email)) {
+                    return Optional.of(user);
+                }
+            }
+        }
+        Long id = userIdsByEmail.get(email);
+        // The indexed user may have been changed or deleted by the current unit of work
+        return id == null ? Optional.empty() : findUser(id).filter(user -> user.email().equals(email));
+    }
+
+    public Optional<ProjectRow> findProject(String id) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork != null && unitOfWork.projects.containsKey(id)) {
+            return Optional.ofNullable(unitOfWork.projects.get(id));
+        }
+        return Optional.ofNullable(projects.get(id));
+    }
+
+    public List<ProjectRow> findProjectsByUser(long userId) {
+        Map<String, ProjectRow> userProjects = projectsByUser.get(userId);
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork == null || unitOfWork.projects.isEmpty()) {
+            return userProjects == null ? List.of() : List.copyOf(userProjects.values());
+        }
+
+        Map<String, ProjectRow> merged = userProjects == null ? new LinkedHashMap<>() : new LinkedHashMap<>(userProjects);
+        unitOfWork.projects.forEach((id, project) -> {
+            merged.remove(id);
+            if (project != null && project.userId() == userId) {
+                merged.put(id, project);
+            }
+        });
+        return List.copyOf(merged.values());
+    }
+
+    public int countProjectsByUser(long userId) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork != null && !unitOfWork.projects.isEmpty()) {
+            return findProjectsByUser(userId).size();
+        }
+        Map<String, ProjectRow> userProjects = projectsByUser.get(userId);
+        return userProjects == null ? 0 : userProjects.size();
+    }
+
+    /**
+     * Allocates a user id. Like a database sequence, ids are not reused when the insert fails or
+     * is rolled back.
+     */
+    public long nextUserId() {
+        return lastUserId.incrementAndGet();
+    }
+
+    public void putUser(UserRow row) {
+        write(() -> {
+            requireColumn(row.email(), "email");
+            requireColumn(row.password(), "password");
+            Optional<UserRow> owner = findUserByEmail(row.email());
+            if (owner.isPresent() && owner.get().id() != row.id()) {
+                throw new DuplicateKeyException("Email already registered: " + row.email());
+            }
+            record(new Mutation.PutUser(row));
+            return null;
+        });
+    }
+
+    /**
+     * Deletes the user together with its external projects.
+     */
+    public void deleteUser(long id) {
+        write(() -> {
+            for (ProjectRow project : findProjectsByUser(id)) {
+                record(new Mutation.DeleteProject(project.id()));
+            }
+            if (findUser(id).isPresent()) {
+                record(new Mutation.DeleteUser(id));
+            }
+            return null;
+        });
+    }
+
+    public void putProject(ProjectRow row) {
+        write(() -> {
+            requireColumn(row.name(), "name");
+            if (findUser(row.userId()).isEmpty()) {
+                throw new DataIntegrityViolationException("User " + row.userId() + " does not exist");
+            }
+            record(new Mutation.PutProject(row));
+            return null;
+        });
+    }
+
+    public void deleteProject(String id) {
+        write(() -> {
+            if (findProject(id).isPresent()) {
+                record(new Mutation.DeleteProject(id));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Takes the write lock for the current unit of work, the equivalent of locking the user's row.
+     */
+    public boolean lockUser(long id) {
+        return write(() -> findUser(id).isPresent());
+    }
+
+    /**
+     * Runs {@code change} holding the write lock, as part of the current unit of work or, when
+     * there is none, in a unit of work of its own that is committed straight away.
+     */
+    public <T> T write(Supplier<T> change) {
+        UnitOfWork bound = currentUnitOfWork.get();
+        if (bound != null) {
+            bound.lock();
+            return change.get();
+        }
+
+        UnitOfWork unitOfWork = begin();
+        T result;
+        try {
+            unitOfWork.lock();
+            result = change.get();
+        } catch (RuntimeException | Error e) {
+            rollback(unitOfWork);
+            throw e;
+        }
+        commit(unitOfWork);
+        return result;
+    }
+
+    public UnitOfWork currentUnitOfWork() {
+        return currentUnitOfWork.get();
+    }
+
+    public UnitOfWork begin() {
+        if (currentUnitOfWork.get() != null) {
+            throw new IllegalStateException("A unit of work is already active on this thread");
+        }
+        UnitOfWork unitOfWork = new UnitOfWork();
+        currentUnitOfWork.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    public void commit(UnitOfWork unitOfWork) {
+        if (unitOfWork.completed) {
+            return;
+        }
+        try {
+            if (!unitOfWork.changes.isEmpty()) {
+                if (!journal.append(unitOfWork.changes)) {
+                    // The journal is full: take the snapshot with this unit of work's changes in it.
+                    compactLocked(unitOfWork);
+                }
+                unitOfWork.changes.forEach(this::apply);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new DataAccessResourceFailureException("Could not write the journal", e);
+        } finally {
+            complete(unitOfWork);
+        }
+    }
+
+    public void rollback(UnitOfWork unitOfWork) {
+        if (!unitOfWork.completed) {
+            complete(unitOfWork);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the whole store and starts the journal over.
+     */
+    public void compact() throws IOException {
+        writeLock.lock();
+        try {
+            if (!journal.isEmpty()) {
+                compactLocked(null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        try {
+            compact();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not compact the journal, it keeps growing until the next attempt", e);
+        }
+    }
+
+    /**
+     * Snapshots the committed rows, with the changes of {@code pending} on top when it is not null.
+     */
+    private void compactLocked(UnitOfWork pending) throws IOException {
+        Map<Long, UserRow> snapshotUsers = new LinkedHashMap<>(users);
+        Map<String, ProjectRow> snapshotProjects = new LinkedHashMap<>(projects);
+        if (pending != null) {
+            pending.users.forEach((id, user) -> putOrRemove(snapshotUsers, id, user));
+            pending.projects.forEach((id, project) -> putOrRemove(snapshotProjects, id, project));
+        }
+
+        List<Mutation> state = new ArrayList<>(snapshotUsers.size() + snapshotProjects.size());
+        snapshotUsers.values().forEach(user -> state.add(new Mutation.PutUser(user)));
+        snapshotProjects.values().forEach(project -> state.add(new Mutation.PutProject(project)));
+        journal.compact(state);
+        log.debug("Compacted the journal into a snapshot of {} rows", state.size());
+    }
+
+    private static <K, V> void putOrRemove(Map<K, V> map, K key, V value) {
+        if (value == null) {
+            map.remove(key);
+        } else {
+            map.put(key, value);
+        }
+    }
+
+    private void record(Mutation mutation) {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        switch (mutation) {
+            case Mutation.PutUser(UserRow row) -> unitOfWork.users.put(row.id(), row);
+            case Mutation.DeleteUser(long id) -> unitOfWork.users.put(id, null);
+            case Mutation.PutProject(ProjectRow row) -> unitOfWork.projects.put(row.id(), row);
+            case Mutation.DeleteProject(String id) -> unitOfWork.projects.put(id, null);
+        }
+        unitOfWork.changes.add(mutation);
+    }
+
+    private void complete(UnitOfWork unitOfWork) {
+        unitOfWork.completed = true;
+        if (unitOfWork.locked) {
+            unitOfWork.locked = false;
+            writeLock.unlock();
+        }
+        if (currentUnitOfWork.get() == unitOfWork) {
+            currentUnitOfWork.remove();
+        }
+    }
+
+    /**
+     * Applies a committed or replayed change to the shared maps and indexes without any checks.
+     */
+    private void apply(Mutation mutation) {
+        switch (mutation) {
+            case Mutation.PutUser(UserRow row) -> {
+                UserRow previous = users.put(row.id(), row);
+                if (previous != null && !previous.email().equals(row.email())) {
+                    userIdsByEmail.remove(previous.email(), previous.id());
+                }
+                userIdsByEmail.put(row.email(), row.id());
+                lastUserId.accumulateAndGet(row.id(), Math::max);
+            }
+            case Mutation.DeleteUser(long id) -> {
+                UserRow previous = users.remove(id);
+                if (previous != null) {
+                    userIdsByEmail.remove(previous.email(), id);
+                }
+            }
+            case Mutation.PutProject(ProjectRow row) -> {
+                ProjectRow previous = projects.put(row.id(), row);
+                if (previous != null && previous.userId() != row.userId()) {
+                    removeFromUser(previous);
+                }
+                projectsByUser.computeIfAbsent(row.userId(), userId -> new ConcurrentHashMap<>()).put(row.id(), row);
+            }
+            case Mutation.DeleteProject(String id) -> {
+                ProjectRow previous = projects.remove(id);
+                if (previous != null) {
+                    removeFromUser(previous);
+                }
+            }
+        }
+    }
+
+    private void removeFromUser(ProjectRow project) {
+        projectsByUser.computeIfPresent(project.userId(), (userId, userProjects) -> {
+            userProjects.remove(project.id());
+            return userProjects.isEmpty() ? null : userProjects;
+        });
+    }
+
+    private static void requireColumn(String value, String column) {
+        if (value == null) {
+            throw new DataIntegrityViolationException("Column " + column + " must not be null");
+        }
+    }
+
+    /**
+     * Changes made by one transaction. Owned by the thread that began it.
+     */
+    public final class UnitOfWork {
+
+        private final List<Mutation> changes = new ArrayList<>();
+        // Latest state of each changed row; a null value marks a deleted row
+        private final Map<Long, UserRow> users = new HashMap<>();
+        private final Map<String, ProjectRow> projects = new HashMap<>();
+        private boolean locked;
+        private boolean completed;
+        private boolean rollbackOnly;
+
+        public boolean isRollbackOnly() {
+            return rollbackOnly;
+        }
+
+        public void setRollbackOnly() {
+            rollbackOnly = true;
+        }
+
+        private void lock() {
+            if (!locked) {
+                writeLock.lock();
+                locked = true;
+            }
+        }
+    }
+
+    public record UserRow(long id, String email, String password, String name) {
+    }
+
+    public record ProjectRow(String id, long userId, String name) {
+    }
+
+    /**
+     * A single change to the store, as recorded in the journal. A snapshot is the sequence of
+     * puts that recreates every row.
+     */
+    sealed interface Mutation {
+
+        record PutUser(UserRow row) implements Mutation {
+        }
+
+        record DeleteUser(long id) implements Mutation {
+        }
+
+        record PutProject(ProjectRow row) implements Mutation {
+        }
+
+        record DeleteProject(String id) implements Mutation {
+        }
+    }
+}
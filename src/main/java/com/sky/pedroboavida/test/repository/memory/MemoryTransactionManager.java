@@ -0,0 +1,80 @@
+package com.sky.pedroboavida.test.repository.memory;
+
+import com.sky.pedroboavida.test.filter.RequestDeadline;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+
+/**
+ * Maps Spring transactions onto {@link MemoryStore} units of work, so {@code @Transactional}
+ * services and atomic batches keep their all-or-nothing semantics without a database. Like the
+ * JPA transaction manager, no transaction is started once the request's deadline has passed.
+ */
+public class MemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    private final MemoryStore store;
+
+    public MemoryTransactionManager(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        return new MemoryTransaction(store.currentUnitOfWork());
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((MemoryTransaction) transaction).unitOfWork != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline.check();
+        ((MemoryTransaction) transaction).unitOfWork = store.begin();
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        store.commit(unitOfWork(status));
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        store.rollback(unitOfWork(status));
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        unitOfWork(status).setRollbackOnly();
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        // Releases the write lock if completion failed before the unit of work was committed or rolled back
+        store.rollback(((MemoryTransaction) transaction).unitOfWork);
+    }
+
+    private static MemoryStore.UnitOfWork unitOfWork(DefaultTransactionStatus status) {
+        return ((MemoryTransaction) status.getTransaction()).unitOfWork;
+    }
+
+    private static final class MemoryTransaction implements SmartTransactionObject {
+
+        private MemoryStore.UnitOfWork unitOfWork;
+
+        private MemoryTransaction(MemoryStore.UnitOfWork unitOfWork) {
+            this.unitOfWork = unitOfWork;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return unitOfWork.isRollbackOnly();
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
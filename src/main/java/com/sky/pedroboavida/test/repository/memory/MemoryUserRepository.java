@@ -0,0 +1,126 @@
+package com.sky.pedroboavida.test.repository.memory;
+
+import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.repository.UserRepository;
+import com.sky.pedroboavida.test.repository.UserSummary;
+import com.sky.pedroboavida.test.repository.memory.MemoryStore.ProjectRow;
+import com.sky.pedroboavida.test.repository.memory.MemoryStore.UserRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link UserRepository} backed by the embedded {@link MemoryStore}, active with
+ * {@code app.persistence.mode=memory}. Every lookup returns new detached entities.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.persistence.mode", havingValue = "memory")
+@RequiredArgsConstructor
+public class MemoryUserRepository implements UserRepository {
+
+    private final MemoryStore store;
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return store.findUser(id).map(this::toEntity);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.findUser(id).isPresent();
+    }
+
+    @Override
+    public User save(User user) {
+        long id = user.getId() != null ? user.getId() : store.nextUserId();
+        store.putUser(new UserRow(id, user.getEmail(), user.getPassword(), user.getName()));
+        user.setId(id);
+        return user;
+    }
+
+    @Override
+    public void delete(User user) {
+        deleteById(user.getId());
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        store.deleteUser(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return store.findUserByEmail(email).map(this::toEntity);
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryById(Long id) {
+        return store.findUser(id).map(this::toSummary);
+    }
+
+    @Override
+    public Optional<User> findWithExternalProjectsById(Long id) {
+        return store.findUser(id).map(row -> {
+            User user = toEntity(row);
+            for (ProjectRow project : store.findProjectsByUser(id)) {
+                user.getExternalProjects().add(MemoryExternalProjectRepository.toEntity(project, user));
+            }
+            return user;
+        });
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return store.findUserByEmail(email).isPresent();
+    }
+
+    @Override
+    public Optional<Long> lockById(Long id) {
+        return store.lockUser(id) ? Optional.of(id) : Optional.empty();
+    }
+
+    @Override
+    public List<UserSummary> findSummariesByIds(List<Long> ids) {
+        return ids.stream()
+                .map(store::findUser)
+                .flatMap(Optional::stream)
+                .map(this::toSummary)
+                .toList();
+    }
+
+    /**
+     * The user's project count is the size of its project index, so the quota needs no counter:
+     * the check and the insert that follows both run under the store's write lock.
+     */
+    @Override
+    public int reserveProjectSlot(Long id, int max) {
+        return store.write(() -> store.findUser(id).isPresent() && store.countProjectsByUser(id) < max) ? 1 : 0;
+    }
+
+    @Override
+    public int releaseProjectSlot(Long id) {
+        return store.findUser(id).isPresent() ? 1 : 0;
+    }
+
+    @Override
+    public int updateProjectCount(Long id, int count) {
+        return store.findUser(id).isPresent() ? 1 : 0;
+    }
+
+    private User toEntity(UserRow row) {
+        User user = new User();
+        user.setId(row.id());
+        user.setEmail(row.email());
+        user.setPassword(row.password());
+        user.setName(row.name());
+        user.setProjectCount(store.countProjectsByUser(row.id()));
+        return user;
+    }
+
+    private UserSummary toSummary(UserRow row) {
+        return new UserSummary(row.id(), row.email(), row.name(), store.countProjectsByUser(row.id()));
+    }
+}
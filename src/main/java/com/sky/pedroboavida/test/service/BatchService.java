@@ -0,0 +1,252 @@
+package com.sky.pedroboavida.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.exception.ExternalProjectAlreadyExistsException;
+import com.sky.pedroboavida.test.exception.ExternalProjectNotFoundException;
+import com.sky.pedroboavida.test.exception.ExternalProjectQuotaExceededException;
+import com.sky.pedroboavida.test.exception.InvalidRequestException;
+import com.sky.pedroboavida.test.exception.RequestDeadlineExceededException;
+import com.sky.pedroboavida.test.exception.UserAlreadyExistsException;
+import com.sky.pedroboavida.test.exception.UserNotFoundException;
+import com.sky.pedroboavida.test.model.BatchOperation;
+import com.sky.pedroboavida.test.model.BatchOperationResult;
+import com.sky.pedroboavida.test.model.BatchRequest;
+import com.sky.pedroboavida.test.model.BatchResponse;
+import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
+import com.sky.pedroboavida.test.model.CreateUserRequest;
+import com.sky.pedroboavida.test.model.ErrorResponse;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsRequest;
+import com.sky.pedroboavida.test.model.UpdateExternalProjectRequest;
+import com.sky.pedroboavida.test.model.UpdateUserRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Executes the operations of a batch request against {@link UserService} and
+ * {@link ExternalProjectService}, reporting for each one the status code the equivalent
+ * single request would have returned.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchService {
+
+    private static final Pattern USERS_PATH = Pattern.compile("/api/users");
+    private static final Pattern USER_PATH = Pattern.compile("/api/users/(\\d{1,18})");
+    private static final Pattern PROJECTS_PATH = Pattern.compile("/api/users/(\\d{1,18})/external-projects");
+    private static final Pattern PROJECT_PATH = Pattern.compile("/api/users/(\\d{1,18})/external-projects/([^/]+)");
+
+    private final UserService userService;
+    private final ExternalProjectService externalProjectService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public BatchResponse executeBatch(BatchRequest request) {
+        if (request.getMode() == BatchRequest.ModeEnum.BEST_EFFORT) {
+            return executeBestEffort(request.getOperations());
+        }
+        return executeAtomically(request.getOperations());
+    }
+
+    private BatchResponse executeAtomically(List<BatchOperation> operations) {
+        List<BatchOperationResult> results = new ArrayList<>(operations.size());
+        Boolean committed = new TransactionTemplate(transactionManager).execute(status -> {
+            for (BatchOperation operation : operations) {
+                BatchOperationResult result = execute(operation);
+                results.add(result);
+                if (result.getStatus() >= HttpStatus.BAD_REQUEST.value()) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        while (results.size() < operations.size()) {
+            results.add(result(HttpStatus.FAILED_DEPENDENCY.value(), null));
+        }
+        return response(Boolean.TRUE.equals(committed), results);
+    }
+
+    private BatchResponse executeBestEffort(List<BatchOperation> operations) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<BatchOperationResult> results = new ArrayList<>(operations.size());
+        for (BatchOperation operation : operations) {
+            BatchOperationResult result;
+            try {
+                result = transactionTemplate.execute(status -> {
+                    BatchOperationResult operationResult = execute(operation);
+                    if (operationResult.getStatus() >= HttpStatus.BAD_REQUEST.value()) {
+                        status.setRollbackOnly();
+                    }
+                    return operationResult;
+                });
+            } catch (RuntimeException ex) {
+                result = error(ex, operation.getPath());
+            }
+            results.add(result);
+        }
+        return response(true, results);
+    }
+
+    private BatchOperationResult execute(BatchOperation operation) {
+        try {
+            return dispatch(operation);
+        } catch (RuntimeException ex) {
+            return error(ex, operation.getPath());
+        }
+    }
+
+    private BatchOperationResult dispatch(BatchOperation operation) {
+        BatchOperation.MethodEnum method = operation.getMethod();
+        String path = operation.getPath();
+
+        if (USERS_PATH.matcher(path).matches()) {
+            if (method == BatchOperation.MethodEnum.POST) {
+                return result(HttpStatus.CREATED.value(),
+                        userService.createUser(body(operation, CreateUserRequest.class)));
+            }
+        }
+
+        Matcher matcher = USER_PATH.matcher(path);
+        if (matcher.matches()) {
+            Long userId = Long.valueOf(matcher.group(1));
+            switch (method) {
+                case GET:
+                    return result(HttpStatus.OK.value(), userService.getUserById(userId));
+                case PUT:
+                    return result(HttpStatus.OK.value(),
+                            userService.updateUser(userId, body(operation, UpdateUserRequest.class)));
+                case DELETE:
+                    userService.deleteUser(userId);
+                    return result(HttpStatus.NO_CONTENT.value(), null);
+                default:
+                    break;
+            }
+        }
+
+        matcher = PROJECTS_PATH.matcher(path);
+        if (matcher.matches()) {
+            Long userId = Long.valueOf(matcher.group(1));
+            switch (method) {
+                case GET:
+                    return result(HttpStatus.OK.value(), externalProjectService.getExternalProjectsByUserId(userId));
+                case POST:
+                    return result(HttpStatus.CREATED.value(), externalProjectService.addExternalProject(
+                            userId, body(operation, CreateExternalProjectRequest.class)));
+                case PUT:
+                    return result(HttpStatus.OK.value(), externalProjectService.syncExternalProjects(
+                            userId, body(operation, SyncExternalProjectsRequest.class)));
+                default:
+                    break;
+            }
+        }
+
+        matcher = PROJECT_PATH.matcher(path);
+        if (matcher.matches()) {
+            Long userId = Long.valueOf(matcher.group(1));
+            String projectId = UriUtils.decode(matcher.group(2), StandardCharsets.UTF_8);
+            switch (method) {
+                case GET:
+                    return result(HttpStatus.OK.value(), externalProjectService.getExternalProject(projectId, userId));
+                case PUT:
+                    return result(HttpStatus.OK.value(), externalProjectService.updateExternalProject(
+                            projectId, userId, body(operation, UpdateExternalProjectRequest.class)));
+                case DELETE:
+                    externalProjectService.deleteExternalProject(projectId, userId);
+                    return result(HttpStatus.NO_CONTENT.value(), null);
+                default:
+                    break;
+            }
+        }
+
+        throw new InvalidRequestException("Unsupported batch operation: " + method + " " + path);
+    }
+
+    private <T> T body(BatchOperation operation, Class<T> type) {
+        if (operation.getBody() == null) {
+            throw new InvalidRequestException("Request body is required for " + operation.getMethod() + " " + operation.getPath());
+        }
+
+        T body;
+        try {
+            body = objectMapper.convertValue(operation.getBody(), type);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Malformed request body for " + operation.getMethod() + " " + operation.getPath());
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            List<String> details = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.toList());
+            throw new InvalidRequestException("Request validation failed", details);
+        }
+        return body;
+    }
+
+    private BatchOperationResult error(RuntimeException ex, String path) {
+        HttpStatus status;
+        String error;
+        List<String> details = null;
+        if (ex instanceof UserNotFoundException || ex instanceof ExternalProjectNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            error = "Not Found";
+        } else if (ex instanceof UserAlreadyExistsException || ex instanceof ExternalProjectAlreadyExistsException
+                || ex instanceof ExternalProjectQuotaExceededException) {
+            status = HttpStatus.CONFLICT;
+            error = "Conflict";
+        } else if (ex instanceof InvalidRequestException invalidRequest) {
+            status = HttpStatus.BAD_REQUEST;
+            error = "Bad Request";
+            details = invalidRequest.getDetails();
+        } else if (ex instanceof RequestDeadlineExceededException || ex instanceof QueryTimeoutException
+                || ex instanceof TransactionTimedOutException) {
+            status = HttpStatus.GATEWAY_TIMEOUT;
+            error = "Gateway Timeout";
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            error = "Internal Server Error";
+        }
+
+        ErrorResponse body = new ErrorResponse();
+        body.setTimestamp(LocalDateTime.now());
+        body.setStatus(status.value());
+        body.setError(error);
+        body.setMessage(ex.getMessage());
+        body.setPath(path);
+        body.setDetails(details);
+        return result(status.value(), body);
+    }
+
+    private static BatchOperationResult result(int status, Object body) {
+        BatchOperationResult result = new BatchOperationResult();
+        result.setStatus(status);
+        result.setBody(body);
+        return result;
+    }
+
+    private static BatchResponse response(boolean committed, List<BatchOperationResult> results) {
+        BatchResponse response = new BatchResponse();
+        response.setCommitted(committed);
+        response.setResults(results);
+        return response;
+    }
+}
@@ -1,20 +1,29 @@
 package com.sky.pedroboavida.test.service;
 
+import com.sky.pedroboavida.test.config.ProjectQuotaProperties;
 import com.sky.pedroboavida.test.converter.ExternalProjectToExternalProjectDTOConverter;
 import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
 import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsRequest;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsResponse;
 import com.sky.pedroboavida.test.model.UpdateExternalProjectRequest;
 import com.sky.pedroboavida.test.entity.ExternalProject;
 import com.sky.pedroboavida.test.exception.ExternalProjectAlreadyExistsException;
 import com.sky.pedroboavida.test.exception.ExternalProjectNotFoundException;
+import com.sky.pedroboavida.test.exception.ExternalProjectQuotaExceededException;
+import com.sky.pedroboavida.test.exception.InvalidRequestException;
 import com.sky.pedroboavida.test.exception.UserNotFoundException;
 import com.sky.pedroboavida.test.repository.ExternalProjectRepository;
 import com.sky.pedroboavida.test.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,14 +34,23 @@ public class ExternalProjectService {
     private final ExternalProjectRepository externalProjectRepository;
     private final UserRepository userRepository;
     private final ExternalProjectToExternalProjectDTOConverter externalProjectConverter;
+    private final ProjectQuotaProperties projectQuota;
 
     public ExternalProjectDTO addExternalProject(Long userId, CreateExternalProjectRequest request) {
         if (!userRepository.existsById(userId)) {
             throw new UserNotFoundException(userId);
         }
 
-        if (externalProjectRepository.existsByIdAndUserId(request.getId(), userId)) {
-            throw new ExternalProjectAlreadyExistsException(request.getId(), userId);
+        // Project ids are global: saving one another user owns would move it to this user, leaving
+        // the previous owner's project count too high
+        if (externalProjectRepository.existsById(request.getId())) {
+            throw new ExternalProjectAlreadyExistsException(
+                    "External project with id '" + request.getId() + "' already exists");
+        }
+
+        // Also locks the user's row, so concurrent additions cannot overshoot the quota
+        if (userRepository.reserveProjectSlot(userId, projectQuota.maxPerUser()) == 0) {
+            throw new ExternalProjectQuotaExceededException(userId, projectQuota.maxPerUser());
         }
 
         ExternalProject project = new ExternalProject();
@@ -57,6 +75,17 @@ public class ExternalProjectService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public MultiGetResult<ExternalProjectDTO, String> getExternalProjectsByIds(Long userId, List<String> projectIds) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+
+        List<String> requestedIds = MultiGetResult.distinctIds(projectIds);
+        List<ExternalProjectDTO> projects = externalProjectRepository.findByUserIdAndIds(userId, requestedIds);
+        return MultiGetResult.inRequestOrder(requestedIds, projects, ExternalProjectDTO::getId);
+    }
+
     @Transactional(readOnly = true)
     public ExternalProjectDTO getExternalProject(String projectId, Long userId) {
         ExternalProject project = externalProjectRepository.findByIdAndUserId(projectId, userId)
@@ -89,6 +118,55 @@ public class ExternalProjectService {
                 .orElseThrow(() -> new ExternalProjectNotFoundException(projectId, userId));
 
         externalProjectRepository.delete(project);
+        userRepository.releaseProjectSlot(userId);
     }
-}
 
+    /**
+     * Makes the user's external projects match the desired set with a constant number of
+     * set-based statements: one delete, one update of changed names and one insert. Afterwards
+     * the user owns exactly the desired projects, which is also its new project count.
+     */
+    public SyncExternalProjectsResponse syncExternalProjects(Long userId, SyncExternalProjectsRequest request) {
+        if (userRepository.lockById(userId).isEmpty()) {
+            throw new UserNotFoundException(userId);
+        }
+
+        Map<String, String> desired = new LinkedHashMap<>();
+        for (CreateExternalProjectRequest project : request.getProjects()) {
+            if (desired.put(project.getId(), project.getName()) != null) {
+                throw new InvalidRequestException("Duplicate external project id: " + project.getId());
+            }
+        }
+        if (desired.size() > projectQuota.maxPerUser()) {
+            throw new ExternalProjectQuotaExceededException(userId, projectQuota.maxPerUser());
+        }
+        List<String> projectIds = new ArrayList<>(desired.keySet());
+        List<String> names = new ArrayList<>(desired.values());
+
+        List<String> ownedByOthers = externalProjectRepository.findIdsOwnedByOtherUsers(userId, projectIds);
+        if (!ownedByOthers.isEmpty()) {
+            throw new ExternalProjectAlreadyExistsException(
+                    "External projects already exist for another user: " + String.join(", ", ownedByOthers));
+        }
+
+        int deleted = externalProjectRepository.deleteByUserIdAndIdNotIn(userId, projectIds);
+        int updated = externalProjectRepository.updateChangedNames(userId, projectIds, names);
+        int inserted;
+        try {
+            inserted = externalProjectRepository.insertMissing(userId, projectIds, names);
+        } catch (DataIntegrityViolationException e) {
+            // Another user added one of the ids after the ownership check. The insert only skips ids
+            // this user already owns, so the conflict fails it rather than leaving the project out
+            throw new ExternalProjectAlreadyExistsException(
+                    "An external project was added by another user during the sync");
+        }
+        userRepository.updateProjectCount(userId, projectIds.size());
+
+        SyncExternalProjectsResponse response = new SyncExternalProjectsResponse();
+        response.setInserted(inserted);
+        response.setUpdated(updated);
+        response.setDeleted(deleted);
+        response.setUnchanged(projectIds.size() - inserted - updated);
+        return response;
+    }
+}
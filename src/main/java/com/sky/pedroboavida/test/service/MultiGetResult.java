@@ -0,0 +1,51 @@
+package com.sky.pedroboavida.test.service;
+
+import com.sky.pedroboavida.test.exception.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Outcome of a lookup by a list of ids: the items found, in request order, and the requested
+ * ids that matched nothing.
+ */
+public record MultiGetResult<T, K>(List<T> items, List<K> missingIds) {
+
+    public static final int MAX_IDS = 500;
+
+    /**
+     * Removes duplicates from the requested ids, keeping their first occurrence, and rejects
+     * requests above {@link #MAX_IDS}.
+     */
+    static <K> List<K> distinctIds(List<K> ids) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.size() > MAX_IDS) {
+            throw new InvalidRequestException("At most " + MAX_IDS + " ids can be requested at once");
+        }
+        return distinct;
+    }
+
+    static <T, K> MultiGetResult<T, K> inRequestOrder(List<K> requestedIds, Collection<T> found, Function<T, K> idOf) {
+        Map<K, T> byId = new HashMap<>();
+        for (T item : found) {
+            byId.put(idOf.apply(item), item);
+        }
+
+        List<T> items = new ArrayList<>(found.size());
+        List<K> missingIds = new ArrayList<>();
+        for (K id : requestedIds) {
+            T item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MultiGetResult<>(items, missingIds);
+    }
+}
@@ -8,19 +8,30 @@ import com.sky.pedroboavida.test.entity.User;
 import com.sky.pedroboavida.test.exception.UserAlreadyExistsException;
 import com.sky.pedroboavida.test.exception.UserNotFoundException;
 import com.sky.pedroboavida.test.repository.UserRepository;
+import com.sky.pedroboavida.test.repository.UserSummary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps transactions to the database work itself: passwords are hashed before a transaction is
+ * started and DTOs are built after it has ended, so a connection is never held during BCrypt or
+ * conversion. Single-statement reads run in the read-only transaction the repository declares
+ * for them, on the read bulkhead.
+ */
 @Service
-@Transactional
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserToUserDTOConverter userToUserDTOConverter;
+    private final TransactionOperations transactionOperations;
 
     public UserDTO createUser(CreateUserRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -32,45 +43,87 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setName(request.getName());
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent registration of the same email
+            throw new UserAlreadyExistsException(request.getEmail(), "Email already registered");
+        }
         return userToUserDTOConverter.convert(savedUser);
     }
 
-    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
-        User user = userRepository.findById(id)
+        return getUserById(id, false);
+    }
+
+    /**
+     * Reads a user with a fetch plan matching the response: a scalar projection by default, or
+     * the user and its external projects in a single join when they are expanded.
+     */
+    public UserDTO getUserById(Long id, boolean expandExternalProjects) {
+        if (expandExternalProjects) {
+            User user = userRepository.findWithExternalProjectsById(id)
+                    .orElseThrow(() -> new UserNotFoundException(id));
+            return userToUserDTOConverter.convert(user);
+        }
+
+        UserSummary user = userRepository.findSummaryById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
-        return userToUserDTOConverter.convert(user);
+        return userToUserDTOConverter.convertSummary(user);
+    }
+
+    /**
+     * Looks up many users with one query instead of one request per user.
+     */
+    public MultiGetResult<UserDTO, Long> getUsersByIds(List<Long> ids) {
+        List<Long> requestedIds = MultiGetResult.distinctIds(ids);
+        List<UserDTO> users = userRepository.findSummariesByIds(requestedIds).stream()
+                .map(userToUserDTOConverter::convertSummary)
+                .collect(Collectors.toList());
+        return MultiGetResult.inRequestOrder(requestedIds, users, UserDTO::getId);
     }
 
     public UserDTO updateUser(Long id, UpdateUserRequest request) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException(id));
+        String encodedPassword = request.getPassword() != null && !request.getPassword().isEmpty()
+                ? passwordEncoder.encode(request.getPassword())
+                : null;
 
-        if (request.getEmail() != null && !request.getEmail().isEmpty()) {
-            if (!user.getEmail().equals(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
-                throw new UserAlreadyExistsException(request.getEmail(), "Email already registered");
-            }
-            user.setEmail(request.getEmail());
-        }
+        User updatedUser;
+        try {
+            updatedUser = transactionOperations.execute(status -> {
+                User user = userRepository.findById(id)
+                        .orElseThrow(() -> new UserNotFoundException(id));
 
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
-        }
+                if (request.getEmail() != null && !request.getEmail().isEmpty()) {
+                    if (!user.getEmail().equals(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
+                        throw new UserAlreadyExistsException(request.getEmail(), "Email already registered");
+                    }
+                    user.setEmail(request.getEmail());
+                }
 
-        if (request.getName() != null) {
-            user.setName(request.getName());
-        }
+                if (encodedPassword != null) {
+                    user.setPassword(encodedPassword);
+                }
+
+                if (request.getName() != null) {
+                    user.setName(request.getName());
+                }
 
-        User updatedUser = userRepository.save(user);
+                return userRepository.save(user);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new UserAlreadyExistsException(request.getEmail(), "Email already registered");
+        }
         return userToUserDTOConverter.convert(updatedUser);
     }
 
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException(id);
-        }
-        userRepository.deleteById(id);
+        transactionOperations.executeWithoutResult(status -> {
+            if (!userRepository.existsById(id)) {
+                throw new UserNotFoundException(id);
+            }
+            userRepository.deleteById(id);
+        });
     }
 }
-
@@ -0,0 +1,73 @@
+package com.sky.pedroboavida.test.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadDataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(BulkheadDataSourceConfig.class, Infrastructure.class)
+            .withPropertyValues(
+                    "app.datasource.bulkheads.enabled=true",
+                    "app.datasource.bulkheads.auth.maximum-pool-size=3",
+                    "app.datasource.bulkheads.write.connection-timeout=1500ms",
+                    "spring.datasource.url=jdbc:postgresql://localhost:5432/app",
+                    "spring.datasource.username=app",
+                    "spring.datasource.hikari.maximum-pool-size=50",
+                    "spring.datasource.hikari.max-lifetime=600000",
+                    "spring.datasource.hikari.leak-detection-threshold=30000");
+
+    @Test
+    void pools_StartFromHikariSettingsAndApplyBulkheadOverrides() {
+        contextRunner.run(context -> {
+            HikariDataSource auth = context.getBean("authDataSource", HikariDataSource.class);
+            HikariDataSource write = context.getBean("writeDataSource", HikariDataSource.class);
+
+            assertEquals("auth", auth.getPoolName());
+            assertEquals(3, auth.getMaximumPoolSize());
+            assertEquals(2_000, auth.getConnectionTimeout());
+            assertEquals(6, write.getMaximumPoolSize());
+            assertEquals(1_500, write.getConnectionTimeout());
+            assertEquals(600_000, auth.getMaxLifetime());
+            assertEquals(30_000, write.getLeakDetectionThreshold());
+            assertEquals("jdbc:postgresql://localhost:5432/app", auth.getJdbcUrl());
+            assertEquals("app", auth.getUsername());
+        });
+    }
+
+    @Test
+    void pools_AreTheOnlyHikariConfigBeans() {
+        contextRunner.run(context -> assertEquals(
+                Set.of("authDataSource", "readDataSource", "writeDataSource"),
+                context.getBeansOfType(HikariConfig.class).keySet()));
+    }
+
+    @Test
+    void pools_PreferHikariJdbcUrlOverDataSourceUrl() {
+        contextRunner.withPropertyValues("spring.datasource.hikari.jdbc-url=jdbc:postgresql://pooler:6432/app")
+                .run(context -> assertEquals("jdbc:postgresql://pooler:6432/app",
+                        context.getBean("readDataSource", HikariDataSource.class).getJdbcUrl()));
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class Infrastructure {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
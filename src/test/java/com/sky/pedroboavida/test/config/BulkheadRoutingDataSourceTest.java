@@ -0,0 +1,104 @@
+package com.sky.pedroboavida.test.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadRoutingDataSourceTest {
+
+    @Mock
+    private DataSource authDataSource;
+
+    @Mock
+    private DataSource readDataSource;
+
+    @Mock
+    private DataSource writeDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private final ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+
+    private BulkheadRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new BulkheadRoutingDataSource(readYourWrites);
+        routingDataSource.setTargetDataSources(Map.of(
+                Bulkhead.AUTH, authDataSource,
+                Bulkhead.READ, readDataSource,
+                Bulkhead.WRITE, writeDataSource));
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getConnection_ReadWriteTransaction_UsesWritePool() throws Exception {
+        when(writeDataSource.getConnection()).thenReturn(connection);
+
+        assertSame(connection, routingDataSource.getConnection());
+        verifyNoInteractions(readDataSource, authDataSource);
+    }
+
+    @Test
+    void getConnection_ReadOnlyTransaction_UsesReadPool() throws Exception {
+        when(readDataSource.getConnection()).thenReturn(connection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(connection, routingDataSource.getConnection());
+        verifyNoInteractions(writeDataSource, authDataSource);
+    }
+
+    @Test
+    void getConnection_AuthScope_UsesAuthPoolRegardlessOfTransaction() throws Exception {
+        when(authDataSource.getConnection()).thenReturn(connection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Connection result = Bulkhead.AUTH.call(() -> {
+            try {
+                return routingDataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertSame(connection, result);
+        assertEquals(Bulkhead.READ, Bulkhead.current());
+        verifyNoInteractions(readDataSource, writeDataSource);
+    }
+
+    @Test
+    void getConnection_WriteTransaction_RecordsWriter() throws Exception {
+        when(writeDataSource.getConnection()).thenReturn(connection);
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("user@example.com", "password", "ROLE_USER"));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        routingDataSource.getConnection();
+
+        assertTrue(readYourWrites.wroteRecently("user@example.com"));
+        assertFalse(readYourWrites.wroteRecently("other@example.com"));
+    }
+}
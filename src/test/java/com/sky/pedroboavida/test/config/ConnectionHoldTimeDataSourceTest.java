@@ -0,0 +1,77 @@
+package com.sky.pedroboavida.test.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionHoldTimeDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionHoldTimeDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ConnectionHoldTimeDataSource(target, "write", () -> meterRegistry);
+        when(target.getConnection()).thenReturn(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void close_RecordsHoldTimeTaggedWithRequestPattern() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Connection held = dataSource.getConnection();
+        held.close();
+        held.close();
+
+        Timer timer = meterRegistry.get("db.connection.hold").tag("pool", "write").tag("uri", "/api/users/{id}").timer();
+        assertEquals(1, timer.count());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void close_OutsideRequest_IsTaggedNone() throws Exception {
+        dataSource.getConnection().close();
+
+        assertEquals(1, meterRegistry.get("db.connection.hold").tag("uri", "none").timer().count());
+    }
+
+    @Test
+    void getConnection_DelegatesStatementsToTarget() throws Exception {
+        Connection held = dataSource.getConnection();
+        held.setReadOnly(true);
+
+        verify(connection).setReadOnly(true);
+        assertEquals(held, held);
+        assertEquals(0, meterRegistry.find("db.connection.hold").timers().size());
+    }
+}
@@ -5,13 +5,14 @@ import com.sky.pedroboavida.test.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,13 +23,14 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
     private CustomUserDetailsService customUserDetailsService;
 
     private User testUser;
 
     @BeforeEach
     void setUp() {
+        customUserDetailsService = new CustomUserDetailsService(userRepository,
+                new AdminProperties(Set.of("admin@example.com")));
         testUser = new User();
         testUser.setId(1L);
         testUser.setEmail("test@example.com");
@@ -83,6 +85,19 @@ class CustomUserDetailsServiceTest {
         assertTrue(userDetails.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_USER")));
     }
-}
 
+    @Test
+    void loadUserByUsername_AdminEmail_AlsoHasAdminRole() {
+        // Arrange
+        testUser.setEmail("admin@example.com");
+        when(userRepository.findByEmail("admin@example.com")).thenReturn(Optional.of(testUser));
+
+        // Act
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername("admin@example.com");
 
+        // Assert
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), userDetails.getAuthorities().stream()
+                .map(auth -> auth.getAuthority())
+                .collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.exception.RequestDeadlineExceededException;
+import com.sky.pedroboavida.test.filter.RequestDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineAwareJpaTransactionManagerTest {
+
+    private final DeadlineAwareJpaTransactionManager transactionManager = new DeadlineAwareJpaTransactionManager();
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void determineTimeout_WithoutDeadline_KeepsDefault() {
+        assertEquals(TransactionDefinition.TIMEOUT_DEFAULT,
+                transactionManager.determineTimeout(new DefaultTransactionDefinition()));
+    }
+
+    @Test
+    void determineTimeout_WithDeadline_UsesRemainingSecondsRoundedUp() {
+        RequestDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2500));
+
+        assertEquals(3, transactionManager.determineTimeout(new DefaultTransactionDefinition()));
+    }
+
+    @Test
+    void determineTimeout_ShorterConfiguredTimeout_Wins() {
+        RequestDeadline.set(System.nanoTime() + TimeUnit.SECONDS.toNanos(30));
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setTimeout(5);
+
+        assertEquals(5, transactionManager.determineTimeout(definition));
+    }
+
+    @Test
+    void doBegin_AfterDeadline_Throws() {
+        RequestDeadline.set(System.nanoTime() - 1);
+
+        assertThrows(RequestDeadlineExceededException.class,
+                () -> transactionManager.doBegin(new Object(), new DefaultTransactionDefinition()));
+    }
+}
@@ -0,0 +1,151 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.converter.ExternalProjectToExternalProjectDTOConverter;
+import com.sky.pedroboavida.test.entity.ExternalProject;
+import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.exception.GlobalExceptionHandler;
+import com.sky.pedroboavida.test.exception.UserNotFoundException;
+import com.sky.pedroboavida.test.repository.UserRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightRecorderAspectTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @TempDir
+    private Path directory;
+
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        recording = new Recording();
+        FlightRecorderEvents.TYPES.forEach(recording::enable);
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void repositoryCall_RecordsRepositoryMethodRowsAndRoute() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
+
+        proxy(userRepository).findById(1L);
+
+        RecordedEvent event = single("com.sky.pedroboavida.test.RepositoryCall");
+        assertEquals("UserRepository", event.getString("repository"));
+        assertEquals("findById", event.getString("method"));
+        assertEquals(1, event.getLong("rows"));
+        assertFalse(event.getBoolean("failed"));
+        assertEquals("GET /api/users/{id}", event.getString("route"));
+    }
+
+    @Test
+    void repositoryCall_Failure_RecordsFailedAndRethrows() throws IOException {
+        when(userRepository.updateProjectCount(1L, 0)).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> proxy(userRepository).updateProjectCount(1L, 0));
+
+        RecordedEvent event = single("com.sky.pedroboavida.test.RepositoryCall");
+        assertTrue(event.getBoolean("failed"));
+        assertEquals(-1, event.getLong("rows"));
+        assertNull(event.getString("route"));
+    }
+
+    @Test
+    void passwordHash_RecordsOperationAndMatch() throws IOException {
+        PasswordEncoder passwordEncoder = proxy(new BCryptPasswordEncoder(4));
+
+        assertTrue(passwordEncoder.matches("secret", passwordEncoder.encode("secret")));
+
+        List<RecordedEvent> events = events("com.sky.pedroboavida.test.PasswordHash");
+        assertEquals(2, events.size());
+        assertEquals("encode", events.get(0).getString("operation"));
+        assertFalse(events.get(0).getBoolean("matched"));
+        assertEquals("matches", events.get(1).getString("operation"));
+        assertTrue(events.get(1).getBoolean("matched"));
+    }
+
+    @Test
+    void conversion_RecordsConverterAndSourceType() throws IOException {
+        ExternalProject project = new ExternalProject();
+        project.setId("project-1");
+
+        proxy(new ExternalProjectToExternalProjectDTOConverter()).convert(project);
+
+        RecordedEvent event = single("com.sky.pedroboavida.test.Conversion");
+        assertEquals("ExternalProjectToExternalProjectDTOConverter", event.getString("converter"));
+        assertEquals("convert", event.getString("method"));
+        assertEquals(ExternalProject.class.getName(), event.getClass("sourceType").getName());
+    }
+
+    @Test
+    void exceptionHandled_RecordsExceptionAndStatus() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/99");
+
+        proxy(new GlobalExceptionHandler())
+                .handleUserNotFoundException(new UserNotFoundException("User not found with id: 99"), request);
+
+        RecordedEvent event = single("com.sky.pedroboavida.test.ExceptionHandled");
+        assertEquals(UserNotFoundException.class.getName(), event.getClass("exceptionType").getName());
+        assertEquals("User not found with id: 99", event.getString("message"));
+        assertEquals(404, event.getInt("status"));
+    }
+
+    private static <T> T proxy(T target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(!(target instanceof UserRepository));
+        proxyFactory.addAspect(new FlightRecorderAspect());
+        return proxyFactory.getProxy();
+    }
+
+    private RecordedEvent single(String eventName) throws IOException {
+        List<RecordedEvent> events = events(eventName);
+        assertEquals(1, events.size());
+        return events.get(0);
+    }
+
+    private List<RecordedEvent> events(String eventName) throws IOException {
+        recording.stop();
+        Path file = directory.resolve("recording.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.sky.pedroboavida.test.config;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEndpointTest {
+
+    private final FlightRecorderEndpoint endpoint = new FlightRecorderEndpoint(DataSize.ofMegabytes(10), 2);
+
+    @TempDir
+    private Path directory;
+
+    @AfterEach
+    void tearDown() {
+        FlightRecorder.getFlightRecorder().getRecordings().forEach(recording -> recording.close());
+    }
+
+    @Test
+    void start_ListsRunningRecordingWithSettings() {
+        FlightRecorderEndpoint.RecordingDescriptor started = endpoint.start("test", "profile", Duration.ofMinutes(5))
+                .getBody();
+
+        assertEquals("test", started.name());
+        assertEquals(RecordingState.RUNNING, started.state());
+        assertEquals(Duration.ofMinutes(5), started.duration());
+        assertEquals(DataSize.ofMegabytes(10).toBytes(), started.maxSize());
+        assertTrue(endpoint.recordings().stream().anyMatch(recording -> recording.id() == started.id()));
+    }
+
+    @Test
+    void start_UnknownSettings_ReturnsBadRequest() {
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.start(null, "missing", null).getStatus());
+    }
+
+    @Test
+    void start_DisablesEnvironmentAndSystemPropertyEvents() {
+        long id = endpoint.start(null, "profile", null).getBody().id();
+
+        Map<String, String> settings = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst().orElseThrow()
+                .getSettings();
+
+        assertEquals("false", settings.get("jdk.InitialEnvironmentVariable#enabled"));
+        assertEquals("false", settings.get("jdk.InitialSystemProperty#enabled"));
+    }
+
+    @Test
+    void start_AtMaxRecordings_ReturnsTooManyRequests() {
+        long first = endpoint.start(null, null, null).getBody().id();
+        endpoint.start(null, null, null);
+
+        assertEquals(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS, endpoint.start(null, null, null).getStatus());
+
+        endpoint.stop(first);
+        assertEquals(WebEndpointResponse.STATUS_OK, endpoint.start(null, null, null).getStatus());
+    }
+
+    @Test
+    void download_ReturnsRecordingAndDeletesDump() throws IOException {
+        long id = endpoint.start(null, null, null).getBody().id();
+        new FlightRecorderEvents.ExceptionHandled().commit();
+        assertEquals(RecordingState.STOPPED, endpoint.stop(id).getBody().state());
+
+        Resource dump = endpoint.download(id).getBody();
+        Path file = directory.resolve("download.jfr");
+        try (InputStream in = dump.getInputStream()) {
+            Files.copy(in, file);
+        }
+
+        assertFalse(dump.getFile().exists());
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .anyMatch(event -> event.getEventType().getName().equals("com.sky.pedroboavida.test.ExceptionHandled")));
+    }
+
+    @Test
+    void close_RemovesRecording() {
+        long id = endpoint.start(null, null, null).getBody().id();
+
+        assertEquals(WebEndpointResponse.STATUS_NO_CONTENT, endpoint.close(id).getStatus());
+
+        assertTrue(endpoint.recordings().stream().noneMatch(recording -> recording.id() == id));
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.stop(id).getStatus());
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.close(id).getStatus());
+    }
+}
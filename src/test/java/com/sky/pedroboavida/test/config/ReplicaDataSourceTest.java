@@ -0,0 +1,113 @@
+package com.sky.pedroboavida.test.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource firstReplica;
+
+    @Mock
+    private DataSource secondReplica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReadYourWritesTracker readYourWrites;
+    private ReplicaDataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+        replicaDataSource = new ReplicaDataSource(primary, List.of(firstReplica, secondReplica),
+                Duration.ofMinutes(1), readYourWrites);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getConnection_AlternatesBetweenReplicas() throws Exception {
+        when(firstReplica.getConnection()).thenReturn(replicaConnection);
+        when(secondReplica.getConnection()).thenReturn(replicaConnection);
+
+        for (int i = 0; i < 4; i++) {
+            assertSame(replicaConnection, replicaDataSource.getConnection());
+        }
+
+        verify(firstReplica, times(2)).getConnection();
+        verify(secondReplica, times(2)).getConnection();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_FailedReplica_IsSkippedDuringCooldown() throws Exception {
+        when(firstReplica.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(secondReplica.getConnection()).thenReturn(replicaConnection);
+
+        for (int i = 0; i < 4; i++) {
+            assertSame(replicaConnection, replicaDataSource.getConnection());
+        }
+
+        verify(firstReplica, times(1)).getConnection();
+        verify(secondReplica, times(4)).getConnection();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_AllReplicasDown_FailsOverToPrimary() throws Exception {
+        when(firstReplica.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(secondReplica.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, replicaDataSource.getConnection());
+        assertSame(primaryConnection, replicaDataSource.getConnection());
+
+        verify(firstReplica, times(1)).getConnection();
+        verify(secondReplica, times(1)).getConnection();
+    }
+
+    @Test
+    void getConnection_AfterOwnWrite_ReadsFromPrimary() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("user@example.com", "password", "ROLE_USER"));
+        readYourWrites.recordWrite("user@example.com");
+
+        assertSame(primaryConnection, replicaDataSource.getConnection());
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    void getConnection_NoReplicas_UsesPrimary() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaDataSource withoutReplicas = new ReplicaDataSource(primary, List.of(), Duration.ofMinutes(1), readYourWrites);
+
+        assertSame(primaryConnection, withoutReplicas.getConnection());
+    }
+}
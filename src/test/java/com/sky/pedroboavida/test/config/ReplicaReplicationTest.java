@@ -0,0 +1,174 @@
+package com.sky.pedroboavida.test.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the replica routing against a real primary and a streaming replica cloned from it with
+ * {@code pg_basebackup}. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaReplicationTest {
+
+    private static final Network NETWORK = Network.newNetwork();
+    private static final String IN_RECOVERY = "SELECT pg_is_in_recovery()";
+    private static final Duration REPLICATION_TIMEOUT = Duration.ofSeconds(30);
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass")
+            .withNetwork(NETWORK)
+            .withNetworkAliases("primary")
+            .withCopyToContainer(
+                    Transferable.of("echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\"\n"),
+                    "/docker-entrypoint-initdb.d/replication.sh");
+
+    @Container
+    static GenericContainer<?> replica = new GenericContainer<>("postgres:15-alpine")
+            .dependsOn(primary)
+            .withNetwork(NETWORK)
+            .withEnv("PGPASSWORD", "testpass")
+            .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+            .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+            .withCommand("sh", "-c", "pg_basebackup -h primary -U testuser -D /tmp/replica -R -X stream"
+                    + " && chmod 700 /tmp/replica && exec postgres -D /tmp/replica")
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\n", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    private static DataSource primaryDataSource;
+    private static DataSource replicaDataSource;
+    private static DataSource unreachableReplica;
+
+    @BeforeAll
+    static void setUpSchema() {
+        primaryDataSource = dataSource(primary.getJdbcUrl());
+        replicaDataSource = dataSource("jdbc:postgresql://" + replica.getHost() + ":"
+                + replica.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/testdb");
+        unreachableReplica = dataSource("jdbc:postgresql://localhost:1/testdb?connectTimeout=1");
+        new JdbcTemplate(primaryDataSource).execute("CREATE TABLE IF NOT EXISTS notes (id VARCHAR(36) PRIMARY KEY)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_IsServedByReplicaAndSeesReplicatedWrites() throws Exception {
+        Routing routing = routing(List.of(replicaDataSource));
+        String id = UUID.randomUUID().toString();
+
+        Boolean writerInRecovery = routing.writes.execute(status -> {
+            routing.jdbc.update("INSERT INTO notes (id) VALUES (?)", id);
+            return routing.jdbc.queryForObject(IN_RECOVERY, Boolean.class);
+        });
+
+        assertEquals(Boolean.FALSE, writerInRecovery);
+        awaitReplicated(routing, id);
+        assertTrue(readOnlyInRecovery(routing));
+    }
+
+    @Test
+    void readOnlyTransaction_AfterOwnWrite_StaysOnPrimary() {
+        Routing routing = routing(List.of(replicaDataSource));
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("writer@example.com", null, List.of()));
+
+        routing.writes.executeWithoutResult(status ->
+                routing.jdbc.update("INSERT INTO notes (id) VALUES (?)", UUID.randomUUID().toString()));
+
+        assertFalse(readOnlyInRecovery(routing));
+    }
+
+    @Test
+    void readOnlyTransaction_UnreachableReplica_FailsOverToHealthyReplica() {
+        Routing routing = routing(List.of(unreachableReplica, replicaDataSource));
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(readOnlyInRecovery(routing));
+        }
+    }
+
+    @Test
+    void readOnlyTransaction_NoReachableReplica_FallsBackToPrimary() {
+        Routing routing = routing(List.of(unreachableReplica));
+
+        assertFalse(readOnlyInRecovery(routing));
+    }
+
+    // Whether a read-only transaction ran on a replica; unboxed here, as assertTrue would otherwise take
+    // the execute call for a BooleanSupplier
+    private static boolean readOnlyInRecovery(Routing routing) {
+        Boolean inRecovery = routing.reads.execute(status -> routing.jdbc.queryForObject(IN_RECOVERY, Boolean.class));
+        return Boolean.TRUE.equals(inRecovery);
+    }
+
+    private static void awaitReplicated(Routing routing, String id) throws InterruptedException {
+        long deadline = System.nanoTime() + REPLICATION_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            Integer rows = routing.reads.execute(status ->
+                    routing.jdbc.queryForObject("SELECT count(*) FROM notes WHERE id = ?", Integer.class, id));
+            if (rows != null && rows == 1) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        fail("Row " + id + " was not replicated within " + REPLICATION_TIMEOUT);
+    }
+
+    private static Routing routing(List<DataSource> replicas) {
+        ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+        BulkheadRoutingDataSource routingDataSource = new BulkheadRoutingDataSource(readYourWrites);
+        routingDataSource.setTargetDataSources(Map.of(
+                Bulkhead.AUTH, primaryDataSource,
+                Bulkhead.READ, new ReplicaDataSource(primaryDataSource, replicas, Duration.ofMinutes(1), readYourWrites),
+                Bulkhead.WRITE, primaryDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new Routing(new LazyConnectionDataSourceProxy(routingDataSource));
+    }
+
+    private static DataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, "testuser", "testpass");
+    }
+
+    private static final class Routing {
+
+        private final JdbcTemplate jdbc;
+        private final TransactionTemplate writes;
+        private final TransactionTemplate reads;
+
+        private Routing(DataSource dataSource) {
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.writes = new TransactionTemplate(transactionManager);
+            this.reads = new TransactionTemplate(transactionManager);
+            this.reads.setReadOnly(true);
+        }
+    }
+}
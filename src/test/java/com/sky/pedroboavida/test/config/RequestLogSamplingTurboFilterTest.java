@@ -0,0 +1,127 @@
+package com.sky.pedroboavida.test.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.sky.pedroboavida.test.filter.RequestLogSampling;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogSamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger sqlLogger;
+    private Logger otherLogger;
+
+    @BeforeEach
+    void setUp() {
+        RequestLogSamplingTurboFilter filter = new RequestLogSamplingTurboFilter();
+        filter.addLogger("org.hibernate.SQL");
+        filter.addLogger("org.springframework.security");
+        filter.addTailLogger("org.hibernate.SQL");
+        filter.start();
+        context.addTurboFilter(filter);
+
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        sqlLogger = context.getLogger("org.hibernate.SQL");
+        otherLogger = context.getLogger("org.springframework.securityx");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestLogSampling.clear();
+        context.stop();
+    }
+
+    @Test
+    void outsideRequest_LevelApplies() {
+        sqlLogger.debug("select 1");
+        sqlLogger.info("info");
+
+        assertEquals(1, appender.list.size());
+        assertEquals("info", appender.list.get(0).getMessage());
+    }
+
+    @Test
+    void sampledRequest_WritesDebugBelowLevel() {
+        RequestLogSampling.start(true, 0);
+
+        assertTrue(sqlLogger.isDebugEnabled());
+        sqlLogger.debug("select 1");
+        context.getLogger("org.springframework.security.web.FilterChainProxy").debug("Securing GET /api/users/1");
+
+        assertEquals(2, appender.list.size());
+    }
+
+    @Test
+    void sampledRequest_NeverWritesTraceOrOtherLoggers() {
+        RequestLogSampling.start(true, 0);
+
+        sqlLogger.trace("binding parameter [1] as [VARCHAR] - [secret]");
+        otherLogger.debug("not sampled");
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void notSampledRequest_DiscardsDebug() {
+        RequestLogSampling.start(false, 0);
+
+        assertFalse(sqlLogger.isDebugEnabled());
+        sqlLogger.debug("select 1");
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void bufferingRequest_HoldsSqlBackUntilFlushed() {
+        RequestLogSampling sampling = RequestLogSampling.start(false, 10);
+
+        assertTrue(sqlLogger.isDebugEnabled());
+        sqlLogger.debug("select * from tb_user where id=?");
+        assertTrue(appender.list.isEmpty());
+
+        List<String> written = new ArrayList<>();
+        assertEquals(0, sampling.flush(written::add));
+        assertEquals(List.of("select * from tb_user where id=?"), written);
+    }
+
+    @Test
+    void bufferingRequest_DiscardsOtherSampledLoggers() {
+        RequestLogSampling sampling = RequestLogSampling.start(false, 10);
+        Logger securityLogger = context.getLogger("org.springframework.security.web.FilterChainProxy");
+
+        assertFalse(securityLogger.isDebugEnabled());
+        securityLogger.debug("Securing GET /api/users/1");
+
+        List<String> written = new ArrayList<>();
+        assertEquals(0, sampling.flush(written::add));
+        assertTrue(written.isEmpty());
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void bufferingRequest_FullBuffer_DisablesDebugAndCountsDrop() {
+        RequestLogSampling sampling = RequestLogSampling.start(false, 1);
+        sqlLogger.debug("select 1");
+
+        assertFalse(sqlLogger.isDebugEnabled());
+
+        List<String> written = new ArrayList<>();
+        assertEquals(1, sampling.flush(written::add));
+        assertEquals(List.of("select 1"), written);
+    }
+}
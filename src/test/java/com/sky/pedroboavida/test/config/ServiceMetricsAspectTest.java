@@ -0,0 +1,101 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.converter.UserToUserDTOConverter;
+import com.sky.pedroboavida.test.exception.UserAlreadyExistsException;
+import com.sky.pedroboavida.test.exception.UserNotFoundException;
+import com.sky.pedroboavida.test.model.CreateUserRequest;
+import com.sky.pedroboavida.test.model.UserDTO;
+import com.sky.pedroboavida.test.repository.UserRepository;
+import com.sky.pedroboavida.test.repository.UserSummary;
+import com.sky.pedroboavida.test.service.UserService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserToUserDTOConverter userToUserDTOConverter;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserService(userRepository, passwordEncoder,
+                userToUserDTOConverter, TransactionOperations.withoutTransaction()));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        userService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void time_Success_RecordsSuccessOutcome() {
+        UserSummary summary = new UserSummary(1L, "test@example.com", "Test User", 0);
+        when(userRepository.findSummaryById(1L)).thenReturn(Optional.of(summary));
+        when(userToUserDTOConverter.convertSummary(summary)).thenReturn(new UserDTO());
+
+        userService.getUserById(1L, false);
+
+        assertEquals(1, timer("getUserById", "success").count());
+    }
+
+    @Test
+    void time_NotFound_RecordsNotFoundOutcomeAndRethrows() {
+        when(userRepository.findSummaryById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(99L, false));
+
+        assertEquals(1, timer("getUserById", "not_found").count());
+        assertNull(meterRegistry.find(ServiceMetricsAspect.METRIC_NAME).tag("outcome", "success").timer());
+    }
+
+    @Test
+    void time_Conflict_RecordsConflictOutcome() {
+        CreateUserRequest request = new CreateUserRequest();
+        request.setEmail("taken@example.com");
+        request.setPassword("password123");
+        when(userRepository.existsByEmail("taken@example.com")).thenReturn(true);
+
+        assertThrows(UserAlreadyExistsException.class, () -> userService.createUser(request));
+
+        assertEquals(1, timer("createUser", "conflict").count());
+    }
+
+    @Test
+    void time_UnexpectedException_RecordsErrorOutcome() {
+        when(userRepository.findSummaryById(1L)).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> userService.getUserById(1L, false));
+
+        assertEquals(1, timer("getUserById", "error").count());
+    }
+
+    private Timer timer(String method, String outcome) {
+        return meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("service", "UserService")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,113 @@
+package com.sky.pedroboavida.test.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestRecorderTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private SlowRequestRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new SlowRequestRecorder(3, Duration.ofMillis(100), Duration.ofMinutes(5), now::get);
+    }
+
+    @Test
+    void record_BelowThreshold_IsIgnored() {
+        record(99);
+
+        assertTrue(recorder.slowest().isEmpty());
+    }
+
+    @Test
+    void record_KeepsSlowestFirst() {
+        record(200);
+        record(500);
+        record(300);
+
+        assertEquals(List.of(500.0, 300.0, 200.0), durations());
+    }
+
+    @Test
+    void record_WhenFull_ReplacesFastestOnlyIfSlower() {
+        record(200);
+        record(500);
+        record(300);
+
+        record(150);
+        assertEquals(List.of(500.0, 300.0, 200.0), durations());
+
+        record(400);
+        assertEquals(List.of(500.0, 400.0, 300.0), durations());
+    }
+
+    @Test
+    void record_ExpiredEntries_AreDroppedAndReplacedFirst() {
+        record(900);
+        now.addAndGet(Duration.ofMinutes(3).toNanos());
+        record(200);
+        record(300);
+        now.addAndGet(Duration.ofMinutes(3).toNanos());
+
+        assertEquals(List.of(300.0, 200.0), durations());
+
+        record(150);
+        assertEquals(List.of(300.0, 200.0, 150.0), durations());
+    }
+
+    @Test
+    void clear_ForgetsEverything() {
+        record(200);
+
+        recorder.clear();
+
+        assertTrue(recorder.slowest().isEmpty());
+    }
+
+    @Test
+    void record_Concurrently_KeepsTheSlowest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        record(100 + i * 8 + offset);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(8099.0, 8098.0, 8097.0), durations());
+    }
+
+    private void record(long millis) {
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(millis), new SlowRequestRecorder.SlowRequest(Instant.EPOCH,
+                "GET", "/api/users/{id}", "user@example.com", 200, millis, Map.of(), 0, List.of()));
+    }
+
+    private List<Double> durations() {
+        return recorder.slowest().stream().map(SlowRequestRecorder.SlowRequest::durationMs).toList();
+    }
+}
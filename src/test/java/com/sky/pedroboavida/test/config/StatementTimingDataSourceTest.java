@@ -0,0 +1,71 @@
+package com.sky.pedroboavida.test.config;
+
+import com.sky.pedroboavida.test.filter.ServerTiming;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementTimingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private StatementTimingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new StatementTimingDataSource(target);
+        when(target.getConnection()).thenReturn(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ServerTiming.clear();
+    }
+
+    @Test
+    void execute_WhileTiming_CountsStatements() throws Exception {
+        ServerTiming timing = ServerTiming.start();
+        when(connection.prepareStatement("select 1")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+
+        Connection timed = dataSource.getConnection();
+        PreparedStatement prepared = timed.prepareStatement("select 1");
+        prepared.setFetchSize(10);
+        assertSame(resultSet, prepared.executeQuery());
+        prepared.executeQuery();
+
+        verify(statement).setFetchSize(10);
+        verify(statement, times(2)).executeQuery();
+        assertTrue(timing.header(System.nanoTime()).contains("db;desc=\"2 statements\""));
+        assertEquals(List.of("select 1", "select 1"),
+                timing.statements().stream().map(ServerTiming.Statement::sql).toList());
+    }
+
+    @Test
+    void getConnection_WithoutTiming_ReturnsTargetConnection() throws Exception {
+        assertSame(connection, dataSource.getConnection());
+    }
+}
@@ -0,0 +1,70 @@
+package com.sky.pedroboavida.test.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimedAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedAuthenticationProvider provider;
+    private Authentication request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        provider = new TimedAuthenticationProvider(delegate, meterRegistry);
+        request = UsernamePasswordAuthenticationToken.unauthenticated("user@example.com", "password");
+    }
+
+    @Test
+    void authenticate_Success_RecordsSuccess() {
+        Authentication authenticated = UsernamePasswordAuthenticationToken.authenticated("user@example.com", null, List.of());
+        when(delegate.authenticate(request)).thenReturn(authenticated);
+
+        assertSame(authenticated, provider.authenticate(request));
+
+        assertEquals(1, count("success"));
+        assertEquals(0, count("bad_credentials"));
+    }
+
+    @Test
+    void authenticate_BadCredentials_RecordsBadCredentialsAndRethrows() {
+        when(delegate.authenticate(request)).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(request));
+
+        assertEquals(1, count("bad_credentials"));
+        assertEquals(0, count("success"));
+    }
+
+    @Test
+    void authenticate_LookupFailure_RecordsError() {
+        when(delegate.authenticate(request)).thenThrow(new AuthenticationServiceException("Pool exhausted"));
+
+        assertThrows(AuthenticationServiceException.class, () -> provider.authenticate(request));
+
+        assertEquals(1, count("error"));
+    }
+
+    private long count(String outcome) {
+        return meterRegistry.get(TimedAuthenticationProvider.METRIC_NAME).tag("outcome", outcome).timer().count();
+    }
+}
@@ -3,8 +3,11 @@ package com.sky.pedroboavida.test.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
 import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsRequest;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsResponse;
 import com.sky.pedroboavida.test.model.UpdateExternalProjectRequest;
 import com.sky.pedroboavida.test.service.ExternalProjectService;
+import com.sky.pedroboavida.test.service.MultiGetResult;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -135,5 +138,51 @@ class ExternalProjectControllerTest {
 
         verify(externalProjectService).deleteExternalProject("project-1", 1L);
     }
-}
 
+    @Test
+    void syncExternalProjects_Success() throws Exception {
+        CreateExternalProjectRequest project = new CreateExternalProjectRequest();
+        project.setId("project-1");
+        project.setName("Test Project");
+
+        SyncExternalProjectsRequest request = new SyncExternalProjectsRequest();
+        request.setProjects(List.of(project));
+
+        SyncExternalProjectsResponse response = new SyncExternalProjectsResponse();
+        response.setInserted(1);
+        response.setUpdated(0);
+        response.setDeleted(2);
+        response.setUnchanged(0);
+
+        when(externalProjectService.syncExternalProjects(eq(1L), any(SyncExternalProjectsRequest.class)))
+                .thenReturn(response);
+
+        mockMvc.perform(put("/api/users/1/external-projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        verify(externalProjectService).syncExternalProjects(eq(1L), any(SyncExternalProjectsRequest.class));
+    }
+
+    @Test
+    void getExternalProjectsByIds_ReturnsProjectsAndMissingIds() throws Exception {
+        ExternalProjectDTO project = new ExternalProjectDTO();
+        project.setId("project-1");
+        project.setName("Test Project");
+        project.setUserId(1L);
+
+        when(externalProjectService.getExternalProjectsByIds(1L, List.of("project-1", "project-9")))
+                .thenReturn(new MultiGetResult<>(List.of(project), List.of("project-9")));
+
+        mockMvc.perform(get("/api/users/1/external-projects:batchGet").param("ids", "project-1,project-9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.externalProjects[0].id").value("project-1"))
+                .andExpect(jsonPath("$.missingIds[0]").value("project-9"))
+                .andExpect(header().doesNotExist("Missing-Ids"));
+
+        verify(externalProjectService, never()).getExternalProjectsByUserId(any());
+    }
+}
@@ -0,0 +1,92 @@
+package com.sky.pedroboavida.test.controller;
+
+import com.sky.pedroboavida.test.config.TestcontainersConfig;
+import com.sky.pedroboavida.test.model.CreateUserRequest;
+import com.sky.pedroboavida.test.model.UserDTO;
+import com.sky.pedroboavida.test.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks which connection pool the user reads draw from, through the {@code hikaricp.connections.usage}
+ * timer of each bulkhead: a read that runs outside a read-only transaction would land on the write pool.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserBulkheadRoutingTest extends TestcontainersConfig {
+
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserDTO user;
+
+    @BeforeEach
+    void setUp() {
+        CreateUserRequest request = new CreateUserRequest();
+        request.setEmail("routing-" + UUID.randomUUID() + "@example.com");
+        request.setPassword(PASSWORD);
+        request.setName("Routing User");
+        user = userService.createUser(request);
+    }
+
+    @Test
+    void getUserById_ReadsFromReadBulkhead() throws Exception {
+        assertServedByReadPool(get("/api/users/{id}", user.getId()));
+    }
+
+    @Test
+    void getUserById_WithExternalProjects_ReadsFromReadBulkhead() throws Exception {
+        assertServedByReadPool(get("/api/users/{id}", user.getId()).param("expand", "externalProjects"));
+    }
+
+    @Test
+    void getUsersByIds_ReadsFromReadBulkhead() throws Exception {
+        assertServedByReadPool(get("/api/users").param("ids", user.getId() + ",-1"));
+    }
+
+    private void assertServedByReadPool(MockHttpServletRequestBuilder request) throws Exception {
+        long reads = borrowed("read");
+        long writes = borrowed("write");
+
+        mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, basic(user.getEmail())))
+                .andExpect(status().isOk());
+
+        assertTrue(borrowed("read") > reads, "no connection was borrowed from the read pool");
+        assertEquals(writes, borrowed("write"), "connections were borrowed from the write pool");
+    }
+
+    private long borrowed(String pool) {
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timer();
+        return usage == null ? 0 : usage.count();
+    }
+
+    private static String basic(String email) {
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,9 +2,11 @@ package com.sky.pedroboavida.test.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sky.pedroboavida.test.model.CreateUserRequest;
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
 import com.sky.pedroboavida.test.model.UpdateUserRequest;
 import com.sky.pedroboavida.test.model.UserDTO;
 import com.sky.pedroboavida.test.exception.UserNotFoundException;
+import com.sky.pedroboavida.test.service.MultiGetResult;
 import com.sky.pedroboavida.test.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +17,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -67,24 +72,24 @@ class UserControllerTest {
         response.setEmail("test@example.com");
         response.setName("Test User");
 
-        when(userService.getUserById(1L)).thenReturn(response);
+        when(userService.getUserById(1L, false)).thenReturn(response);
 
         mockMvc.perform(get("/api/users/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.email").value("test@example.com"));
 
-        verify(userService).getUserById(1L);
+        verify(userService).getUserById(1L, false);
     }
 
     @Test
     void getUserById_NotFound() throws Exception {
-        when(userService.getUserById(1L)).thenThrow(new UserNotFoundException(1L));
+        when(userService.getUserById(1L, false)).thenThrow(new UserNotFoundException(1L));
 
         mockMvc.perform(get("/api/users/1"))
                 .andExpect(status().isNotFound());
 
-        verify(userService).getUserById(1L);
+        verify(userService).getUserById(1L, false);
     }
 
     @Test
@@ -117,5 +122,95 @@ class UserControllerTest {
 
         verify(userService).deleteUser(1L);
     }
-}
 
+    @Test
+    void getUserById_WithFields_ReturnsOnlyRequestedProperties() throws Exception {
+        UserDTO response = new UserDTO();
+        response.setId(1L);
+        response.setEmail("test@example.com");
+        response.setName("Test User");
+
+        when(userService.getUserById(1L, false)).thenReturn(response);
+
+        mockMvc.perform(get("/api/users/1").param("fields", "id,email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.email").value("test@example.com"))
+                .andExpect(jsonPath("$.name").doesNotExist());
+    }
+
+    @Test
+    void getUserById_WithFields_KeepsAllPropertiesOfNestedProjects() throws Exception {
+        ExternalProjectDTO project = new ExternalProjectDTO();
+        project.setId("project-1");
+        project.setName("Project");
+        UserDTO response = new UserDTO();
+        response.setId(1L);
+        response.setName("Test User");
+        response.setExternalProjects(List.of(project));
+
+        when(userService.getUserById(1L, true)).thenReturn(response);
+
+        mockMvc.perform(get("/api/users/1").param("fields", "id,externalProjects"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.name").doesNotExist())
+                .andExpect(jsonPath("$.externalProjects[0].id").value("project-1"))
+                .andExpect(jsonPath("$.externalProjects[0].name").value("Project"));
+    }
+
+    @Test
+    void getUserById_WithExpand_LoadsExternalProjects() throws Exception {
+        UserDTO response = new UserDTO();
+        response.setId(1L);
+
+        when(userService.getUserById(1L, true)).thenReturn(response);
+
+        mockMvc.perform(get("/api/users/1").param("expand", "externalProjects"))
+                .andExpect(status().isOk());
+
+        verify(userService).getUserById(1L, true);
+    }
+
+    @Test
+    void getUserById_WithUnsupportedExpand_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/1").param("expand", "password"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).getUserById(any(), anyBoolean());
+    }
+
+    @Test
+    void getUsersByIds_ReturnsUsersAndMissingIds() throws Exception {
+        UserDTO user = new UserDTO();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+
+        when(userService.getUsersByIds(List.of(1L, 2L)))
+                .thenReturn(new MultiGetResult<>(List.of(user), List.of(2L)));
+
+        mockMvc.perform(get("/api/users").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].id").value(1L))
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(2L))
+                .andExpect(header().doesNotExist("Missing-Ids"));
+    }
+
+    @Test
+    void getUsersByIds_WithFields_FiltersUsers() throws Exception {
+        UserDTO user = new UserDTO();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        user.setName("Test User");
+
+        when(userService.getUsersByIds(List.of(1L, 2L)))
+                .thenReturn(new MultiGetResult<>(List.of(user), List.of(2L)));
+
+        mockMvc.perform(get("/api/users").param("ids", "1,2").param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].id").value(1L))
+                .andExpect(jsonPath("$.users[0].email").doesNotExist())
+                .andExpect(jsonPath("$.missingIds[0]").value(2L));
+    }
+}
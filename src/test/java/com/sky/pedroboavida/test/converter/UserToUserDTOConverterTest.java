@@ -4,6 +4,7 @@ import com.sky.pedroboavida.test.model.ExternalProjectDTO;
 import com.sky.pedroboavida.test.model.UserDTO;
 import com.sky.pedroboavida.test.entity.ExternalProject;
 import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.repository.UserSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -240,5 +241,25 @@ class UserToUserDTOConverterTest {
         assertEquals(longEmail, result.getEmail());
         assertEquals(1L, result.getId());
     }
-}
 
+    @Test
+    void convertSummary_Success() {
+        // Act
+        UserDTO result = converter.convertSummary(new UserSummary(1L, "test@example.com", "Test User", 2));
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1L, result.getId());
+        assertEquals("test@example.com", result.getEmail());
+        assertEquals("Test User", result.getName());
+        assertEquals(2, result.getProjectCount());
+        assertNull(result.getExternalProjects());
+        verifyNoInteractions(externalProjectConverter);
+    }
+
+    @Test
+    void convertSummary_WithNullSource_ReturnsNull() {
+        // Act & Assert
+        assertNull(converter.convertSummary(null));
+    }
+}
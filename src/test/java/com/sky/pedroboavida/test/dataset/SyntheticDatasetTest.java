@@ -0,0 +1,102 @@
+package com.sky.pedroboavida.test.dataset;
+
+import com.sky.pedroboavida.test.config.TestcontainersConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SyntheticDatasetTest extends TestcontainersConfig {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void populate_WritesUsersWithTheirProjects() throws SQLException {
+        SyntheticDataset dataset = SyntheticDataset.builder()
+                .users(500)
+                .maxProjectsPerUser(10)
+                .skew(1.2)
+                .passwordPoolSize(2)
+                .build();
+
+        SyntheticDataset.Range range = dataset.populate(dataSource);
+
+        assertEquals(500, range.users());
+        assertEquals(500, countUsers(range));
+        assertEquals(range.projects(), jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tb_user_external_project WHERE user_id BETWEEN ? AND ?",
+                Long.class, range.firstUserId(), range.lastUserId()));
+        assertEquals(0, jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM tb_user u WHERE u.id BETWEEN ? AND ?
+                  AND u.project_count <> (SELECT count(*) FROM tb_user_external_project p WHERE p.user_id = u.id)
+                """, Long.class, range.firstUserId(), range.lastUserId()));
+
+        long userId = range.firstUserId();
+        assertEquals(dataset.projectCount(userId), jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tb_user_external_project WHERE user_id = ?", Integer.class, userId));
+        String hash = jdbcTemplate.queryForObject(
+                "SELECT password FROM tb_user WHERE id = ? AND email = ?", String.class, userId, dataset.email(userId));
+        assertTrue(new BCryptPasswordEncoder().matches(dataset.password(userId), hash));
+    }
+
+    @Test
+    void populate_SkewedCounts_FavourFewProjects() throws SQLException {
+        SyntheticDataset dataset = SyntheticDataset.builder().users(2000).maxProjectsPerUser(20).skew(1.5).build();
+
+        SyntheticDataset.Range range = dataset.populate(dataSource);
+
+        long fewProjects = countUsersWithProjects(range, 0, 2);
+        long manyProjects = countUsersWithProjects(range, 18, 20);
+        assertTrue(fewProjects > 10 * manyProjects, fewProjects + " users with 0-2 projects, " + manyProjects + " with 18-20");
+    }
+
+    @Test
+    void populate_AppendsAfterExistingUsersAndAdvancesSequence() throws SQLException {
+        SyntheticDataset dataset = SyntheticDataset.builder().users(10).maxProjectsPerUser(3).build();
+
+        SyntheticDataset.Range first = dataset.populate(dataSource);
+        SyntheticDataset.Range second = dataset.populate(dataSource);
+        Long insertedId = jdbcTemplate.queryForObject(
+                "INSERT INTO tb_user (email, password, name) VALUES ('after-dataset@example.com', 'x', 'After') RETURNING id",
+                Long.class);
+
+        assertEquals(first.lastUserId() + 1, second.firstUserId());
+        assertTrue(insertedId > second.lastUserId());
+    }
+
+    @Test
+    void projectCount_IsDeterministicForSeed() {
+        SyntheticDataset dataset = SyntheticDataset.builder().seed(7).maxProjectsPerUser(50).build();
+        SyntheticDataset sameSeed = SyntheticDataset.builder().seed(7).maxProjectsPerUser(50).build();
+
+        for (long userId = 1; userId <= 100; userId++) {
+            int count = dataset.projectCount(userId);
+            assertEquals(count, sameSeed.projectCount(userId));
+            assertTrue(count >= 0 && count <= 50);
+        }
+    }
+
+    private long countUsers(SyntheticDataset.Range range) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM tb_user WHERE id BETWEEN ? AND ?",
+                Long.class, range.firstUserId(), range.lastUserId());
+    }
+
+    private long countUsersWithProjects(SyntheticDataset.Range range, int min, int max) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tb_user WHERE id BETWEEN ? AND ? AND project_count BETWEEN ? AND ?",
+                Long.class, range.firstUserId(), range.lastUserId(), min, max);
+    }
+}
@@ -0,0 +1,39 @@
+package com.sky.pedroboavida.test.entity;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityEnhancementTest {
+
+    @Test
+    void entities_AreEnhancedForDirtyTracking() {
+        assertInstanceOf(SelfDirtinessTracker.class, new User());
+        assertInstanceOf(SelfDirtinessTracker.class, new ExternalProject());
+    }
+
+    @Test
+    void setter_MarksOnlyChangedAttributeDirty() {
+        ExternalProject project = new ExternalProject();
+        project.setId("project-1");
+        project.setName("Project");
+        SelfDirtinessTracker tracker = (SelfDirtinessTracker) project;
+        tracker.$$_hibernate_clearDirtyAttributes();
+
+        project.setName("Renamed");
+
+        assertArrayEquals(new String[] {"name"}, tracker.$$_hibernate_getDirtyAttributes());
+    }
+
+    // Without association management, setting the owner never initializes the owner's projects
+    @Test
+    void setUser_LeavesUsersProjectsUntouched() {
+        User user = new User();
+        ExternalProject project = new ExternalProject();
+
+        project.setUser(user);
+
+        assertTrue(user.getExternalProjects().isEmpty());
+    }
+}
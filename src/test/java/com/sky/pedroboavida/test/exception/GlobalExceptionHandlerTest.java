@@ -220,6 +220,44 @@ class GlobalExceptionHandlerTest {
         assertTrue(errorResponse.getDetails().isEmpty());
     }
 
+    @Test
+    void handleInvalidRequestException_Success() {
+        // Arrange
+        InvalidRequestException exception = new InvalidRequestException("Invalid batch operation",
+                List.of("Unsupported operation: PATCH /api/users"));
+
+        // Act
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleInvalidRequestException(exception, request);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        ErrorResponse errorResponse = response.getBody();
+        assertNotNull(errorResponse);
+        assertEquals(HttpStatus.BAD_REQUEST.value(), errorResponse.getStatus());
+        assertEquals("Bad Request", errorResponse.getError());
+        assertEquals("Invalid batch operation", errorResponse.getMessage());
+        assertEquals(TEST_REQUEST_URI, errorResponse.getPath());
+        assertEquals(List.of("Unsupported operation: PATCH /api/users"), errorResponse.getDetails());
+    }
+
+    @Test
+    void handleDeadlineExceededException_Success() {
+        // Act
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleDeadlineExceededException(
+                new RequestDeadlineExceededException(), request);
+
+        // Assert
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+
+        ErrorResponse errorResponse = response.getBody();
+        assertNotNull(errorResponse);
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT.value(), errorResponse.getStatus());
+        assertEquals("Gateway Timeout", errorResponse.getError());
+        assertEquals(TEST_REQUEST_URI, errorResponse.getPath());
+    }
+
     @Test
     void handleGenericException_Success() {
         // Arrange
@@ -0,0 +1,96 @@
+package com.sky.pedroboavida.test.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void tryAcquire_RejectsBeyondLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void release_RisingLatency_ShrinksLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 4, 100, 2.0);
+        cycle(limiter, 100, BASELINE);
+        int steadyLimit = limiter.getLimit();
+
+        cycle(limiter, 20, BASELINE * 10);
+
+        assertTrue(limiter.getLimit() < steadyLimit);
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void release_SingleSlowSample_IsAveragedOverShortWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 4, 100, 2.0);
+        cycle(limiter, 109, BASELINE);
+
+        cycle(limiter, 1, BASELINE * 10);
+
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    void release_SustainedOverload_KeepsLimitDown() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 1, 100, 2.0);
+        for (int i = 0; i < 10; i++) {
+            saturate(limiter, BASELINE);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            saturate(limiter, BASELINE * 10);
+        }
+
+        assertTrue(limiter.getLimit() <= 8);
+    }
+
+    @Test
+    void release_FlatLatencyUnderLoad_GrowsLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 2.0);
+
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter, BASELINE);
+        }
+
+        assertTrue(limiter.getLimit() > 10);
+        assertTrue(limiter.getLimit() <= 100);
+    }
+
+    @Test
+    void release_IdleService_DoesNotGrowLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 2.0);
+
+        cycle(limiter, 100, BASELINE);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    private static void cycle(AdaptiveConcurrencyLimiter limiter, int requests, long rttNanos) {
+        for (int i = 0; i < requests; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(rttNanos);
+        }
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        concurrencyLimitFilter = new ConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimiter(1, 1, 10, 2.0),
+                new AdaptiveConcurrencyLimiter(1, 1, 10, 2.0),
+                meterRegistry, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void requestOverLimit_ReturnsServiceUnavailable() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        FilterChain chain = (request, response) -> nested.set(perform(new MockHttpServletRequest("GET", "/api/users/2"),
+                (innerRequest, innerResponse) -> fail("Request over the limit must not reach the chain")));
+
+        MockHttpServletResponse outer = perform(new MockHttpServletRequest("GET", "/api/users/1"), chain);
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, nested.get().getStatus());
+        assertEquals("1", nested.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("concurrency.limiter.rejections").tag("type", "read").counter().count());
+    }
+
+    @Test
+    void readsAndWrites_HaveSeparateLimits() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        FilterChain chain = (request, response) -> nested.set(perform(
+                new MockHttpServletRequest("POST", "/api/users/1/external-projects"), (innerRequest, innerResponse) -> { }));
+
+        perform(new MockHttpServletRequest("GET", "/api/users/1"), chain);
+
+        assertEquals(200, nested.get().getStatus());
+    }
+
+    @Test
+    void limits_AreExposedAsGauges() throws Exception {
+        perform(new MockHttpServletRequest("GET", "/api/users/1"), (request, response) -> { });
+
+        assertEquals(1.0, meterRegistry.get("concurrency.limit").tag("type", "read").gauge().value());
+        assertEquals(0.0, meterRegistry.get("concurrency.in.flight").tag("type", "read").gauge().value());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            concurrencyLimitFilter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,105 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private IdempotencyFilter idempotencyFilter;
+    private AtomicInteger executions;
+    private int chainStatus;
+
+    private final FilterChain chain = (request, response) -> {
+        request.getInputStream().readAllBytes();
+        int execution = executions.incrementAndGet();
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        httpResponse.setStatus(chainStatus);
+        httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        httpResponse.getWriter().write("{\"id\":" + execution + "}");
+    };
+
+    @BeforeEach
+    void setUp() {
+        idempotencyFilter = new IdempotencyFilter(Duration.ofHours(1), 100, Duration.ofSeconds(1),
+                new ObjectMapper().findAndRegisterModules());
+        executions = new AtomicInteger();
+        chainStatus = HttpServletResponse.SC_CREATED;
+    }
+
+    @Test
+    void retryWithSameKey_ReplaysStoredResponse() throws Exception {
+        MockHttpServletResponse first = perform(post("key-1", "{\"email\":\"a@example.com\"}"));
+        MockHttpServletResponse retry = perform(post("key-1", "{\"email\":\"a@example.com\"}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpServletResponse.SC_CREATED, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void sameKeyWithDifferentBody_ReturnsUnprocessableEntity() throws Exception {
+        perform(post("key-1", "{\"email\":\"a@example.com\"}"));
+        MockHttpServletResponse retry = perform(post("key-1", "{\"email\":\"b@example.com\"}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(422, retry.getStatus());
+    }
+
+    @Test
+    void requestsWithoutKey_AreAlwaysExecuted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users");
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+        perform(request);
+        perform(request);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void serverErrors_AreNotStored() throws Exception {
+        chainStatus = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        perform(post("key-1", "{}"));
+
+        chainStatus = HttpServletResponse.SC_CREATED;
+        MockHttpServletResponse retry = perform(post("key-1", "{}"));
+
+        assertEquals(2, executions.get());
+        assertEquals(HttpServletResponse.SC_CREATED, retry.getStatus());
+    }
+
+    @Test
+    void blankKey_ReturnsBadRequest() throws Exception {
+        MockHttpServletResponse response = perform(post(" ", "{}"));
+
+        assertEquals(0, executions.get());
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+    }
+
+    private MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        idempotencyFilter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,102 @@
+package com.sky.pedroboavida.test.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void claim_FirstIsOwner_SecondGetsEntry() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(1), 10, clock);
+
+        assertNull(store.claim("key", "fingerprint"));
+        IdempotencyStore.Entry existing = store.claim("key", "other");
+
+        assertNotNull(existing);
+        assertEquals("fingerprint", existing.getFingerprint());
+    }
+
+    @Test
+    void claim_ExpiredKey_CanBeClaimedAgainWithoutDuplicates() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(1), 10, clock);
+        store.claim("key", "first");
+
+        clock.advance(Duration.ofMinutes(1));
+
+        assertNull(store.claim("key", "second"));
+        assertEquals(1, store.size());
+        assertEquals("second", store.claim("key", "third").getFingerprint());
+    }
+
+    @Test
+    void claim_DropsExpiredEntries() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(1), 10, clock);
+        store.claim("a", "a");
+        store.claim("b", "b");
+        clock.advance(Duration.ofSeconds(30));
+        store.claim("c", "c");
+
+        clock.advance(Duration.ofSeconds(30));
+        store.claim("d", "d");
+
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void claim_WhenFull_EvictsOldestCompletedAndKeepsInFlight() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(1), 2, clock);
+        store.claim("in-flight", "1");
+        store.claim("done", "2");
+        store.complete("done", new IdempotencyStore.StoredResponse(201, "application/json", new byte[0]));
+
+        store.claim("new", "3");
+
+        assertEquals(2, store.size());
+        assertNotNull(store.claim("in-flight", "1"));
+        assertNull(store.claim("done", "2"));
+    }
+
+    @Test
+    void release_RemovesKeySoItCanBeClaimedAgain() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(1), 10, clock);
+        store.claim("key", "fingerprint");
+
+        store.release("key");
+
+        assertEquals(0, store.size());
+        assertNull(store.claim("key", "fingerprint"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter rateLimitFilter;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger executions;
+
+    private final FilterChain chain = (request, response) -> executions.incrementAndGet();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(new RateLimiter(3, 1, 1000), new RateLimiter(1, 1, 1000),
+                meterRegistry, new ObjectMapper().findAndRegisterModules());
+        executions = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void requestWithinLimit_PassesWithRateLimitHeaders() throws Exception {
+        MockHttpServletResponse response = perform(request("10.0.0.1", null));
+
+        assertEquals(1, executions.get());
+        assertEquals("3", response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("2", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertNotNull(response.getHeader(RateLimitFilter.RESET_HEADER));
+    }
+
+    @Test
+    void ipOverLimit_ReturnsTooManyRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            perform(request("10.0.0.1", null));
+        }
+        MockHttpServletResponse response = perform(request("10.0.0.1", null));
+
+        assertEquals(3, executions.get());
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals(1.0, meterRegistry.get("rate.limiter.rejections").tag("limit", "ip").counter().count());
+    }
+
+    @Test
+    void userOverLimit_ReturnsTooManyRequestsFromAnyIp() throws Exception {
+        authenticate("user@example.com");
+        performAuthenticated(request("10.0.0.1", "user@example.com"));
+        MockHttpServletResponse response = performAuthenticated(request("10.0.0.2", "user@example.com"));
+
+        assertEquals(1, executions.get());
+        assertEquals(429, response.getStatus());
+        assertEquals("0", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals(1.0, meterRegistry.get("rate.limiter.rejections").tag("limit", "user").counter().count());
+    }
+
+    @Test
+    void claimedUsernameWithoutAuthentication_DoesNotChargeUserBucket() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            performAuthenticated(request("10.0.0.1", "victim@example.com"));
+        }
+        authenticate("victim@example.com");
+        MockHttpServletResponse response = performAuthenticated(request("10.0.0.2", "victim@example.com"));
+
+        assertEquals(3, executions.get());
+        assertEquals(200, response.getStatus());
+        assertEquals("0", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+    }
+
+    @Test
+    void authenticatedUser_ReportsLowerOfIpAndUserRemaining() throws Exception {
+        authenticate("user@example.com");
+        MockHttpServletResponse response = performAuthenticated(request("10.0.0.1", "user@example.com"));
+
+        assertEquals(1, executions.get());
+        assertEquals("1", response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("0", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+    }
+
+    @Test
+    void nonApiPaths_AreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+            request.setRemoteAddr("10.0.0.1");
+            perform(request);
+        }
+
+        assertEquals(5, executions.get());
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setRemoteAddr(remoteAddr);
+        if (username != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder()
+                    .encodeToString((username + ":password").getBytes(StandardCharsets.UTF_8)));
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, chain);
+        return response;
+    }
+
+    // Runs both stages the way the security chain does, with authentication happening in between.
+    private MockHttpServletResponse performAuthenticated(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response,
+                (req, res) -> rateLimitFilter.authenticatedUserFilter().doFilter(req, res, chain));
+        return response;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+}
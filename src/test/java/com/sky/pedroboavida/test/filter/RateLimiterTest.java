@@ -0,0 +1,74 @@
+package com.sky.pedroboavida.test.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(123_456_789L);
+
+    @Test
+    void tryAcquire_AllowsBurstUpToCapacity_ThenRejects() {
+        RateLimiter rateLimiter = new RateLimiter(3, 1, 1000, clock::get);
+
+        assertEquals(2, rateLimiter.tryAcquire("client").remaining());
+        assertEquals(1, rateLimiter.tryAcquire("client").remaining());
+        assertEquals(0, rateLimiter.tryAcquire("client").remaining());
+
+        RateLimiter.Decision rejected = rateLimiter.tryAcquire("client");
+        assertFalse(rejected.allowed());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), rejected.retryAfterNanos());
+        assertEquals(TimeUnit.SECONDS.toNanos(3), rejected.resetNanos());
+    }
+
+    @Test
+    void tryAcquire_RefillsOverTime() {
+        RateLimiter rateLimiter = new RateLimiter(1, 2, 1000, clock::get);
+
+        assertTrue(rateLimiter.tryAcquire("client").allowed());
+        assertFalse(rateLimiter.tryAcquire("client").allowed());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(rateLimiter.tryAcquire("client").allowed());
+    }
+
+    @Test
+    void tryAcquire_KeysAreIndependent() {
+        RateLimiter rateLimiter = new RateLimiter(1, 1, 1000, clock::get);
+
+        assertTrue(rateLimiter.tryAcquire("a").allowed());
+        assertTrue(rateLimiter.tryAcquire("b").allowed());
+        assertFalse(rateLimiter.tryAcquire("a").allowed());
+    }
+
+    @Test
+    void tryAcquire_EvictsIdleBucketsToStayBounded() {
+        RateLimiter rateLimiter = new RateLimiter(1, 1, 64 * 4, clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            rateLimiter.tryAcquire("client-" + i);
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        }
+
+        assertTrue(rateLimiter.size() <= 64 * 4);
+    }
+
+    @Test
+    void tryAcquire_FullStripeFallsBackToSharedBucket() {
+        RateLimiter rateLimiter = new RateLimiter(1, 1, 64, clock::get);
+
+        int rejected = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (!rateLimiter.tryAcquire("client-" + i).allowed()) {
+                rejected++;
+            }
+        }
+
+        assertTrue(rateLimiter.size() <= 64);
+        assertTrue(rejected > 0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.config.RequestDeadlineProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestDeadlineFilterTest {
+
+    private RequestDeadlineFilter requestDeadlineFilter;
+    private AtomicReference<OptionalLong> remaining;
+
+    private final FilterChain chain = (request, response) -> remaining.set(RequestDeadline.remainingNanos());
+
+    @BeforeEach
+    void setUp() {
+        requestDeadlineFilter = new RequestDeadlineFilter(new RequestDeadlineProperties(
+                Duration.ofSeconds(10), Duration.ofSeconds(60),
+                List.of(new RequestDeadlineProperties.Endpoint("PUT", "/api/users/*/external-projects",
+                        Duration.ofSeconds(30)))),
+                new ObjectMapper().findAndRegisterModules());
+        remaining = new AtomicReference<>();
+    }
+
+    @Test
+    void noHeader_UsesDefaultTimeout() throws Exception {
+        perform(new MockHttpServletRequest("GET", "/api/users/1"));
+
+        assertRemainingBetween(Duration.ofSeconds(9), Duration.ofSeconds(10));
+        assertTrue(RequestDeadline.remainingNanos().isEmpty());
+    }
+
+    @Test
+    void noHeader_UsesEndpointTimeout() throws Exception {
+        perform(new MockHttpServletRequest("PUT", "/api/users/1/external-projects"));
+
+        assertRemainingBetween(Duration.ofSeconds(29), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void header_OverridesDefaultTimeout() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader(RequestDeadlineFilter.REQUEST_TIMEOUT_HEADER, "500ms");
+        perform(request);
+
+        assertRemainingBetween(Duration.ZERO, Duration.ofMillis(500));
+    }
+
+    @Test
+    void header_IsCappedAtMaxTimeout() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader(RequestDeadlineFilter.REQUEST_TIMEOUT_HEADER, "3600");
+        perform(request);
+
+        assertRemainingBetween(Duration.ofSeconds(59), Duration.ofSeconds(60));
+    }
+
+    @Test
+    void invalidHeader_ReturnsBadRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader(RequestDeadlineFilter.REQUEST_TIMEOUT_HEADER, "soon");
+        MockHttpServletResponse response = perform(request);
+
+        assertEquals(400, response.getStatus());
+        assertNull(remaining.get());
+    }
+
+    private void assertRemainingBetween(Duration min, Duration max) {
+        assertTrue(remaining.get().isPresent());
+        long nanos = remaining.get().getAsLong();
+        assertTrue(nanos > min.toNanos() && nanos <= max.toNanos(), "remaining " + nanos + "ns");
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        requestDeadlineFilter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,153 @@
+package com.sky.pedroboavida.test.filter;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLoggingFilterTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void generatesRequestIdForMdcAndResponse() throws Exception {
+        List<String> seen = new ArrayList<>();
+        MockHttpServletResponse response = perform(new RequestLoggingFilter(1.0, 0, 0), null,
+                (request, res) -> seen.add(MDC.get(RequestLoggingFilter.MDC_KEY)));
+
+        String requestId = response.getHeader(RequestLoggingFilter.HEADER);
+        assertNotNull(requestId);
+        assertEquals(16, requestId.length());
+        assertEquals(List.of(requestId), seen);
+        assertNull(MDC.get(RequestLoggingFilter.MDC_KEY));
+    }
+
+    @Test
+    void reusesWellFormedRequestId() throws Exception {
+        MockHttpServletResponse response = perform(new RequestLoggingFilter(1.0, 0, 0), "abc-123.retry_1",
+                (request, res) -> { });
+
+        assertEquals("abc-123.retry_1", response.getHeader(RequestLoggingFilter.HEADER));
+    }
+
+    @Test
+    void replacesMalformedRequestId() throws Exception {
+        MockHttpServletResponse response = perform(new RequestLoggingFilter(1.0, 0, 0), "forged\nline",
+                (request, res) -> { });
+
+        assertNotEquals("forged\nline", response.getHeader(RequestLoggingFilter.HEADER));
+    }
+
+    @Test
+    void sampled_DoesNotBuffer() throws Exception {
+        perform(new RequestLoggingFilter(1.0, TimeUnit.SECONDS.toNanos(1), 10), null, (request, res) -> {
+            assertTrue(RequestLogSampling.current().sampled());
+            assertFalse(RequestLogSampling.current().buffering());
+        });
+
+        assertNull(RequestLogSampling.current());
+    }
+
+    @Test
+    void notSampledWithoutSlowThreshold_DiscardsInsteadOfBuffering() throws Exception {
+        perform(new RequestLoggingFilter(0.0, 0, 10), null, (request, res) -> {
+            assertFalse(RequestLogSampling.current().sampled());
+            assertFalse(RequestLogSampling.current().buffering());
+        });
+    }
+
+    @Test
+    void notSampledFastRequest_DropsHeldBackStatements() throws Exception {
+        perform(new RequestLoggingFilter(0.0, TimeUnit.SECONDS.toNanos(10), 10), null,
+                (request, res) -> RequestLogSampling.current().hold("select 1"));
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void notSampledSlowRequest_WritesHeldBackStatementsWithRequestId() throws Exception {
+        MockHttpServletResponse response = perform(new RequestLoggingFilter(0.0, 1, 10), null, (request, res) -> {
+            RequestLogSampling.current().hold("select 1");
+            busyWait(TimeUnit.MILLISECONDS.toNanos(1));
+        });
+
+        assertEquals(1, appender.list.size());
+        assertEquals("Held back SQL: select 1", appender.list.get(0).getFormattedMessage());
+        assertEquals(response.getHeader(RequestLoggingFilter.HEADER),
+                appender.list.get(0).getMDCPropertyMap().get(RequestLoggingFilter.MDC_KEY));
+    }
+
+    @Test
+    void notSampledServerError_WritesHeldBackStatements() throws Exception {
+        perform(new RequestLoggingFilter(0.0, TimeUnit.SECONDS.toNanos(10), 10), null, (request, res) -> {
+            RequestLogSampling.current().hold("select 1");
+            ((HttpServletResponse) res).setStatus(500);
+        });
+
+        assertEquals(List.of("Held back SQL: select 1"),
+                appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList());
+    }
+
+    @Test
+    void bufferFull_DropsNewestStatements() {
+        RequestLogSampling sampling = RequestLogSampling.start(false, 2);
+        List<String> written = new ArrayList<>();
+        try {
+            for (int i = 0; i < 5; i++) {
+                sampling.hold("select " + i);
+            }
+            assertFalse(sampling.hasRoom());
+            sampling.drop();
+        } finally {
+            RequestLogSampling.clear();
+        }
+
+        assertEquals(2, sampling.heldCount());
+        assertEquals(4, sampling.flush(written::add));
+        assertEquals(List.of("select 0", "select 1"), written);
+    }
+
+    private static MockHttpServletResponse perform(RequestLoggingFilter filter, String requestId, FilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        if (requestId != null) {
+            request.addHeader(RequestLoggingFilter.HEADER, requestId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static void busyWait(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.sky.pedroboavida.test.filter;
+
+import com.sky.pedroboavida.test.config.SlowRequestRecorder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    @Test
+    void sampled_ReportsPhasesAndKeepsBody() throws Exception {
+        FilterChain chain = (request, response) -> {
+            ServerTiming timing = ServerTiming.current();
+            timing.addAuthentication(TimeUnit.MILLISECONDS.toNanos(80));
+            timing.enterService();
+            timing.addStatement("select 1", TimeUnit.MILLISECONDS.toNanos(2));
+            timing.addStatement("select 2", TimeUnit.MILLISECONDS.toNanos(3));
+            timing.exitService();
+            timing.startSerialization();
+            response.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+            response.flushBuffer();
+        };
+
+        MockHttpServletResponse response = perform(new ServerTimingFilter(1.0, null), "/api/users/1", chain);
+
+        String header = response.getHeader(ServerTiming.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("auth;dur=80.000, db;desc=\"2 statements\";dur=5.000, service;dur="), header);
+        assertTrue(header.contains(", serialization;dur="), header);
+        assertTrue(header.contains(", total;dur="), header);
+        assertEquals("{\"id\":1}", response.getContentAsString());
+        assertNull(ServerTiming.current());
+    }
+
+    @Test
+    void sampled_NoBody_OmitsSerialization() throws Exception {
+        MockHttpServletResponse response = perform(new ServerTimingFilter(1.0, null), "/api/users/1",
+                (request, res) -> ((HttpServletResponse) res).setStatus(204));
+
+        String header = response.getHeader(ServerTiming.HEADER);
+        assertTrue(header.startsWith("auth;dur=0.000, db;desc=\"0 statements\";dur=0.000, service;dur=0.000, total;dur="),
+                header);
+    }
+
+    @Test
+    void sampled_SendError_SetsHeaderBeforeCommitting() throws Exception {
+        MockHttpServletResponse response = perform(new ServerTimingFilter(1.0, null), "/api/users/1",
+                (request, res) -> ((HttpServletResponse) res).sendError(401));
+
+        assertEquals(401, response.getStatus());
+        assertNotNull(response.getHeader(ServerTiming.HEADER));
+    }
+
+    @Test
+    void notSampled_PassesThrough() throws Exception {
+        MockHttpServletResponse response = perform(new ServerTimingFilter(0.0, null), "/api/users/1",
+                (request, res) -> assertNull(ServerTiming.current()));
+
+        assertNull(response.getHeader(ServerTiming.HEADER));
+    }
+
+    @Test
+    void nonApiRequest_IsNotTimed() throws Exception {
+        MockHttpServletResponse response = perform(new ServerTimingFilter(1.0, null), "/actuator/health",
+                (request, res) -> assertNull(ServerTiming.current()));
+
+        assertNull(response.getHeader(ServerTiming.HEADER));
+    }
+
+    @Test
+    void slowRequest_NotSampled_IsRecordedWithoutHeader() throws Exception {
+        SlowRequestRecorder recorder = new SlowRequestRecorder(5, Duration.ZERO, Duration.ofMinutes(1));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(0.0, recorder).doFilter(request, response, (req, res) -> {
+            ServerTiming timing = ServerTiming.current();
+            timing.authenticated("user@example.com");
+            timing.addStatement("select id from tb_user where id=?", TimeUnit.MILLISECONDS.toNanos(4));
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+            ((HttpServletResponse) res).setStatus(404);
+        });
+
+        assertNull(response.getHeader(ServerTiming.HEADER));
+        List<SlowRequestRecorder.SlowRequest> recorded = recorder.slowest();
+        assertEquals(1, recorded.size());
+        SlowRequestRecorder.SlowRequest slow = recorded.get(0);
+        assertEquals("GET", slow.method());
+        assertEquals("/api/users/{id}", slow.route());
+        assertEquals("user@example.com", slow.user());
+        assertEquals(404, slow.status());
+        assertEquals(4.0, slow.phasesMs().get("db"));
+        assertEquals(1, slow.statementCount());
+        assertEquals(List.of(new SlowRequestRecorder.Statement("select id from tb_user where id=?", 4.0)),
+                slow.statements());
+    }
+
+    @Test
+    void fastRequest_IsNotRecorded() throws Exception {
+        SlowRequestRecorder recorder = new SlowRequestRecorder(5, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        perform(new ServerTimingFilter(0.0, recorder), "/api/users/1", (req, res) -> assertNotNull(ServerTiming.current()));
+
+        assertTrue(recorder.slowest().isEmpty());
+    }
+
+    private static MockHttpServletResponse perform(ServerTimingFilter filter, String uri, FilterChain chain)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, chain);
+        return response;
+    }
+}
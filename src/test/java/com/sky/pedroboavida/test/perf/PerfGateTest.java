@@ -0,0 +1,141 @@
+package com.sky.pedroboavida.test.perf;
+
+import com.sky.pedroboavida.test.perf.PerfGate.Baseline;
+import com.sky.pedroboavida.test.perf.PerfGate.Comparison;
+import com.sky.pedroboavida.test.perf.PerfGate.Verdict;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerfGateTest {
+
+    private static final double[] THROUGHPUT = {100, 101, 99, 100.5, 99.5};
+    private static final double[] LATENCY = {10, 10.1, 9.9, 10.05, 9.95};
+
+    private final PerfGate gate = new PerfGate(0.05, 0.10);
+
+    @Test
+    void compare_ThroughputDroppedBeyondTolerance_IsRegression() {
+        Comparison comparison = gate.compare(throughput(THROUGHPUT), throughput(scale(THROUGHPUT, 0.80)));
+
+        assertEquals(Verdict.REGRESSION, comparison.verdict());
+        assertEquals(-0.20, comparison.change(), 1e-9);
+        assertTrue(comparison.low() < comparison.change() && comparison.change() < comparison.high());
+    }
+
+    @Test
+    void compare_ThroughputRoseBeyondTolerance_IsImproved() {
+        assertEquals(Verdict.IMPROVED,
+                gate.compare(throughput(THROUGHPUT), throughput(scale(THROUGHPUT, 1.20))).verdict());
+    }
+
+    @Test
+    void compare_ThroughputWithinTolerance_IsOk() {
+        assertEquals(Verdict.OK,
+                gate.compare(throughput(THROUGHPUT), throughput(scale(THROUGHPUT, 0.97))).verdict());
+    }
+
+    // The mean dropped by more than the tolerance, but the samples are too spread to be sure of it
+    @Test
+    void compare_NoisyThroughputDrop_IsOk() {
+        Comparison comparison = gate.compare(throughput(THROUGHPUT), throughput(new double[] {60, 140, 70, 110, 20}));
+
+        assertEquals(Verdict.OK, comparison.verdict());
+        assertTrue(comparison.change() < -0.05);
+    }
+
+    @Test
+    void compare_LatencyRoseBeyondTolerance_IsRegression() {
+        Comparison comparison = gate.compare(latency(LATENCY), latency(scale(LATENCY, 1.20)));
+
+        assertEquals(Verdict.REGRESSION, comparison.verdict());
+        assertEquals(0.20, comparison.change(), 1e-9);
+    }
+
+    @Test
+    void compare_LatencyDroppedBeyondTolerance_IsImproved() {
+        assertEquals(Verdict.IMPROVED, gate.compare(latency(LATENCY), latency(scale(LATENCY, 0.80))).verdict());
+    }
+
+    // 8% is beyond the throughput tolerance but within the latency one
+    @Test
+    void compare_LatencyWithinLatencyTolerance_IsOk() {
+        assertEquals(Verdict.OK, gate.compare(latency(LATENCY), latency(scale(LATENCY, 1.08))).verdict());
+    }
+
+    @Test
+    void compare_IdenticalSamplesWithoutVariance_IsOk() {
+        double[] samples = {5, 5, 5};
+
+        Comparison comparison = gate.compare(latency(samples), latency(samples));
+
+        assertEquals(Verdict.OK, comparison.verdict());
+        assertEquals(0, comparison.low());
+        assertEquals(0, comparison.high());
+    }
+
+    @Test
+    void compare_SingleSampleOnEitherSide_IsInsufficient() {
+        assertEquals(Verdict.INSUFFICIENT,
+                gate.compare(throughput(new double[] {100}), throughput(scale(THROUGHPUT, 0.5))).verdict());
+        assertEquals(Verdict.INSUFFICIENT,
+                gate.compare(latency(LATENCY), latency(new double[] {50})).verdict());
+    }
+
+    @Test
+    void compare_Baseline_ReportsNewAndMissingMetricsAndListsRegressionsFirst() {
+        Metric kept = throughput(THROUGHPUT);
+        Metric dropped = new Metric("dropped", "ops/s", true, false, THROUGHPUT);
+        Metric added = new Metric("added", "ops/s", true, false, THROUGHPUT);
+
+        List<Comparison> comparisons = gate.compare(
+                new Baseline(Map.of(), List.of(kept, dropped, new Metric("slower", "ms", false, true, LATENCY))),
+                List.of(kept, added, new Metric("slower", "ms", false, true, scale(LATENCY, 2))));
+
+        assertEquals(List.of(Verdict.REGRESSION, Verdict.MISSING, Verdict.NEW, Verdict.OK),
+                comparisons.stream().map(Comparison::verdict).toList());
+        assertEquals(List.of("slower", "dropped", "added", "throughput"),
+                comparisons.stream().map(Comparison::name).toList());
+    }
+
+    @Test
+    void tQuantile_UsesTableUpToThirtyDegreesOfFreedom() {
+        assertEquals(12.706, PerfGate.tQuantile(1), 1e-9);
+        assertEquals(2.776, PerfGate.tQuantile(4), 1e-9);
+        assertEquals(2.042, PerfGate.tQuantile(30), 1e-9);
+    }
+
+    @Test
+    void tQuantile_RoundsDegreesOfFreedomDownToWidenInterval() {
+        assertEquals(PerfGate.tQuantile(4), PerfGate.tQuantile(4.9), 1e-9);
+        assertEquals(PerfGate.tQuantile(1), PerfGate.tQuantile(0.4), 1e-9);
+    }
+
+    @Test
+    void tQuantile_BeyondTable_ApproachesNormalQuantile() {
+        assertEquals(2.040, PerfGate.tQuantile(31), 1e-3);
+        assertEquals(2.000, PerfGate.tQuantile(60), 1e-3);
+        assertEquals(1.962, PerfGate.tQuantile(1000), 1e-3);
+        assertTrue(PerfGate.tQuantile(31) < PerfGate.tQuantile(30));
+        assertTrue(PerfGate.tQuantile(1000) > 1.959964);
+    }
+
+    private static Metric throughput(double[] samples) {
+        return new Metric("throughput", "ops/s", true, false, samples);
+    }
+
+    private static Metric latency(double[] samples) {
+        return new Metric("latency", "ms", false, true, samples);
+    }
+
+    private static double[] scale(double[] samples, double factor) {
+        double[] scaled = new double[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            scaled[i] = samples[i] * factor;
+        }
+        return scaled;
+    }
+}
@@ -0,0 +1,168 @@
+package com.sky.pedroboavida.test.repository.jdbc;
+
+import com.sky.pedroboavida.test.config.TestcontainersConfig;
+import com.sky.pedroboavida.test.entity.ExternalProject;
+import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcClientAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The set-based statements inherited from ExternalProjectRepositoryCustomImpl flush the persistence
+// context, so the JDBC repository still runs next to JPA
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JdbcClientAutoConfiguration.class)
+@TestPropertySource(properties = {"app.persistence.mode=jdbc", "spring.data.jpa.repositories.enabled=false"})
+@Import(JdbcExternalProjectRepository.class)
+class JdbcExternalProjectRepositoryTest extends TestcontainersConfig {
+
+    @Autowired
+    private JdbcExternalProjectRepository externalProjectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long otherUserId;
+
+    @BeforeEach
+    void setUp() {
+        userId = insertUser("owner@example.com");
+        otherUserId = insertUser("other@example.com");
+    }
+
+    @Test
+    void save_NewProject_InsertsRow() {
+        externalProjectRepository.save(project("project-1", userId, "Project 1"));
+
+        ExternalProject found = externalProjectRepository.findByIdAndUserId("project-1", userId).orElseThrow();
+        assertEquals("Project 1", found.getName());
+        assertEquals(userId, found.getUser().getId());
+    }
+
+    @Test
+    void save_ExistingId_OverwritesNameAndOwner() {
+        externalProjectRepository.save(project("project-1", userId, "Before"));
+
+        externalProjectRepository.save(project("project-1", otherUserId, "After"));
+
+        assertTrue(externalProjectRepository.findByIdAndUserId("project-1", userId).isEmpty());
+        assertEquals("After", externalProjectRepository.findByIdAndUserId("project-1", otherUserId)
+                .orElseThrow().getName());
+    }
+
+    @Test
+    void findByUserId_ReturnsOnlyTheUsersProjects() {
+        insertProject("project-1", userId, "Project 1");
+        insertProject("project-2", userId, "Project 2");
+        insertProject("project-3", otherUserId, "Project 3");
+
+        List<ExternalProject> projects = externalProjectRepository.findByUserId(userId);
+
+        assertEquals(List.of("project-1", "project-2"),
+                projects.stream().map(ExternalProject::getId).sorted().toList());
+        assertTrue(projects.stream().allMatch(project -> userId.equals(project.getUser().getId())));
+    }
+
+    @Test
+    void existsByIdAndUserId_ChecksOwnership() {
+        insertProject("project-1", userId, "Project 1");
+
+        assertTrue(externalProjectRepository.existsByIdAndUserId("project-1", userId));
+        assertFalse(externalProjectRepository.existsByIdAndUserId("project-1", otherUserId));
+        assertFalse(externalProjectRepository.existsByIdAndUserId("missing", userId));
+    }
+
+    @Test
+    void existsById_IgnoresOwner() {
+        insertProject("project-1", otherUserId, "Project 1");
+
+        assertTrue(externalProjectRepository.existsById("project-1"));
+        assertFalse(externalProjectRepository.existsById("missing"));
+    }
+
+    @Test
+    void delete_RemovesRow() {
+        insertProject("project-1", userId, "Project 1");
+
+        externalProjectRepository.delete(project("project-1", userId, "Project 1"));
+
+        assertFalse(externalProjectRepository.existsByIdAndUserId("project-1", userId));
+    }
+
+    @Test
+    void findByUserIdAndIds_SkipsMissingAndForeignProjects() {
+        insertProject("project-1", userId, "Project 1");
+        insertProject("project-2", otherUserId, "Project 2");
+
+        List<ExternalProjectDTO> projects = externalProjectRepository.findByUserIdAndIds(userId,
+                List.of("project-1", "project-2", "missing"));
+
+        assertEquals(1, projects.size());
+        assertEquals("project-1", projects.get(0).getId());
+        assertEquals(userId, projects.get(0).getUserId());
+    }
+
+    @Test
+    void syncStatements_ConvergeOnDesiredProjects() {
+        insertProject("keep", userId, "Keep");
+        insertProject("rename", userId, "Before");
+        insertProject("drop", userId, "Drop");
+        insertProject("foreign", otherUserId, "Foreign");
+        List<String> ids = List.of("keep", "rename", "new", "foreign");
+        List<String> names = List.of("Keep", "After", "New", "Foreign");
+
+        assertEquals(List.of("foreign"), externalProjectRepository.findIdsOwnedByOtherUsers(userId, ids));
+        assertEquals(1, externalProjectRepository.deleteByUserIdAndIdNotIn(userId, ids));
+        assertEquals(1, externalProjectRepository.updateChangedNames(userId, ids, names));
+        assertEquals(1, externalProjectRepository.insertMissing(userId, ids, names));
+
+        Map<String, String> stored = externalProjectRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(ExternalProject::getId, ExternalProject::getName));
+        assertEquals(Map.of("keep", "Keep", "rename", "After", "new", "New"), stored);
+        assertTrue(externalProjectRepository.existsByIdAndUserId("foreign", otherUserId));
+    }
+
+    @Test
+    void insertMissing_IdOwnedByOtherUser_Fails() {
+        insertProject("foreign", otherUserId, "Foreign");
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                externalProjectRepository.insertMissing(userId, List.of("new", "foreign"), List.of("New", "Mine")));
+    }
+
+    private static ExternalProject project(String id, Long userId, String name) {
+        User user = new User();
+        user.setId(userId);
+        ExternalProject project = new ExternalProject();
+        project.setId(id);
+        project.setName(name);
+        project.setUser(user);
+        return project;
+    }
+
+    private Long insertUser(String email) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO tb_user (email, password, name, project_count) VALUES (?, ?, ?, 0) RETURNING id",
+                Long.class, email, "$2a$10$hash", "User");
+    }
+
+    private void insertProject(String id, Long userId, String name) {
+        jdbcTemplate.update("INSERT INTO tb_user_external_project (id, user_id, name) VALUES (?, ?, ?)", id, userId, name);
+    }
+}
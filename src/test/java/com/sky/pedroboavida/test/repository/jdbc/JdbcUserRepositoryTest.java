@@ -0,0 +1,134 @@
+package com.sky.pedroboavida.test.repository.jdbc;
+
+import com.sky.pedroboavida.test.config.TestcontainersConfig;
+import com.sky.pedroboavida.test.entity.ExternalProject;
+import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.repository.UserSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "app.persistence.mode=jdbc")
+@Import(JdbcUserRepository.class)
+class JdbcUserRepositoryTest extends TestcontainersConfig {
+
+    @Autowired
+    private JdbcUserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void save_NewUser_AssignsGeneratedId() {
+        User saved = userRepository.save(user("new@example.com", "New User"));
+
+        assertNotNull(saved.getId());
+        Optional<User> found = userRepository.findById(saved.getId());
+        assertTrue(found.isPresent());
+        assertEquals("new@example.com", found.get().getEmail());
+        assertEquals("New User", found.get().getName());
+    }
+
+    @Test
+    void save_ExistingUser_UpdatesRow() {
+        User saved = userRepository.save(user("update@example.com", "Before"));
+        saved.setName("After");
+
+        userRepository.save(saved);
+
+        assertEquals("After", userRepository.findByEmail("update@example.com").orElseThrow().getName());
+    }
+
+    @Test
+    void save_DuplicateEmail_ThrowsDataIntegrityViolation() {
+        userRepository.save(user("duplicate@example.com", "First"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.save(user("duplicate@example.com", "Second")));
+    }
+
+    @Test
+    void existsQueries_ReflectStoredRows() {
+        User saved = userRepository.save(user("exists@example.com", "Exists"));
+
+        assertTrue(userRepository.existsById(saved.getId()));
+        assertTrue(userRepository.existsByEmail("exists@example.com"));
+        assertFalse(userRepository.existsByEmail("missing@example.com"));
+        assertEquals(Optional.of(saved.getId()), userRepository.lockById(saved.getId()));
+    }
+
+    @Test
+    void findSummaryById_ReturnsProjection() {
+        User saved = userRepository.save(user("summary@example.com", "Summary"));
+
+        Optional<UserSummary> summary = userRepository.findSummaryById(saved.getId());
+
+        assertEquals(Optional.of(new UserSummary(saved.getId(), "summary@example.com", "Summary", 0)), summary);
+        assertEquals(List.of(summary.get()), userRepository.findSummariesByIds(List.of(saved.getId())));
+    }
+
+    @Test
+    void reserveProjectSlot_StopsAtQuota() {
+        User saved = userRepository.save(user("quota@example.com", "Quota"));
+
+        assertEquals(1, userRepository.reserveProjectSlot(saved.getId(), 2));
+        assertEquals(1, userRepository.reserveProjectSlot(saved.getId(), 2));
+        assertEquals(0, userRepository.reserveProjectSlot(saved.getId(), 2));
+        assertEquals(1, userRepository.releaseProjectSlot(saved.getId()));
+        assertEquals(1, userRepository.findSummaryById(saved.getId()).orElseThrow().projectCount());
+    }
+
+    @Test
+    void findWithExternalProjectsById_LoadsProjectsInOneQuery() {
+        User saved = userRepository.save(user("projects@example.com", "Projects"));
+        User empty = userRepository.save(user("empty@example.com", "Empty"));
+        insertProject("project-1", saved.getId(), "Project 1");
+        insertProject("project-2", saved.getId(), "Project 2");
+
+        User found = userRepository.findWithExternalProjectsById(saved.getId()).orElseThrow();
+
+        assertEquals(2, found.getExternalProjects().size());
+        for (ExternalProject project : found.getExternalProjects()) {
+            assertSame(found, project.getUser());
+        }
+        assertTrue(userRepository.findWithExternalProjectsById(empty.getId()).orElseThrow()
+                .getExternalProjects().isEmpty());
+        assertTrue(userRepository.findWithExternalProjectsById(-1L).isEmpty());
+    }
+
+    @Test
+    void deleteById_RemovesUserAndProjects() {
+        User saved = userRepository.save(user("delete@example.com", "Delete"));
+        insertProject("project-3", saved.getId(), "Project 3");
+
+        userRepository.deleteById(saved.getId());
+
+        assertFalse(userRepository.existsById(saved.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tb_user_external_project WHERE user_id = ?", Integer.class, saved.getId()));
+    }
+
+    private static User user(String email, String name) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("$2a$10$hash");
+        user.setName(name);
+        return user;
+    }
+
+    private void insertProject(String id, Long userId, String name) {
+        jdbcTemplate.update("INSERT INTO tb_user_external_project (id, user_id, name) VALUES (?, ?, ?)", id, userId, name);
+    }
+}
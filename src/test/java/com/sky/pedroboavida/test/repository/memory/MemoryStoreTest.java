@@ -0,0 +1,220 @@
+package com.sky.pedroboavida.test.repository.memory;
+
+import com.sky.pedroboavida.test.repository.memory.MemoryStore.ProjectRow;
+import com.sky.pedroboavida.test.repository.memory.MemoryStore.UserRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryStoreTest {
+
+    private static final int JOURNAL_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private MemoryJournal journal;
+    private MemoryStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        open(JOURNAL_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void putUser_IndexesByIdAndEmail() {
+        store.putUser(user(store.nextUserId(), "user@example.com"));
+
+        assertEquals("user@example.com", store.findUser(1).orElseThrow().email());
+        assertEquals(1, store.findUserByEmail("user@example.com").orElseThrow().id());
+    }
+
+    @Test
+    void putUser_DuplicateEmail_ThrowsDuplicateKey() {
+        store.putUser(user(1, "user@example.com"));
+
+        assertThrows(DuplicateKeyException.class, () -> store.putUser(user(2, "user@example.com")));
+        assertTrue(store.findUser(2).isEmpty());
+    }
+
+    @Test
+    void putProject_UnknownUser_ThrowsDataIntegrityViolation() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> store.putProject(new ProjectRow("project-1", 99, "Project")));
+    }
+
+    @Test
+    void deleteUser_CascadesToProjects() {
+        store.putUser(user(1, "user@example.com"));
+        store.putProject(new ProjectRow("project-1", 1, "Project"));
+
+        store.deleteUser(1);
+
+        assertTrue(store.findUser(1).isEmpty());
+        assertTrue(store.findProject("project-1").isEmpty());
+        assertTrue(store.findProjectsByUser(1).isEmpty());
+    }
+
+    @Test
+    void rollback_DiscardsChanges() {
+        store.putUser(user(1, "before@example.com"));
+
+        MemoryStore.UnitOfWork unitOfWork = store.begin();
+        store.putUser(user(1, "after@example.com"));
+        store.putProject(new ProjectRow("project-1", 1, "Project"));
+        store.deleteUser(1);
+        store.rollback(unitOfWork);
+
+        assertEquals("before@example.com", store.findUser(1).orElseThrow().email());
+        assertTrue(store.findUserByEmail("after@example.com").isEmpty());
+        assertTrue(store.findProject("project-1").isEmpty());
+        assertNull(store.currentUnitOfWork());
+    }
+
+    @Test
+    void uncommittedChanges_AreVisibleOnlyToTheirUnitOfWork() throws Exception {
+        store.putUser(user(1, "before@example.com"));
+
+        MemoryStore.UnitOfWork unitOfWork = store.begin();
+        store.putUser(user(1, "after@example.com"));
+        store.putProject(new ProjectRow("project-1", 1, "Project"));
+
+        assertEquals("after@example.com", store.findUser(1).orElseThrow().email());
+        assertEquals(1, store.countProjectsByUser(1));
+        assertTrue(store.findUserByEmail("before@example.com").isEmpty());
+        assertEquals("before@example.com", readElsewhere(() -> store.findUser(1).orElseThrow().email()));
+        assertTrue(readElsewhere(() -> store.findProject("project-1").isEmpty()));
+        assertTrue(readElsewhere(() -> store.findUserByEmail("after@example.com").isEmpty()));
+
+        store.commit(unitOfWork);
+
+        assertEquals("after@example.com", readElsewhere(() -> store.findUser(1).orElseThrow().email()));
+        assertEquals(1, readElsewhere(() -> store.countProjectsByUser(1)));
+    }
+
+    @Test
+    void transactionManager_RollsBackOnException() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new MemoryTransactionManager(store));
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            store.putUser(user(1, "user@example.com"));
+            throw new IllegalStateException("boom");
+        }));
+
+        assertTrue(store.findUser(1).isEmpty());
+        transactionTemplate.executeWithoutResult(status -> store.putUser(user(1, "user@example.com")));
+        assertTrue(store.findUser(1).isPresent());
+    }
+
+    @Test
+    void reopen_ReplaysCommittedJournal() throws IOException {
+        store.putUser(user(1, "user@example.com"));
+        store.putProject(new ProjectRow("project-1", 1, "Project 1"));
+        store.putProject(new ProjectRow("project-2", 1, "Project 2"));
+        store.deleteProject("project-1");
+        MemoryStore.UnitOfWork unitOfWork = store.begin();
+        store.putUser(user(2, "uncommitted@example.com"));
+        store.rollback(unitOfWork);
+
+        crash();
+        open(JOURNAL_SIZE);
+
+        assertEquals("user@example.com", store.findUser(1).orElseThrow().email());
+        assertEquals(List.of(new ProjectRow("project-2", 1, "Project 2")), store.findProjectsByUser(1));
+        assertTrue(store.findUser(2).isEmpty());
+        assertEquals(2, store.nextUserId());
+    }
+
+    @Test
+    void reopen_IgnoresTornFrameAtTail() throws IOException {
+        store.putUser(user(1, "first@example.com"));
+        store.putUser(user(2, "second@example.com"));
+        crash();
+
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("journal.bin").toFile(), "rw")) {
+            int firstFrame = 2 * Integer.BYTES + file.readInt();
+            long payloadByte = firstFrame + 2 * Integer.BYTES + 4;
+            file.seek(payloadByte);
+            int value = file.read();
+            file.seek(payloadByte);
+            file.write(value ^ 0xFF);
+        }
+        open(JOURNAL_SIZE);
+
+        assertTrue(store.findUser(1).isPresent());
+        assertTrue(store.findUser(2).isEmpty());
+    }
+
+    @Test
+    void close_CompactsJournalIntoSnapshot() throws IOException {
+        store.putUser(user(1, "user@example.com"));
+        store.putProject(new ProjectRow("project-1", 1, "Project"));
+
+        store.close();
+        open(JOURNAL_SIZE);
+
+        assertTrue(journal.isEmpty());
+        assertTrue(store.findUser(1).isPresent());
+        assertTrue(store.findProject("project-1").isPresent());
+    }
+
+    @Test
+    void commit_JournalFull_CompactsAndKeepsCommittedRows() throws IOException {
+        store.close();
+        directory = directory.resolve("small");
+        open(256);
+
+        for (int i = 1; i <= 20; i++) {
+            store.putUser(user(i, "user" + i + "@example.com"));
+        }
+        crash();
+        open(256);
+
+        for (int i = 1; i <= 20; i++) {
+            assertTrue(store.findUser(i).isPresent(), "user " + i);
+        }
+    }
+
+    private static <T> T readElsewhere(Callable<T> read) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(read).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void open(int journalSize) throws IOException {
+        journal = new MemoryJournal(directory, journalSize, false);
+        store = new MemoryStore(journal, Duration.ZERO);
+    }
+
+    // Drops the store without the compaction a graceful shutdown does
+    private void crash() throws IOException {
+        journal.close();
+    }
+
+    private static UserRow user(long id, String email) {
+        return new UserRow(id, email, "$2a$10$hash", "User " + id);
+    }
+}
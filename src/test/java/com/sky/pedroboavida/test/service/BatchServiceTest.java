@@ -0,0 +1,136 @@
+package com.sky.pedroboavida.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.pedroboavida.test.exception.UserNotFoundException;
+import com.sky.pedroboavida.test.model.BatchOperation;
+import com.sky.pedroboavida.test.model.BatchOperationResult;
+import com.sky.pedroboavida.test.model.BatchRequest;
+import com.sky.pedroboavida.test.model.BatchResponse;
+import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
+import com.sky.pedroboavida.test.model.CreateUserRequest;
+import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.model.UserDTO;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ExternalProjectService externalProjectService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new BatchService(userService, externalProjectService, transactionManager,
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator());
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    void executeBatch_Atomic_AllOperationsSucceed() {
+        when(userService.createUser(any(CreateUserRequest.class))).thenReturn(new UserDTO());
+        when(externalProjectService.addExternalProject(eq(1L), any(CreateExternalProjectRequest.class)))
+                .thenReturn(new ExternalProjectDTO());
+
+        BatchResponse response = batchService.executeBatch(request(BatchRequest.ModeEnum.ATOMIC,
+                operation(BatchOperation.MethodEnum.POST, "/api/users",
+                        Map.of("email", "test@example.com", "password", "password123")),
+                operation(BatchOperation.MethodEnum.POST, "/api/users/1/external-projects",
+                        Map.of("id", "project-1", "name", "Test Project"))));
+
+        assertTrue(response.getCommitted());
+        assertEquals(List.of(201, 201), statuses(response));
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void executeBatch_Atomic_StopsAndRollsBackOnFirstFailure() {
+        when(userService.getUserById(1L)).thenReturn(new UserDTO());
+        when(userService.getUserById(2L)).thenThrow(new UserNotFoundException(2L));
+
+        BatchResponse response = batchService.executeBatch(request(BatchRequest.ModeEnum.ATOMIC,
+                operation(BatchOperation.MethodEnum.GET, "/api/users/1", null),
+                operation(BatchOperation.MethodEnum.GET, "/api/users/2", null),
+                operation(BatchOperation.MethodEnum.DELETE, "/api/users/3", null)));
+
+        assertFalse(response.getCommitted());
+        assertEquals(List.of(200, 404, 424), statuses(response));
+        verify(userService, never()).deleteUser(any());
+    }
+
+    @Test
+    void executeBatch_BestEffort_ContinuesAfterFailure() {
+        when(userService.getUserById(2L)).thenThrow(new UserNotFoundException(2L));
+
+        BatchResponse response = batchService.executeBatch(request(BatchRequest.ModeEnum.BEST_EFFORT,
+                operation(BatchOperation.MethodEnum.GET, "/api/users/2", null),
+                operation(BatchOperation.MethodEnum.DELETE, "/api/users/3/external-projects/project-1", null)));
+
+        assertTrue(response.getCommitted());
+        assertEquals(List.of(404, 204), statuses(response));
+        verify(externalProjectService).deleteExternalProject("project-1", 3L);
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    @Test
+    void executeBatch_UnsupportedOperation_ReturnsBadRequest() {
+        BatchResponse response = batchService.executeBatch(request(BatchRequest.ModeEnum.BEST_EFFORT,
+                operation(BatchOperation.MethodEnum.DELETE, "/api/users", null)));
+
+        assertEquals(List.of(400), statuses(response));
+    }
+
+    @Test
+    void executeBatch_InvalidBody_ReturnsBadRequest() {
+        BatchResponse response = batchService.executeBatch(request(BatchRequest.ModeEnum.BEST_EFFORT,
+                operation(BatchOperation.MethodEnum.POST, "/api/users", Map.of("email", "test@example.com"))));
+
+        assertEquals(List.of(400), statuses(response));
+        verify(userService, never()).createUser(any());
+    }
+
+    private static BatchRequest request(BatchRequest.ModeEnum mode, BatchOperation... operations) {
+        BatchRequest request = new BatchRequest();
+        request.setMode(mode);
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private static BatchOperation operation(BatchOperation.MethodEnum method, String path, Object body) {
+        BatchOperation operation = new BatchOperation();
+        operation.setMethod(method);
+        operation.setPath(path);
+        operation.setBody(body);
+        return operation;
+    }
+
+    private static List<Integer> statuses(BatchResponse response) {
+        return response.getResults().stream()
+                .map(BatchOperationResult::getStatus)
+                .collect(Collectors.toList());
+    }
+}
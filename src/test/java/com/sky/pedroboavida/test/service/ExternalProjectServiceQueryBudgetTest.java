@@ -0,0 +1,127 @@
+package com.sky.pedroboavida.test.service;
+
+import com.sky.pedroboavida.test.config.TestcontainersConfig;
+import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
+import com.sky.pedroboavida.test.model.CreateUserRequest;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsRequest;
+import com.sky.pedroboavida.test.model.UpdateExternalProjectRequest;
+import com.sky.pedroboavida.test.util.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query budgets for {@link ExternalProjectService} against Postgres, see {@link UserServiceQueryBudgetTest}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(QueryCounter.Config.class)
+class ExternalProjectServiceQueryBudgetTest extends TestcontainersConfig {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ExternalProjectService externalProjectService;
+
+    private Long userId;
+    private List<CreateExternalProjectRequest> projects;
+
+    @BeforeEach
+    void setUp() {
+        CreateUserRequest request = new CreateUserRequest();
+        request.setEmail(UUID.randomUUID() + "@example.com");
+        request.setPassword("password123");
+        request.setName("Budget User");
+        userId = userService.createUser(request).getId();
+
+        projects = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CreateExternalProjectRequest project = project("Project " + i);
+            externalProjectService.addExternalProject(userId, project);
+            projects.add(project);
+        }
+        QueryCounter.reset();
+    }
+
+    // User and project existence checks, the quota update, the user's load and the select merging the new project does
+    @Test
+    void addExternalProject_ChecksExistenceThenInserts() {
+        externalProjectService.addExternalProject(userId, project("New Project"));
+
+        QueryCounter.assertStatements(4, 1, 1, 0);
+    }
+
+    @Test
+    void getExternalProjectsByUserId_DoesNotLoadTheUser() {
+        assertEquals(3, externalProjectService.getExternalProjectsByUserId(userId).size());
+
+        QueryCounter.assertStatements(2, 0, 0, 0);
+    }
+
+    @Test
+    void getExternalProjectsByIds_ReadsAllProjectsInOneSelect() {
+        List<String> ids = projects.stream().map(CreateExternalProjectRequest::getId).toList();
+
+        assertEquals(3, externalProjectService.getExternalProjectsByIds(userId, ids).items().size());
+
+        QueryCounter.assertStatements(2, 0, 0, 0);
+    }
+
+    @Test
+    void getExternalProject_ReadsOneRow() {
+        externalProjectService.getExternalProject(projects.get(0).getId(), userId);
+
+        QueryCounter.assertStatements(1, 0, 0, 0);
+    }
+
+    @Test
+    void updateExternalProject_LoadsThenUpdatesName() {
+        UpdateExternalProjectRequest request = new UpdateExternalProjectRequest();
+        request.setName("Renamed");
+
+        externalProjectService.updateExternalProject(projects.get(0).getId(), userId, request);
+
+        QueryCounter.assertStatements(2, 0, 1, 0);
+    }
+
+    @Test
+    void deleteExternalProject_DeletesAndReleasesSlot() {
+        externalProjectService.deleteExternalProject(projects.get(0).getId(), userId);
+
+        QueryCounter.assertStatements(2, 0, 1, 1);
+    }
+
+    // Whatever the number of projects: the lock, the ownership check, one delete, one update of names
+    // and one insert, and the project count update
+    @Test
+    void syncExternalProjects_UsesConstantStatementsRegardlessOfSize() {
+        List<CreateExternalProjectRequest> desired = new ArrayList<>(projects.subList(1, 3));
+        desired.get(0).setName("Renamed");
+        for (int i = 0; i < 20; i++) {
+            desired.add(project("Synced " + i));
+        }
+        SyncExternalProjectsRequest request = new SyncExternalProjectsRequest();
+        request.setProjects(desired);
+
+        externalProjectService.syncExternalProjects(userId, request);
+
+        QueryCounter.assertStatements(2, 1, 2, 1);
+    }
+
+    private static CreateExternalProjectRequest project(String name) {
+        CreateExternalProjectRequest project = new CreateExternalProjectRequest();
+        project.setId(UUID.randomUUID().toString());
+        project.setName(name);
+        return project;
+    }
+}
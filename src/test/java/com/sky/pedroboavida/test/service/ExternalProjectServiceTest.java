@@ -1,22 +1,27 @@
 package com.sky.pedroboavida.test.service;
 
+import com.sky.pedroboavida.test.config.ProjectQuotaProperties;
 import com.sky.pedroboavida.test.converter.ExternalProjectToExternalProjectDTOConverter;
 import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
 import com.sky.pedroboavida.test.model.ExternalProjectDTO;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsRequest;
+import com.sky.pedroboavida.test.model.SyncExternalProjectsResponse;
 import com.sky.pedroboavida.test.model.UpdateExternalProjectRequest;
 import com.sky.pedroboavida.test.entity.ExternalProject;
 import com.sky.pedroboavida.test.entity.User;
 import com.sky.pedroboavida.test.exception.ExternalProjectAlreadyExistsException;
 import com.sky.pedroboavida.test.exception.ExternalProjectNotFoundException;
+import com.sky.pedroboavida.test.exception.ExternalProjectQuotaExceededException;
+import com.sky.pedroboavida.test.exception.InvalidRequestException;
 import com.sky.pedroboavida.test.exception.UserNotFoundException;
 import com.sky.pedroboavida.test.repository.ExternalProjectRepository;
 import com.sky.pedroboavida.test.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -24,6 +29,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +46,6 @@ class ExternalProjectServiceTest {
     @Mock
     private ExternalProjectToExternalProjectDTOConverter externalProjectConverter;
 
-    @InjectMocks
     private ExternalProjectService externalProjectService;
 
     private User testUser;
@@ -48,6 +55,9 @@ class ExternalProjectServiceTest {
 
     @BeforeEach
     void setUp() {
+        externalProjectService = new ExternalProjectService(externalProjectRepository, userRepository,
+                externalProjectConverter, new ProjectQuotaProperties(2));
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setEmail("test@example.com");
@@ -72,7 +82,8 @@ class ExternalProjectServiceTest {
     void addExternalProject_Success() {
         when(userRepository.existsById(1L)).thenReturn(true);
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(externalProjectRepository.existsByIdAndUserId("project-1", 1L)).thenReturn(false);
+        when(externalProjectRepository.existsById("project-1")).thenReturn(false);
+        when(userRepository.reserveProjectSlot(1L, 2)).thenReturn(1);
         when(externalProjectRepository.save(any(ExternalProject.class))).thenReturn(testProject);
         when(externalProjectConverter.convert(any(ExternalProject.class))).thenReturn(testProjectDTO);
 
@@ -98,13 +109,44 @@ class ExternalProjectServiceTest {
     @Test
     void addExternalProject_AlreadyExists_ThrowsException() {
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(externalProjectRepository.existsByIdAndUserId("project-1", 1L)).thenReturn(true);
+        when(externalProjectRepository.existsById("project-1")).thenReturn(true);
 
         assertThrows(ExternalProjectAlreadyExistsException.class, () -> 
             externalProjectService.addExternalProject(1L, createRequest));
         verify(externalProjectRepository, never()).save(any());
     }
 
+    @Test
+    void addExternalProject_SameIdByTwoUsers_RejectsSecondWithoutCountingIt() {
+        User otherUser = new User();
+        otherUser.setId(2L);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(externalProjectRepository.existsById("project-1")).thenReturn(false, true);
+        when(userRepository.reserveProjectSlot(1L, 2)).thenReturn(1);
+        when(externalProjectRepository.save(any(ExternalProject.class))).thenReturn(testProject);
+        when(externalProjectConverter.convert(any(ExternalProject.class))).thenReturn(testProjectDTO);
+
+        externalProjectService.addExternalProject(1L, createRequest);
+        ExternalProjectAlreadyExistsException exception = assertThrows(ExternalProjectAlreadyExistsException.class,
+                () -> externalProjectService.addExternalProject(2L, createRequest));
+
+        assertEquals("External project with id 'project-1' already exists", exception.getMessage());
+        verify(userRepository, never()).reserveProjectSlot(eq(2L), anyInt());
+        verify(externalProjectRepository, times(1)).save(any(ExternalProject.class));
+    }
+
+    @Test
+    void addExternalProject_QuotaExceeded_ThrowsException() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(externalProjectRepository.existsById("project-1")).thenReturn(false);
+        when(userRepository.reserveProjectSlot(1L, 2)).thenReturn(0);
+
+        assertThrows(ExternalProjectQuotaExceededException.class, () ->
+            externalProjectService.addExternalProject(1L, createRequest));
+        verify(externalProjectRepository, never()).save(any());
+    }
+
     @Test
     void getExternalProjectsByUserId_Success() {
         List<ExternalProject> projects = Arrays.asList(testProject);
@@ -130,6 +172,30 @@ class ExternalProjectServiceTest {
             externalProjectService.getExternalProjectsByUserId(1L));
     }
 
+    @Test
+    void getExternalProjectsByIds_ReturnsProjectsInRequestOrderAndReportsMissingIds() {
+        ExternalProjectDTO otherProjectDTO = new ExternalProjectDTO();
+        otherProjectDTO.setId("project-2");
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(externalProjectRepository.findByUserIdAndIds(1L, List.of("project-2", "missing", "project-1")))
+                .thenReturn(List.of(testProjectDTO, otherProjectDTO));
+
+        MultiGetResult<ExternalProjectDTO, String> result = externalProjectService.getExternalProjectsByIds(
+                1L, List.of("project-2", "missing", "project-1"));
+
+        assertEquals(List.of(otherProjectDTO, testProjectDTO), result.items());
+        assertEquals(List.of("missing"), result.missingIds());
+    }
+
+    @Test
+    void getExternalProjectsByIds_UserNotFound_ThrowsException() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () ->
+            externalProjectService.getExternalProjectsByIds(1L, List.of("project-1")));
+        verify(externalProjectRepository, never()).findByUserIdAndIds(anyLong(), anyList());
+    }
+
     @Test
     void getExternalProject_Success() {
         when(externalProjectRepository.findByIdAndUserId("project-1", 1L))
@@ -243,6 +309,7 @@ class ExternalProjectServiceTest {
         verify(userRepository).existsById(1L);
         verify(externalProjectRepository).findByIdAndUserId("project-1", 1L);
         verify(externalProjectRepository).delete(testProject);
+        verify(userRepository).releaseProjectSlot(1L);
     }
 
     @Test
@@ -264,5 +331,98 @@ class ExternalProjectServiceTest {
             externalProjectService.deleteExternalProject("project-1", 1L));
         verify(externalProjectRepository, never()).delete(any());
     }
-}
 
+    @Test
+    void syncExternalProjects_Success() {
+        CreateExternalProjectRequest renamed = new CreateExternalProjectRequest();
+        renamed.setId("project-2");
+        renamed.setName("Renamed Project");
+        SyncExternalProjectsRequest request = new SyncExternalProjectsRequest();
+        request.setProjects(List.of(createRequest, renamed));
+
+        List<String> ids = List.of("project-1", "project-2");
+        List<String> names = List.of("Test Project", "Renamed Project");
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(externalProjectRepository.findIdsOwnedByOtherUsers(1L, ids)).thenReturn(List.of());
+        when(externalProjectRepository.deleteByUserIdAndIdNotIn(1L, ids)).thenReturn(3);
+        when(externalProjectRepository.updateChangedNames(1L, ids, names)).thenReturn(1);
+        when(externalProjectRepository.insertMissing(1L, ids, names)).thenReturn(0);
+
+        SyncExternalProjectsResponse result = externalProjectService.syncExternalProjects(1L, request);
+
+        assertEquals(0, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(3, result.getDeleted());
+        assertEquals(1, result.getUnchanged());
+        verify(userRepository).updateProjectCount(1L, 2);
+    }
+
+    @Test
+    void syncExternalProjects_IdAddedConcurrentlyByOtherUser_ThrowsException() {
+        SyncExternalProjectsRequest request = new SyncExternalProjectsRequest();
+        request.setProjects(List.of(createRequest));
+
+        List<String> ids = List.of("project-1");
+        List<String> names = List.of("Test Project");
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(externalProjectRepository.findIdsOwnedByOtherUsers(1L, ids)).thenReturn(List.of());
+        when(externalProjectRepository.insertMissing(1L, ids, names))
+                .thenThrow(new DuplicateKeyException("duplicate key value violates unique constraint"));
+
+        assertThrows(ExternalProjectAlreadyExistsException.class, () ->
+            externalProjectService.syncExternalProjects(1L, request));
+        verify(userRepository, never()).updateProjectCount(anyLong(), anyInt());
+    }
+
+    @Test
+    void syncExternalProjects_OverQuota_ThrowsException() {
+        CreateExternalProjectRequest second = new CreateExternalProjectRequest();
+        second.setId("project-2");
+        second.setName("Second");
+        CreateExternalProjectRequest third = new CreateExternalProjectRequest();
+        third.setId("project-3");
+        third.setName("Third");
+        SyncExternalProjectsRequest request = new SyncExternalProjectsRequest();
+        request.setProjects(List.of(createRequest, second, third));
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+
+        assertThrows(ExternalProjectQuotaExceededException.class, () ->
+            externalProjectService.syncExternalProjects(1L, request));
+        verify(externalProjectRepository, never()).deleteByUserIdAndIdNotIn(anyLong(), anyList());
+    }
+
+    @Test
+    void syncExternalProjects_UserNotFound_ThrowsException() {
+        SyncExternalProjectsRequest request = new SyncExternalProjectsRequest();
+        request.setProjects(List.of(createRequest));
+        when(userRepository.lockById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () ->
+            externalProjectService.syncExternalProjects(1L, request));
+        verify(externalProjectRepository, never()).insertMissing(anyLong(), anyList(), anyList());
+    }
+
+    @Test
+    void syncExternalProjects_DuplicateIds_ThrowsException() {
+        SyncExternalProjectsRequest request = new SyncExternalProjectsRequest();
+        request.setProjects(List.of(createRequest, createRequest));
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+
+        assertThrows(InvalidRequestException.class, () ->
+            externalProjectService.syncExternalProjects(1L, request));
+        verify(externalProjectRepository, never()).deleteByUserIdAndIdNotIn(anyLong(), anyList());
+    }
+
+    @Test
+    void syncExternalProjects_ProjectOwnedByOtherUser_ThrowsException() {
+        SyncExternalProjectsRequest request = new SyncExternalProjectsRequest();
+        request.setProjects(List.of(createRequest));
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(externalProjectRepository.findIdsOwnedByOtherUsers(1L, List.of("project-1")))
+                .thenReturn(List.of("project-1"));
+
+        assertThrows(ExternalProjectAlreadyExistsException.class, () ->
+            externalProjectService.syncExternalProjects(1L, request));
+        verify(externalProjectRepository, never()).deleteByUserIdAndIdNotIn(anyLong(), anyList());
+    }
+}
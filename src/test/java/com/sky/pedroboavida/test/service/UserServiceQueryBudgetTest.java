@@ -0,0 +1,118 @@
+package com.sky.pedroboavida.test.service;
+
+import com.sky.pedroboavida.test.config.TestcontainersConfig;
+import com.sky.pedroboavida.test.model.CreateExternalProjectRequest;
+import com.sky.pedroboavida.test.model.CreateUserRequest;
+import com.sky.pedroboavida.test.model.UpdateUserRequest;
+import com.sky.pedroboavida.test.model.UserDTO;
+import com.sky.pedroboavida.test.util.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query budgets for {@link UserService} against Postgres: the exact number of statements of each
+ * kind a call may execute. A failure lists the statements that ran, so an added lazy load or
+ * existence check shows up in the build rather than in production latency.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(QueryCounter.Config.class)
+class UserServiceQueryBudgetTest extends TestcontainersConfig {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ExternalProjectService externalProjectService;
+
+    private UserDTO user;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser();
+        QueryCounter.reset();
+    }
+
+    @Test
+    void createUser_ChecksEmailThenInserts() {
+        createUser();
+
+        QueryCounter.assertStatements(1, 1, 0, 0);
+    }
+
+    @Test
+    void getUserById_ReadsSummaryInOneSelect() {
+        userService.getUserById(user.getId(), false);
+
+        QueryCounter.assertStatements(1, 0, 0, 0);
+    }
+
+    @Test
+    void getUserById_WithExternalProjects_FetchesThemInTheSameSelect() {
+        addProjects(user.getId(), 3);
+        QueryCounter.reset();
+
+        UserDTO result = userService.getUserById(user.getId(), true);
+
+        assertEquals(3, result.getExternalProjects().size());
+        QueryCounter.assertStatements(1, 0, 0, 0);
+    }
+
+    @Test
+    void getUsersByIds_ReadsAllUsersInOneSelect() {
+        UserDTO other = createUser();
+        QueryCounter.reset();
+
+        MultiGetResult<UserDTO, Long> result = userService.getUsersByIds(List.of(user.getId(), other.getId(), -1L));
+
+        assertEquals(2, result.items().size());
+        QueryCounter.assertStatements(1, 0, 0, 0);
+    }
+
+    @Test
+    void updateUser_LoadsThenUpdatesChangedColumns() {
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setName("Renamed");
+
+        userService.updateUser(user.getId(), request);
+
+        QueryCounter.assertStatements(1, 0, 1, 0);
+    }
+
+    // Existence check, load, and the load of the projects that cascade, then one delete per project and the user's
+    @Test
+    void deleteUser_DeletesProjectsThroughCascade() {
+        addProjects(user.getId(), 2);
+        QueryCounter.reset();
+
+        userService.deleteUser(user.getId());
+
+        QueryCounter.assertStatements(3, 0, 0, 3);
+    }
+
+    private UserDTO createUser() {
+        CreateUserRequest request = new CreateUserRequest();
+        request.setEmail(UUID.randomUUID() + "@example.com");
+        request.setPassword("password123");
+        request.setName("Budget User");
+        return userService.createUser(request);
+    }
+
+    private void addProjects(Long userId, int count) {
+        for (int i = 0; i < count; i++) {
+            CreateExternalProjectRequest project = new CreateExternalProjectRequest();
+            project.setId(UUID.randomUUID().toString());
+            project.setName("Project " + i);
+            externalProjectService.addExternalProject(userId, project);
+        }
+    }
+}
@@ -5,18 +5,24 @@ import com.sky.pedroboavida.test.model.CreateUserRequest;
 import com.sky.pedroboavida.test.model.UpdateUserRequest;
 import com.sky.pedroboavida.test.model.UserDTO;
 import com.sky.pedroboavida.test.entity.User;
+import com.sky.pedroboavida.test.exception.InvalidRequestException;
 import com.sky.pedroboavida.test.exception.UserAlreadyExistsException;
 import com.sky.pedroboavida.test.exception.UserNotFoundException;
 import com.sky.pedroboavida.test.repository.UserRepository;
+import com.sky.pedroboavida.test.repository.UserSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -35,7 +41,6 @@ class UserServiceTest {
     @Mock
     private UserToUserDTOConverter userToUserDTOConverter;
 
-    @InjectMocks
     private UserService userService;
 
     private User testUser;
@@ -44,6 +49,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        userService = new UserService(userRepository, passwordEncoder, userToUserDTOConverter,
+                TransactionOperations.withoutTransaction());
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setEmail("test@example.com");
@@ -87,27 +95,85 @@ class UserServiceTest {
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    void createUser_ConcurrentDuplicateEmail_ThrowsException() {
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(UserAlreadyExistsException.class, () -> userService.createUser(createRequest));
+        verify(userToUserDTOConverter, never()).convert(any(User.class));
+    }
+
     @Test
     void getUserById_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userToUserDTOConverter.convert(any(User.class))).thenReturn(testUserDTO);
+        UserSummary summary = new UserSummary(1L, "test@example.com", "Test User", 0);
+        when(userRepository.findSummaryById(1L)).thenReturn(Optional.of(summary));
+        when(userToUserDTOConverter.convertSummary(summary)).thenReturn(testUserDTO);
 
         UserDTO result = userService.getUserById(1L);
 
         assertNotNull(result);
         assertEquals(testUser.getId(), result.getId());
         assertEquals(testUser.getEmail(), result.getEmail());
-        verify(userRepository).findById(1L);
-        verify(userToUserDTOConverter).convert(any(User.class));
+        verify(userRepository).findSummaryById(1L);
+        verify(userRepository, never()).findById(any());
+        verify(userToUserDTOConverter).convertSummary(summary);
     }
 
     @Test
     void getUserById_NotFound_ThrowsException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findSummaryById(1L)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> userService.getUserById(1L));
     }
 
+    @Test
+    void getUserById_WithExpandedExternalProjects_FetchesProjectsInOneQuery() {
+        when(userRepository.findWithExternalProjectsById(1L)).thenReturn(Optional.of(testUser));
+        when(userToUserDTOConverter.convert(testUser)).thenReturn(testUserDTO);
+
+        UserDTO result = userService.getUserById(1L, true);
+
+        assertNotNull(result);
+        verify(userRepository).findWithExternalProjectsById(1L);
+        verify(userRepository, never()).findSummaryById(any());
+    }
+
+    @Test
+    void getUserById_WithExpandedExternalProjects_NotFound_ThrowsException() {
+        when(userRepository.findWithExternalProjectsById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(1L, true));
+    }
+
+    @Test
+    void getUsersByIds_ReturnsUsersInRequestOrderAndReportsMissingIds() {
+        UserSummary first = new UserSummary(1L, "first@example.com", "First", 0);
+        UserSummary third = new UserSummary(3L, "third@example.com", "Third", 0);
+        UserDTO firstDTO = new UserDTO();
+        firstDTO.setId(1L);
+        UserDTO thirdDTO = new UserDTO();
+        thirdDTO.setId(3L);
+
+        when(userRepository.findSummariesByIds(List.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+        when(userToUserDTOConverter.convertSummary(first)).thenReturn(firstDTO);
+        when(userToUserDTOConverter.convertSummary(third)).thenReturn(thirdDTO);
+
+        MultiGetResult<UserDTO, Long> result = userService.getUsersByIds(List.of(3L, 2L, 1L, 3L));
+
+        assertEquals(List.of(thirdDTO, firstDTO), result.items());
+        assertEquals(List.of(2L), result.missingIds());
+    }
+
+    @Test
+    void getUsersByIds_TooManyIds_ThrowsException() {
+        List<Long> ids = LongStream.rangeClosed(1, MultiGetResult.MAX_IDS + 1).boxed().collect(Collectors.toList());
+
+        assertThrows(InvalidRequestException.class, () -> userService.getUsersByIds(ids));
+        verify(userRepository, never()).findSummariesByIds(any());
+    }
+
     @Test
     void updateUser_Success() {
         UpdateUserRequest updateRequest = new UpdateUserRequest();
@@ -133,6 +199,27 @@ class UserServiceTest {
         verify(userToUserDTOConverter).convert(any(User.class));
     }
 
+    @Test
+    void updateUser_WithPassword_HashesBeforeTransaction() {
+        UpdateUserRequest updateRequest = new UpdateUserRequest();
+        updateRequest.setPassword("newPassword123");
+        TransactionOperations transactionOperations = mock(TransactionOperations.class);
+        userService = new UserService(userRepository, passwordEncoder, userToUserDTOConverter, transactionOperations);
+
+        when(passwordEncoder.encode("newPassword123")).thenReturn("newEncodedPassword");
+        when(transactionOperations.execute(any())).thenAnswer(invocation -> {
+            verify(passwordEncoder).encode("newPassword123");
+            return TransactionOperations.withoutTransaction().execute(invocation.getArgument(0));
+        });
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+        when(userToUserDTOConverter.convert(testUser)).thenReturn(testUserDTO);
+
+        userService.updateUser(1L, updateRequest);
+
+        assertEquals("newEncodedPassword", testUser.getPassword());
+    }
+
     @Test
     void updateUser_NotFound_ThrowsException() {
         UpdateUserRequest updateRequest = new UpdateUserRequest();
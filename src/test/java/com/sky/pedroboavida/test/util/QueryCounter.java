@@ -0,0 +1,183 @@
+package com.sky.pedroboavida.test.util;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the SQL statements the current thread executes, by kind, so tests can hold service calls
+ * to a query budget and fail when a change adds statements, such as an N+1 lazy load or another
+ * existence check. Statements are counted at the JDBC level, so those run through
+ * {@code JdbcTemplate} are included along with Hibernate's. Import {@link Config} into a Spring
+ * test to wrap the application's data source.
+ */
+public final class QueryCounter {
+
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+
+    public static int count(Kind kind) {
+        return (int) STATEMENTS.get().stream().filter(sql -> kind(sql) == kind).count();
+    }
+
+    /**
+     * Asserts the exact number of each kind of statement executed since the last {@link #reset()},
+     * listing them all on failure.
+     */
+    public static void assertStatements(int selects, int inserts, int updates, int deletes) {
+        Map<Kind, Integer> expected = new EnumMap<>(Kind.class);
+        expected.put(Kind.SELECT, selects);
+        expected.put(Kind.INSERT, inserts);
+        expected.put(Kind.UPDATE, updates);
+        expected.put(Kind.DELETE, deletes);
+        Map<Kind, Integer> actual = new EnumMap<>(Kind.class);
+        for (Kind kind : expected.keySet()) {
+            actual.put(kind, count(kind));
+        }
+        assertEquals(expected, actual, () -> "Statements executed:\n  " + String.join("\n  ", STATEMENTS.get()));
+    }
+
+    static Kind kind(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        while (statement.startsWith("/*") && statement.contains("*/")) {
+            statement = statement.substring(statement.indexOf("*/") + 2).stripLeading();
+        }
+        for (Kind kind : Kind.values()) {
+            if (statement.startsWith(kind.name().toLowerCase(Locale.ROOT))) {
+                return kind;
+            }
+        }
+        return Kind.OTHER;
+    }
+
+    private static void record(String sql) {
+        STATEMENTS.get().add(sql);
+    }
+
+    /**
+     * Wraps the data source that JPA and {@code JdbcTemplate} share.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        public static BeanPostProcessor queryCountingBeanPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                        return new CountingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(Connection connection) {
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = invoke(connection, method, args);
+                String name = method.getName();
+                if (result instanceof CallableStatement statement) {
+                    return proxy(CallableStatement.class, statement, counting(statement, (String) args[0]));
+                }
+                if (result instanceof PreparedStatement statement && name.startsWith("prepare")) {
+                    return proxy(PreparedStatement.class, statement, counting(statement, (String) args[0]));
+                }
+                if (result instanceof Statement statement) {
+                    return proxy(Statement.class, statement, counting(statement, null));
+                }
+                return result;
+            });
+        }
+
+        // A prepared statement runs its own SQL, a plain one the SQL passed to execute or addBatch.
+        private static Invocation counting(Statement statement, String preparedSql) {
+            List<String> batch = new ArrayList<>();
+            return (method, args) -> {
+                String name = method.getName();
+                if (name.equals("addBatch")) {
+                    batch.add(preparedSql != null ? preparedSql : (String) args[0]);
+                } else if (name.equals("clearBatch")) {
+                    batch.clear();
+                } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                    batch.forEach(QueryCounter::record);
+                    batch.clear();
+                } else if (name.startsWith("execute")) {
+                    record(preparedSql != null ? preparedSql : (String) args[0]);
+                }
+                return invoke(statement, method, args);
+            };
+        }
+
+        private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> invocation.invoke(method, args);
+                    }));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+}
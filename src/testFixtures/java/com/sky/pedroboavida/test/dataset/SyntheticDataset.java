@@ -0,0 +1,251 @@
+package com.sky.pedroboavida.test.dataset;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Synthetic users and external projects for benchmarks, load tests and integration tests,
+ * written to {@code tb_user} and {@code tb_user_external_project} with Postgres {@code COPY}.
+ *
+ * <p>The number of projects of a user follows a Zipf distribution over {@code 0..maxProjectsPerUser}:
+ * the probability of {@code k} projects is proportional to {@code 1 / (k + 1)^skew}, so most users
+ * own a few projects and a long tail owns many; a skew of 0 makes every count equally likely. Counts
+ * are derived from the seed and the user id, so the methods below can tell which projects a user
+ * has without querying the database.
+ *
+ * <p>BCrypt is far too slow to hash millions of passwords, so users share a small pool of
+ * passwords that are hashed once per run: user {@code id} has password {@link #password(long)}.
+ */
+public final class SyntheticDataset {
+
+    private static final int BCRYPT_STRENGTH = 10;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final long users;
+    private final int maxProjectsPerUser;
+    private final double skew;
+    private final long seed;
+    private final int passwordPoolSize;
+    private final double[] projectCountCdf;
+
+    private SyntheticDataset(Builder builder) {
+        this.users = builder.users;
+        this.maxProjectsPerUser = builder.maxProjectsPerUser;
+        this.skew = builder.skew;
+        this.seed = builder.seed;
+        this.passwordPoolSize = builder.passwordPoolSize;
+        this.projectCountCdf = zipfCdf(maxProjectsPerUser, skew);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Appends the dataset in a single transaction, giving users the ids after the highest existing
+     * one, and moves the id sequence past them. Meant for a database nothing else writes to
+     * while it runs.
+     */
+    public Range populate(DataSource dataSource) throws SQLException {
+        String[] passwordHashes = hashPasswords();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL synchronous_commit = off");
+                long firstUserId = queryLong(statement, "SELECT COALESCE(MAX(id), 0) + 1 FROM tb_user");
+                long lastUserId = firstUserId + users - 1;
+
+                long projects = 0;
+                try (Writer out = copy(connection, "COPY tb_user (id, email, password, name, project_count) FROM STDIN")) {
+                    for (long id = firstUserId; id <= lastUserId; id++) {
+                        int projectCount = projectCount(id);
+                        projects += projectCount;
+                        out.write(id + "\t" + email(id) + "\t" + passwordHashes[passwordIndex(id)] + "\tUser " + id
+                                + "\t" + projectCount + "\n");
+                    }
+                }
+                try (Writer out = copy(connection, "COPY tb_user_external_project (id, user_id, name) FROM STDIN")) {
+                    for (long id = firstUserId; id <= lastUserId; id++) {
+                        int projectCount = projectCount(id);
+                        for (int index = 0; index < projectCount; index++) {
+                            out.write(projectId(id, index) + "\t" + id + "\tProject " + index + "\n");
+                        }
+                    }
+                }
+
+                if (users > 0) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('tb_user', 'id'), " + lastUserId + ")");
+                }
+                connection.commit();
+                statement.execute("ANALYZE tb_user, tb_user_external_project");
+                return new Range(firstUserId, lastUserId, projects);
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                if (e instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new SQLException("Populating the synthetic dataset failed", e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    public String email(long userId) {
+        return "dataset-user-" + userId + "@example.com";
+    }
+
+    public String password(long userId) {
+        return "dataset-password-" + passwordIndex(userId);
+    }
+
+    public String basicAuthorization(long userId) {
+        String credentials = email(userId) + ":" + password(userId);
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int projectCount(long userId) {
+        int index = Arrays.binarySearch(projectCountCdf, uniform(userId));
+        return Math.min(maxProjectsPerUser, index >= 0 ? index : -index - 1);
+    }
+
+    public String projectId(long userId, int index) {
+        return "ds-" + userId + "-" + index;
+    }
+
+    public long users() {
+        return users;
+    }
+
+    public int maxProjectsPerUser() {
+        return maxProjectsPerUser;
+    }
+
+    public double skew() {
+        return skew;
+    }
+
+    private String[] hashPasswords() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+        String[] hashes = new String[passwordPoolSize];
+        for (int i = 0; i < passwordPoolSize; i++) {
+            hashes[i] = encoder.encode("dataset-password-" + i);
+        }
+        return hashes;
+    }
+
+    private int passwordIndex(long userId) {
+        return (int) Math.floorMod(userId, (long) passwordPoolSize);
+    }
+
+    /**
+     * A uniform value in {@code [0, 1)} derived from the seed and the user id (the SplitMix64 mixer).
+     */
+    private double uniform(long userId) {
+        long z = seed + userId * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private static double[] zipfCdf(int maxValue, double skew) {
+        double[] cdf = new double[maxValue + 1];
+        double total = 0;
+        for (int k = 0; k <= maxValue; k++) {
+            total += 1 / Math.pow(k + 1, skew);
+            cdf[k] = total;
+        }
+        for (int k = 0; k <= maxValue; k++) {
+            cdf[k] /= total;
+        }
+        cdf[maxValue] = 1.0;
+        return cdf;
+    }
+
+    private static Writer copy(Connection connection, String sql) throws SQLException {
+        PGCopyOutputStream stream = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, BUFFER_SIZE);
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Ids of the users a {@link #populate} call created, and how many projects they own in total.
+     */
+    public record Range(long firstUserId, long lastUserId, long projects) {
+
+        public long users() {
+            return lastUserId - firstUserId + 1;
+        }
+    }
+
+    public static final class Builder {
+
+        private long users = 10_000;
+        private int maxProjectsPerUser = 20;
+        private double skew = 1.0;
+        private long seed = 42;
+        private int passwordPoolSize = 16;
+
+        private Builder() {
+        }
+
+        public Builder users(long users) {
+            this.users = users;
+            return this;
+        }
+
+        public Builder maxProjectsPerUser(int maxProjectsPerUser) {
+            this.maxProjectsPerUser = maxProjectsPerUser;
+            return this;
+        }
+
+        /**
+         * Zipf exponent of the projects per user; 0 spreads counts uniformly, higher values
+         * concentrate users on few projects.
+         */
+        public Builder skew(double skew) {
+            this.skew = skew;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder passwordPoolSize(int passwordPoolSize) {
+            this.passwordPoolSize = passwordPoolSize;
+            return this;
+        }
+
+        public SyntheticDataset build() {
+            if (users < 0 || maxProjectsPerUser < 0 || skew < 0 || passwordPoolSize < 1) {
+                throw new IllegalArgumentException(
+                        "users, maxProjectsPerUser and skew must not be negative and passwordPoolSize must be positive");
+            }
+            return new SyntheticDataset(this);
+        }
+    }
+}